@@ -0,0 +1,125 @@
+package com.example.wordrecommend_backend.service;
+
+import com.example.wordrecommend_backend.config.AlgorithmConfig;
+import com.example.wordrecommend_backend.dto.ReviewCandidate;
+import com.example.wordrecommend_backend.entity.Word;
+import com.example.wordrecommend_backend.entity.WordState;
+import com.example.wordrecommend_backend.util.TimeUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AlgorithmCoreService 熱路徑基準測試
+ *
+ * 這些方法在每次推薦 / 複習請求中會對每個候選單字執行一次（數千次 / 請求），
+ * 搭配 -prof gc 觀察每次呼叫的配置量，避免評分邏輯的修改造成效能退化
+ *
+ * 參數與 application.properties 預設值相同（lambdaDecay 另設為 0.1，讓指數項有實際運算）
+ *
+ * 執行：mvn -Pbenchmarks test-compile exec:exec -Djmh.args="AlgorithmCoreServiceBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AlgorithmCoreServiceBenchmark {
+
+    private AlgorithmCoreService algorithmCoreService;
+
+    private Word word;
+    private WordState reviewingState;
+    private WordState forgottenState;
+    private ReviewCandidate reviewingCandidate;
+    private ReviewCandidate forgottenCandidate;
+    private LocalDateTime now;
+    private long nowMs;
+
+    @Setup
+    public void setUp() {
+        AlgorithmConfig config = new AlgorithmConfig();
+        config.setLambdaDecay(0.1);
+        config.setBetaPenalty(0.3);
+        config.setGammaSpeed(0.05);
+        config.setTMaxMs(15000);
+        config.setW1Strength(0.7);
+        config.setW2Urgency(0.3);
+        config.setThresholdS1(0.10);
+        config.setThresholdS2(0.5);
+        config.setThresholdS3(0.85);
+        config.setAlphaReward(0.1);
+        config.setAlphaRewardS0(0.10);
+        config.setAlphaRewardS1(0.15);
+        config.setAlphaRewardS2(0.10);
+        config.setAlphaRewardS3(0.05);
+        algorithmCoreService = new AlgorithmCoreService(config);
+
+        now = LocalDateTime.of(2025, 11, 3, 12, 0);
+        nowMs = TimeUtil.toEpochMillis(now);
+
+        word = new Word();
+        word.setId(1L);
+        word.setWordText("benchmark");
+        word.setComplexityScore(0.4);
+
+        reviewingState = new WordState();
+        reviewingState.setWord(word);
+        reviewingState.setCurrentState("S2");
+        reviewingState.setMemoryStrength(0.7);
+        reviewingState.setHasEverLearned(true);
+        reviewingState.setForgottenCount(2);
+        reviewingState.setReadCount(4);
+        reviewingState.setLastReviewTime(now.minusDays(3).minusHours(5));
+
+        forgottenState = new WordState();
+        forgottenState.setWord(word);
+        forgottenState.setCurrentState("S-1");
+        forgottenState.setMemoryStrength(0.05);
+        forgottenState.setHasEverLearned(true);
+        forgottenState.setForgottenCount(3);
+        forgottenState.setReadCount(6);
+        forgottenState.setLastReviewTime(now.minusDays(9));
+        forgottenState.setLastForgottenTime(now.minusDays(5));
+
+        reviewingCandidate = ReviewCandidate.from(reviewingState, word);
+        forgottenCandidate = ReviewCandidate.from(forgottenState, word);
+    }
+
+    @Benchmark
+    public double calculateDecay() {
+        return algorithmCoreService.calculateDecay(reviewingState, word, now);
+    }
+
+    @Benchmark
+    public double calculateReviewPriorityEntity() {
+        return algorithmCoreService.calculateReviewPriority(reviewingState, word, now);
+    }
+
+    @Benchmark
+    public double calculateReviewPriorityCandidate() {
+        return algorithmCoreService.calculateReviewPriority(reviewingCandidate, nowMs);
+    }
+
+    @Benchmark
+    public double calculateReviewPriorityForgottenCandidate() {
+        return algorithmCoreService.calculateReviewPriority(forgottenCandidate, nowMs);
+    }
+
+    @Benchmark
+    public double calculateNewMemoryStrengthFromReading() {
+        return algorithmCoreService.calculateNewMemoryStrengthFromReading(reviewingState, word, 12.0, now);
+    }
+
+    @Benchmark
+    public String determineFsmState() {
+        return algorithmCoreService.determineFsmState(0.62, true);
+    }
+
+    @Benchmark
+    public LocalDateTime calculateNextReviewTime() {
+        return algorithmCoreService.calculateNextReviewTime(reviewingState, word, now);
+    }
+}
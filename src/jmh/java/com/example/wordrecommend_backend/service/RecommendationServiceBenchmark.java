@@ -0,0 +1,80 @@
+package com.example.wordrecommend_backend.service;
+
+import com.example.wordrecommend_backend.entity.Word;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RecommendationService 內部工具方法基準測試
+ *
+ * - distributeCounts：每次推薦呼叫兩次（狀態配額、CEFR 等級配額）
+ * - deduplicateById：合併各狀態單字後去重
+ *
+ * 兩者皆為套件可見的 static 方法，本類別放在同一套件以直接呼叫
+ *
+ * 執行：mvn -Pbenchmarks test-compile exec:exec -Djmh.args="RecommendationServiceBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecommendationServiceBenchmark {
+
+    /**
+     * 推薦數量（limit）
+     */
+    @Param({"20", "200"})
+    public int limit;
+
+    private Map<String, Double> stateRatio;
+    private Map<String, Double> levelRatio;
+    private List<Word> mergedWords;
+
+    @Setup
+    public void setUp() {
+        // 情境 A：探索為主
+        stateRatio = new LinkedHashMap<>();
+        stateRatio.put("S0", 0.60);
+        stateRatio.put("S-1", 0.05);
+        stateRatio.put("S1", 0.15);
+        stateRatio.put("S2", 0.15);
+        stateRatio.put("S3", 0.05);
+
+        levelRatio = new LinkedHashMap<>();
+        levelRatio.put("A1", 0.25);
+        levelRatio.put("A2", 0.21);
+        levelRatio.put("B1", 0.19);
+        levelRatio.put("B2", 0.14);
+        levelRatio.put("C1", 0.12);
+        levelRatio.put("C2", 0.09);
+
+        // 各狀態合併後約有 10% 重複
+        Random random = new Random(42);
+        mergedWords = new ArrayList<>(limit);
+        for (int i = 0; i < limit; i++) {
+            Word word = new Word();
+            word.setId((long) random.nextInt(limit * 9 / 10 + 1));
+            word.setWordText("w" + i);
+            mergedWords.add(word);
+        }
+    }
+
+    @Benchmark
+    public Map<String, Integer> distributeStateCounts() {
+        return RecommendationService.distributeCounts(limit, stateRatio);
+    }
+
+    @Benchmark
+    public Map<String, Integer> distributeLevelCounts() {
+        return RecommendationService.distributeCounts(limit * 6 / 10, levelRatio);
+    }
+
+    @Benchmark
+    public List<Word> deduplicateById() {
+        return RecommendationService.deduplicateById(mergedWords);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.wordrecommend_backend.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TimeUtil 基準測試（LocalDateTime 版本 vs epoch 毫秒版本）
+ *
+ * 執行：mvn -Pbenchmarks test-compile exec:exec -Djmh.args="TimeUtilBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TimeUtilBenchmark {
+
+    private LocalDateTime lastReviewTime;
+    private LocalDateTime now;
+    private long lastReviewMs;
+    private long nowMs;
+
+    @Setup
+    public void setUp() {
+        now = LocalDateTime.of(2025, 11, 3, 12, 0);
+        lastReviewTime = now.minusDays(3).minusHours(7).minusMinutes(13);
+        nowMs = TimeUtil.toEpochMillis(now);
+        lastReviewMs = TimeUtil.toEpochMillis(lastReviewTime);
+    }
+
+    @Benchmark
+    public double calculateDaysDifference() {
+        return TimeUtil.calculateDaysDifference(lastReviewTime, now);
+    }
+
+    @Benchmark
+    public long calculateDaysDifferenceAsLong() {
+        return TimeUtil.calculateDaysDifferenceAsLong(lastReviewTime, now);
+    }
+
+    @Benchmark
+    public double calculateDaysDifferenceEpoch() {
+        return TimeUtil.calculateDaysDifference(lastReviewMs, nowMs);
+    }
+
+    @Benchmark
+    public long toEpochMillis() {
+        return TimeUtil.toEpochMillis(lastReviewTime);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.wordrecommend_backend.util;
+
+import com.example.wordrecommend_backend.dto.ReviewCandidate;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 前 K 名選取基準測試：有界堆積（TopKSelector） vs 原本的 HashMap + stream 全排序
+ *
+ * 兩種情境：
+ * - topFractionThenShuffle：fetchWordsWithPriority 的「前 60% 再隨機」
+ * - topK：getReviewWords 的「依優先度取前 limit 個」
+ *
+ * 優先度事先算好，只比較選取本身的成本與配置量（搭配 -prof gc）
+ *
+ * 執行：mvn -Pbenchmarks test-compile exec:exec -Djmh.args="TopKSelectorBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TopKSelectorBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int candidates;
+
+    @Param({"20"})
+    public int take;
+
+    private List<ReviewCandidate> candidateList;
+    private double[] priorities;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        candidateList = new ArrayList<>(candidates);
+        priorities = new double[candidates];
+
+        for (int i = 0; i < candidates; i++) {
+            candidateList.add(new ReviewCandidate(
+                    i + 1L, random.nextDouble(), 0L, random.nextInt(5),
+                    ReviewCandidate.NO_TIME, random.nextDouble(), "S1", true));
+            priorities[i] = random.nextDouble() * 10;
+        }
+    }
+
+    // ==================== 前 60% 再隨機 ====================
+
+    @Benchmark
+    public List<ReviewCandidate> legacyTopFractionThenShuffle() {
+        Map<Long, Double> byId = new HashMap<>();
+        for (int i = 0; i < priorities.length; i++) {
+            byId.put(candidateList.get(i).wordId(), priorities[i]);
+        }
+
+        List<ReviewCandidate> sorted = candidateList.stream()
+                .sorted((a, b) -> Double.compare(
+                        byId.getOrDefault(b.wordId(), 0.0),
+                        byId.getOrDefault(a.wordId(), 0.0)))
+                .collect(Collectors.toList());
+
+        int topCount = Math.max((int) (sorted.size() * 0.6), take);
+        List<ReviewCandidate> top = sorted.subList(0, Math.min(topCount, sorted.size()));
+        Collections.shuffle(top);
+
+        return top.stream().limit(take).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<ReviewCandidate> heapTopFractionThenShuffle() {
+        int[] picked = TopKSelector.selectTopFractionThenShuffle(
+                priorities, 0.6, take, ThreadLocalRandom.current());
+
+        List<ReviewCandidate> result = new ArrayList<>(picked.length);
+        for (int index : picked) {
+            result.add(candidateList.get(index));
+        }
+        return result;
+    }
+
+    // ==================== 前 K 名 ====================
+
+    @Benchmark
+    public List<ReviewCandidate> legacyTopK() {
+        List<Scored> scored = new ArrayList<>(priorities.length);
+        for (int i = 0; i < priorities.length; i++) {
+            scored.add(new Scored(candidateList.get(i), priorities[i]));
+        }
+
+        return scored.stream()
+                .sorted((a, b) -> Double.compare(b.priority, a.priority))
+                .limit(take)
+                .map(s -> s.candidate)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<ReviewCandidate> heapTopK() {
+        int[] top = TopKSelector.selectTopK(priorities, take);
+
+        List<ReviewCandidate> result = new ArrayList<>(top.length);
+        for (int index : top) {
+            result.add(candidateList.get(index));
+        }
+        return result;
+    }
+
+    private record Scored(ReviewCandidate candidate, double priority) {
+    }
+}
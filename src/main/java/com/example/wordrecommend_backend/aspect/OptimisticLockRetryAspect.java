@@ -0,0 +1,87 @@
+package com.example.wordrecommend_backend.aspect;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 樂觀鎖重試切面
+ *
+ * 順序：
+ * - 必須包在 @Transactional 外層（衝突在提交時才拋出，重試需要全新的交易）
+ * - 交易攔截器預設為 LOWEST_PRECEDENCE，本切面使用更高的優先序
+ *
+ * 退避：
+ * - 第 n 次重試前等待 [base * 2^(n-1) / 2, base * 2^(n-1)] 毫秒（指數退避 + 隨機抖動）
+ * - 避免兩個衝突的請求以相同節奏再次衝突
+ *
+ * 指標（tag method = 類別.方法）：
+ * - word_state.optimistic_lock.conflicts：偵測到的衝突次數
+ * - word_state.optimistic_lock.retries：重試次數
+ * - word_state.optimistic_lock.exhausted：重試用盡仍失敗的次數
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@Slf4j
+public class OptimisticLockRetryAspect {
+
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long backoffMs;
+
+    public OptimisticLockRetryAspect(
+            MeterRegistry meterRegistry,
+            @Value("${learning.write-retry.max-attempts:3}") int maxAttempts,
+            @Value("${learning.write-retry.backoff-ms:20}") long backoffMs) {
+
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMs = backoffMs;
+    }
+
+    @Around("@annotation(com.example.wordrecommend_backend.aspect.RetryOnOptimisticLock)")
+    public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+
+        // 已在外層交易中：衝突會讓整個外層交易回滾，由外層決定如何處理
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        String method = joinPoint.getSignature().getDeclaringType().getSimpleName()
+                + "." + joinPoint.getSignature().getName();
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException e) {
+                meterRegistry.counter("word_state.optimistic_lock.conflicts", "method", method).increment();
+
+                if (attempt >= maxAttempts) {
+                    meterRegistry.counter("word_state.optimistic_lock.exhausted", "method", method).increment();
+                    log.warn("⚠️ {} still conflicting after {} attempts, giving up", method, attempt);
+                    throw e;
+                }
+
+                long ceiling = backoffMs << (attempt - 1);
+                long sleepMs = ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+
+                log.debug("🔁 {} optimistic lock conflict (attempt {}/{}), retrying in {}ms",
+                        method, attempt, maxAttempts, sleepMs);
+
+                meterRegistry.counter("word_state.optimistic_lock.retries", "method", method).increment();
+                Thread.sleep(sleepMs);
+            }
+        }
+    }
+}
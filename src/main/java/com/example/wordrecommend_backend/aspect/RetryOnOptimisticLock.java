@@ -0,0 +1,21 @@
+package com.example.wordrecommend_backend.aspect;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 樂觀鎖衝突時自動重試整個方法（含交易）
+ *
+ * 使用方式：
+ * - 標註在 @Transactional 的寫入方法上
+ * - 重試時重新讀取資料並重新套用演算法（整個方法重新執行）
+ * - 被其他交易中的方法呼叫時不重試（外層交易已標記回滾，重試無意義）
+ *
+ * 注意：方法內的副作用必須是交易性的，或在交易提交後才執行（TransactionUtil.runAfterCommit）
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnOptimisticLock {
+}
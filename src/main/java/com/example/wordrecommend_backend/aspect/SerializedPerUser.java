@@ -0,0 +1,18 @@
+package com.example.wordrecommend_backend.aspect;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 同一使用者的呼叫在本節點上依序執行（分段鎖，鍵為使用者 ID）
+ *
+ * 使用方式：
+ * - 標註在第一個 User 型別參數即為目標使用者的寫入方法上
+ * - 鎖在交易開始前取得、交易結束後釋放：等待時不佔用資料庫連線
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SerializedPerUser {
+}
@@ -0,0 +1,98 @@
+package com.example.wordrecommend_backend.aspect;
+
+import com.example.wordrecommend_backend.entity.User;
+import com.example.wordrecommend_backend.util.StripedLocks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 使用者寫入序列化切面
+ *
+ * 順序（由外而內）：
+ * - 本切面（取得使用者鎖）
+ * - OptimisticLockRetryAspect（重試時仍持有鎖，不會被同一使用者的其他事件插隊）
+ * - 交易攔截器（鎖內才開始交易與取得連線）
+ *
+ * 逾時：
+ * - 等待超過 wait-timeout-ms 時放棄本次呼叫，回應 503（用戶端可重送）
+ * - 不在無鎖的情況下執行：較晚的事件不會搶在同一使用者較早的事件之前套用
+ *
+ * 指標：
+ * - learning.user_lock.wait：取得鎖的等待時間
+ * - learning.user_lock.timeouts：等待逾時次數
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 2)
+@Slf4j
+public class SerializedPerUserAspect {
+
+    private final StripedLocks locks;
+    private final long waitTimeoutMs;
+    private final Timer waitTimer;
+    private final Counter timeoutCounter;
+
+    public SerializedPerUserAspect(
+            MeterRegistry meterRegistry,
+            @Value("${learning.user-lock.stripes:1024}") int stripes,
+            @Value("${learning.user-lock.wait-timeout-ms:5000}") long waitTimeoutMs) {
+
+        this.locks = new StripedLocks(stripes);
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.waitTimer = Timer.builder("learning.user_lock.wait")
+                .description("Time spent waiting for the per-user write lock")
+                .register(meterRegistry);
+        this.timeoutCounter = Counter.builder("learning.user_lock.timeouts").register(meterRegistry);
+    }
+
+    @Around("@annotation(com.example.wordrecommend_backend.aspect.SerializedPerUser)")
+    public Object serialize(ProceedingJoinPoint joinPoint) throws Throwable {
+        User user = findUser(joinPoint.getArgs());
+        if (user == null || user.getId() == null) {
+            return joinPoint.proceed();
+        }
+
+        ReentrantLock lock = locks.get(user.getId());
+
+        long start = System.nanoTime();
+        boolean acquired = lock.tryLock(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (!acquired) {
+            timeoutCounter.increment();
+            log.warn("⚠️ User {} write lock not acquired within {}ms, rejecting the call",
+                    user.getId(), waitTimeoutMs);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Too many concurrent writes for this user, retry later");
+        }
+
+        try {
+            return joinPoint.proceed();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static User findUser(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof User user) {
+                return user;
+            }
+        }
+        return null;
+    }
+}
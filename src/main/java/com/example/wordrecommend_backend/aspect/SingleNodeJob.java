@@ -0,0 +1,29 @@
+package com.example.wordrecommend_backend.aspect;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 定時任務在叢集中只由一個節點執行（scheduled_job_lock 租約）
+ *
+ * 使用方式：
+ * - 標註在 @Scheduled 方法上；未取得鎖的節點直接略過本次執行
+ * - 執行期間以心跳延長租約，執行時間可超過 leaseSeconds
+ * - 節點當機時租約在 leaseSeconds 後到期，由其他節點接手
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SingleNodeJob {
+
+    /**
+     * 任務名稱（scheduled_job_lock 主鍵）
+     */
+    String name();
+
+    /**
+     * 租約長度（秒）
+     */
+    long leaseSeconds() default 600;
+}
@@ -0,0 +1,56 @@
+package com.example.wordrecommend_backend.aspect;
+
+import com.example.wordrecommend_backend.service.JobLockService;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 叢集單一節點執行切面
+ *
+ * 順序：
+ * - 與 SerializedPerUserAspect 相同，在交易攔截器之外：先取得租約，再開始任務本身的交易
+ *
+ * 未取得租約時不執行，回傳 null（定時任務皆為 void）
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 2)
+@RequiredArgsConstructor
+public class SingleNodeJobAspect {
+
+    private final JobLockService jobLockService;
+
+    @Around("@annotation(singleNodeJob)")
+    public Object runOnSingleNode(ProceedingJoinPoint joinPoint, SingleNodeJob singleNodeJob) throws Throwable {
+        Object[] result = new Object[1];
+        Throwable[] failure = new Throwable[1];
+
+        try {
+            jobLockService.runExclusive(singleNodeJob.name(), Duration.ofSeconds(singleNodeJob.leaseSeconds()), () -> {
+                try {
+                    result[0] = joinPoint.proceed();
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable t) {
+                    failure[0] = t;
+                    throw new IllegalStateException(t);
+                }
+            });
+        } catch (IllegalStateException e) {
+            // 還原受檢例外
+            if (failure[0] != null && e.getCause() == failure[0]) {
+                throw failure[0];
+            }
+            throw e;
+        }
+
+        return result[0];
+    }
+}
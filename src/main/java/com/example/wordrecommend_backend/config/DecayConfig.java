@@ -0,0 +1,87 @@
+package com.example.wordrecommend_backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 記憶衰減設定（learning.decay 前綴）
+ */
+@Component
+@ConfigurationProperties(prefix = "learning.decay")
+@Data
+public class DecayConfig {
+
+    /**
+     * 衰減方式
+     */
+    public enum Mode {
+        /**
+         * 每日凌晨由 MemoryDecayTask 批次改寫所有 WordState
+         */
+        NIGHTLY,
+
+        /**
+         * 不批次改寫；讀取時由 (memory_strength, last_review_time) 推算衰減後的強度與狀態，
+         * 只有實際互動（閱讀、答題）才寫回
+         */
+        LAZY
+    }
+
+    /**
+     * 每日衰減的執行策略
+     */
+    public enum Strategy {
+        /**
+         * 逐筆載入 WordState，以 Java 計算後由 Hibernate 批次寫回
+         */
+        ENTITY,
+
+        /**
+         * 每段使用者一個集合式 UPDATE（GREATEST / CASE），在資料庫內完成
+         */
+        SQL
+    }
+
+    private Mode mode = Mode.NIGHTLY;
+
+    private Strategy strategy = Strategy.ENTITY;
+
+    /**
+     * 集合式策略每段（每個 UPDATE）涵蓋的使用者數
+     */
+    private int sqlSliceUsers = 100;
+
+    /**
+     * 每日衰減的使用者分片數（user_id MOD shards），各分片錯開在一天中的不同時間執行
+     */
+    private int shards = 24;
+
+    /**
+     * 錯過的分片最多補做的天數
+     */
+    private int maxCatchUpDays = 7;
+
+    /**
+     * 每日衰減的工作執行緒數（上限為連線池大小 - 1，保留連線給線上請求）
+     */
+    private int workers = 4;
+
+    /**
+     * 每次以 keyset 分頁載入的使用者 ID 數
+     */
+    private int userPageSize = 500;
+
+    /**
+     * 每位使用者的 WordState 每批筆數（每批 flush 後清空持久化內容）
+     */
+    private int chunkSize = 500;
+
+    public boolean isLazy() {
+        return mode == Mode.LAZY;
+    }
+
+    public boolean isSetBased() {
+        return strategy == Strategy.SQL;
+    }
+}
@@ -3,7 +3,10 @@ package com.example.wordrecommend_backend.config;
 import com.example.wordrecommend_backend.filter.JwtRequestFilter;
 import com.example.wordrecommend_backend.service.CustomOAuth2UserService;
 import com.example.wordrecommend_backend.service.CustomOidcUserService;
+import com.example.wordrecommend_backend.service.WordCatalogEndpoint;
+import com.example.wordrecommend_backend.task.ScheduledJobsEndpoint;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpStatus;
@@ -48,6 +51,8 @@ public class SecurityConfig {
                                 "/login/oauth2/**",
                                 "/oauth2/authorization/**"
                         ).permitAll()
+                        // 任務鎖與執行結果、單字目錄重新載入只開放給管理者
+                        .requestMatchers(EndpointRequest.to(ScheduledJobsEndpoint.class, WordCatalogEndpoint.class)).hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
 
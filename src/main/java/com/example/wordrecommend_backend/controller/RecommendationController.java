@@ -9,6 +9,7 @@ import com.example.wordrecommend_backend.service.RecommendationService;
 import com.example.wordrecommend_backend.service.ReviewService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -22,6 +23,7 @@ import java.util.Map;
  * 端點：
  * - GET  /recommendations/words：獲取推薦單字
  * - POST /recommendations/events/read：記錄閱讀事件
+ * - POST /recommendations/events/read/batch：批次記錄閱讀事件
  * - GET  /recommendations/stats：獲取學習統計（可選）
  *
  * 改進：
@@ -41,6 +43,12 @@ public class RecommendationController {
     private final RecommendationService recommendationService;
 //    private final RecommendationService recommendationService;
 
+    /**
+     * 批次閱讀事件的筆數上限（整批在同一交易內處理，並持有使用者的寫入鎖）
+     */
+    @Value("${learning.reading.batch.max-events:100}")
+    private int maxBatchEvents;
+
     /**
      * 獲取推薦單字（v2.0 - Phase 5 完成）
      *
@@ -146,6 +154,55 @@ public class RecommendationController {
         return ResponseEntity.ok(dto);
     }
 
+    /**
+     * 批次記錄閱讀事件
+     *
+     * 端點：POST /recommendations/events/read/batch
+     *
+     * 請求格式（依閱讀順序）：
+     * [
+     *   { "wordId": 123, "durationMs": 5000 },
+     *   { "wordId": 456, "durationMs": 3200 }
+     * ]
+     *
+     * 回應格式：與請求一一對應的 WordState 列表（格式同 /events/read）
+     *
+     * 用途：
+     * - 單字卡一次瀏覽多個單字後一起送出（10 個單字 = 1 次請求）
+     * - 整批在同一交易內處理，任一單字不存在則整批失敗
+     * - 超過 learning.reading.batch.max-events 筆、或含有空事件／缺少 wordId 時回傳 400
+     *
+     * @param user 當前使用者
+     * @param requests 閱讀事件列表
+     * @return 每個事件套用後的 WordState（DTO 格式）
+     */
+    @PostMapping("/events/read/batch")
+    public ResponseEntity<List<WordStateDTO>> recordReadingEvents(
+            @AuthenticationPrincipal User user,
+            @RequestBody List<ReadEventRequest> requests) {
+
+        if (requests == null || requests.size() > maxBatchEvents) {
+            log.warn("User {} sent an invalid reading batch: size={}, max={}",
+                    user.getId(), requests == null ? null : requests.size(), maxBatchEvents);
+            return ResponseEntity.badRequest().build();
+        }
+
+        for (ReadEventRequest request : requests) {
+            if (request == null || request.wordId() == null || request.durationMs() < 0) {
+                log.warn("User {} sent an invalid reading event: {}", user.getId(), request);
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
+        log.info("User {} read {} words (batch)", user.getId(), requests.size());
+
+        List<WordStateDTO> dtos = recommendationService.handleReadingEvents(user, requests);
+
+        log.info("Batch reading events processed for user {}: {} events", user.getId(), dtos.size());
+
+        return ResponseEntity.ok(dtos);
+    }
+
     /**
      * 獲取學習統計（可選功能）
      *
@@ -3,7 +3,10 @@ package com.example.wordrecommend_backend.controller;
 import com.example.wordrecommend_backend.dto.*;
 import com.example.wordrecommend_backend.entity.User;
 import com.example.wordrecommend_backend.entity.WordState;
+import com.example.wordrecommend_backend.service.AnswerKey;
 import com.example.wordrecommend_backend.service.QuestionGenerationService;
+import com.example.wordrecommend_backend.service.QuizSession;
+import com.example.wordrecommend_backend.service.QuizSessionStore;
 import com.example.wordrecommend_backend.service.ReviewService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -12,7 +15,11 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -28,8 +35,8 @@ public class ReviewController {
     private final ReviewService reviewService;
     private final QuestionGenerationService questionGenerationService;
 
-    // 🔑 簡單的會話管理（生產環境應使用 Redis）
-    private final Map<String, QuizSession> activeSessions = new HashMap<>();
+    // 🔑 會話儲存（memory：有上限、會過期；jdbc：多節點共用）
+    private final QuizSessionStore quizSessionStore;
 
     /**
      * 【新增】開始複習會話
@@ -38,8 +45,9 @@ public class ReviewController {
      *
      * 🔑 流程：
      * 1. 一次性獲取所有題目所需的單字（不重複）
-     * 2. 建立會話
-     * 3. 返回會話 ID 和單字列表
+     * 2. 一次查詢所有 WordState，預先生成整組題目
+     * 3. 建立會話（題組存於會話）
+     * 4. 返回會話 ID 和單字列表
      *
      * @param user 當前登入使用者
      * @param limit 複習題數
@@ -65,26 +73,39 @@ public class ReviewController {
                 return ResponseEntity.ok(null);
             }
 
-            // ========== 步驟 2：建立會話 ==========
+            // ========== 步驟 2：預先生成題組 ==========
+            List<WordState> wordStates = reviewService.findWordStatesByWordIds(
+                    user, words.stream().map(WordDTO::getId).collect(Collectors.toList()));
+            List<QuestionDTO> deck = questionGenerationService.generateDeck(wordStates);
+            List<Long> wordIds = deck.stream().map(QuestionDTO::getWordId).collect(Collectors.toList());
+
+            if (deck.isEmpty()) {
+                log.warn("⚠️ 沒有可複習的單字");
+                return ResponseEntity.ok(null);
+            }
+
+            // ========== 步驟 3：建立會話 ==========
             String sessionId = UUID.randomUUID().toString();
 
             QuizSession session = new QuizSession();
             session.setSessionId(sessionId);
             session.setUserId(user.getId());
-            session.setWordIds(words.stream().map(WordDTO::getId).collect(Collectors.toList()));
+            session.setWordIds(wordIds);
+            session.setDeck(deck);
+            session.setAnswerKeys(questionGenerationService.answerKeys(deck));
             session.setCurrentIndex(0);
             session.setCreatedAt(System.currentTimeMillis());
 
-            activeSessions.put(sessionId, session);
+            quizSessionStore.save(session);
 
             log.info("✅ 複習會話已建立: sessionId={}, userId={}, totalWords={}",
-                    sessionId, user.getId(), words.size());
+                    sessionId, user.getId(), deck.size());
 
-            // ========== 步驟 3：返回會話信息 ==========
+            // ========== 步驟 4：返回會話信息 ==========
             QuizSessionDTO response = new QuizSessionDTO();
             response.setSessionId(sessionId);
-            response.setTotalQuestions(words.size());
-            response.setWordIds(words.stream().map(WordDTO::getId).collect(Collectors.toList()));
+            response.setTotalQuestions(deck.size());
+            response.setWordIds(wordIds);
 
             return ResponseEntity.ok(response);
 
@@ -101,7 +122,7 @@ public class ReviewController {
      *
      * 🔑 改進：
      * - 需要傳入 sessionId
-     * - 從會話中獲取下一個單字 ID
+     * - 直接從會話的題組取題（開始複習時已生成），不存取資料庫
      * - 確保不會重複推薦
      *
      * @param user 當前登入使用者
@@ -121,10 +142,10 @@ public class ReviewController {
             }
 
             // ========== 步驟 1：驗證會話 ==========
-            QuizSession session = activeSessions.get(sessionId);
+            QuizSession session = quizSessionStore.find(sessionId).orElse(null);
 
             if (session == null) {
-                log.error("❌ 會話不存在: sessionId={}", sessionId);
+                log.error("❌ 會話不存在或已過期: sessionId={}", sessionId);
                 return ResponseEntity.badRequest().build();
             }
 
@@ -145,20 +166,14 @@ public class ReviewController {
             log.debug("當前題目索引: {}/{}, wordId={}",
                     session.getCurrentIndex(), session.getWordIds().size(), wordId);
 
-            // ========== 步驟 4：獲取單字狀態 ==========
-            WordState wordState = reviewService.findWordStateByWordId(user, wordId);
+            // ========== 步驟 4：從題組取題 ==========
+            QuestionDTO question = session.getDeck() != null
+                    ? session.getDeck().get(session.getCurrentIndex())
+                    : generateQuestion(user, wordId);
 
-            if (wordState == null) {
-                log.error("❌ 找不到 WordState: wordId={}", wordId);
-                throw new RuntimeException("WordState not found");
-            }
-
-            // ========== 步驟 5：生成題目 ==========
-            QuestionDTO question = questionGenerationService.generateQuestion(wordState, null);
-
-            // ========== 步驟 6：在回應中包含會話信息 ==========
+            // ========== 步驟 5：在回應中包含會話信息 ==========
             // （可選）便於前端追蹤進度
-            log.info("✅ 題目生成成功: sessionId={}, wordId={}, type={}, progress={}/{}",
+            log.info("✅ 取題成功: sessionId={}, wordId={}, type={}, progress={}/{}",
                     sessionId, wordId, question.getQuestionType(),
                     session.getCurrentIndex() + 1, session.getWordIds().size());
 
@@ -170,6 +185,62 @@ public class ReviewController {
         }
     }
 
+    /**
+     * 一次取得會話中尚未作答的所有題目（離線 / 快速作答模式）
+     *
+     * 端點：GET /reviews/questions
+     *
+     * 🔑 說明：
+     * - 取走的題目視為已發出，作答後可用 POST /reviews/submit-answers 一次提交
+     * - 只適用於開始複習時已生成題組的會話
+     *
+     * @param user 當前登入使用者
+     * @param sessionId 會話 ID
+     * @return 從目前題目起的剩餘題目
+     */
+    @GetMapping("/questions")
+    public ResponseEntity<List<QuestionDTO>> getRemainingQuestions(
+            @AuthenticationPrincipal User user,
+            @RequestParam String sessionId) {
+
+        log.info("🔵 使用者 {} 預先取得剩餘題目 (sessionId={})", user.getId(), sessionId);
+
+        try {
+            QuizSession session = quizSessionStore.find(sessionId).orElse(null);
+
+            if (session == null || session.getDeck() == null) {
+                log.error("❌ 會話不存在、已過期或沒有題組: sessionId={}", sessionId);
+                return ResponseEntity.badRequest().build();
+            }
+
+            if (!session.getUserId().equals(user.getId())) {
+                log.error("❌ 會話不屬於此使用者");
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+
+            List<QuestionDTO> deck = session.getDeck();
+            int from = Math.min(session.getCurrentIndex(), deck.size());
+
+            if (session.getPrefetchedCount() < deck.size()) {
+                quizSessionStore.update(sessionId, current -> {
+                    if (current.getPrefetchedCount() >= deck.size()) {
+                        return false;
+                    }
+                    current.setPrefetchedCount(deck.size());
+                    return true;
+                });
+            }
+
+            log.info("✅ 剩餘題目: sessionId={}, count={}", sessionId, deck.size() - from);
+
+            return ResponseEntity.ok(new ArrayList<>(deck.subList(from, deck.size())));
+
+        } catch (Exception e) {
+            log.error("❌ 取得剩餘題目失敗: {}", e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     /**
      * 提交答題結果
      *
@@ -177,6 +248,8 @@ public class ReviewController {
      *
      * 🔑 改進：
      * - 接受 sessionId
+     * - 以會話中保存的答案比對（只比對一次，不查詢選項單字）
+     * - 只接受此會話已發出、尚未作答的題目
      * - 答題後自動移進到下一題
      *
      * @param user 當前登入使用者
@@ -198,14 +271,23 @@ public class ReviewController {
             }
 
             // ========== 步驟 1：驗證會話 ==========
-            QuizSession session = activeSessions.get(sessionId);
+            QuizSession session = quizSessionStore.find(sessionId).orElse(null);
 
             if (session == null) {
-                log.error("❌ 會話不存在: sessionId={}", sessionId);
+                log.error("❌ 會話不存在或已過期: sessionId={}", sessionId);
                 return ResponseEntity.badRequest().build();
             }
 
-            // ========== 步驟 2：完整委託給 Service 層 ==========
+            if (!session.getUserId().equals(user.getId())) {
+                log.error("❌ 會話不屬於此使用者");
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+
+            if (session.getAnswerKeys() != null) {
+                return submitAgainstAnswerKey(user, session, submission);
+            }
+
+            // ========== 步驟 2：完整委託給 Service 層（沒有答案的舊會話） ==========
             WordState updatedState = reviewService.handleQuizAnswer(
                     user,
                     submission.getWordId(),
@@ -222,12 +304,17 @@ public class ReviewController {
             );
 
             // ========== 步驟 4：推進到下一題 ==========
-            session.setCurrentIndex(session.getCurrentIndex() + 1);
+            session = quizSessionStore.update(sessionId, current -> {
+                current.setCurrentIndex(current.getCurrentIndex() + 1);
+                return true;
+            }).orElse(session);
 
             log.debug("會話進度更新: {}/{}", session.getCurrentIndex(), session.getWordIds().size());
 
             // ========== 步驟 5：構建結果 ==========
-            QuestionResultDTO result = buildQuestionResult(updatedState, submission, isCorrect);
+            String displayAnswer = getCorrectAnswerDisplay(submission.getQuestionType(), updatedState.getWord());
+            QuestionResultDTO result = buildQuestionResult(
+                    WordStateDTO.fromEntity(updatedState), submission, displayAnswer, isCorrect);
 
             log.info("✅ 答題完成: sessionId={}, isCorrect={}, progress={}/{}",
                     sessionId, isCorrect,
@@ -235,12 +322,164 @@ public class ReviewController {
 
             return ResponseEntity.ok(result);
 
+        } catch (ResponseStatusException e) {
+            // 使用者寫入鎖等待逾時等可重送的錯誤：保留狀態碼
+            log.warn("⚠️ 答題失敗: {}", e.getReason());
+            return ResponseEntity.status(e.getStatusCode()).build();
         } catch (Exception e) {
             log.error("❌ 答題失敗: {}", e.getMessage());
             return ResponseEntity.internalServerError().build();
         }
     }
 
+    /**
+     * 批次提交答題結果（離線 / 快速作答模式）
+     *
+     * 端點：POST /reviews/submit-answers
+     *
+     * 請求格式（answeredAt 為作答時間 epoch ms，可選）：
+     * [
+     *   { "questionId": 1, "wordId": 123, "selectedAnswer": "456", "answerTimeMs": 3000,
+     *     "questionType": "EASY", "answeredAt": 1735689600000 },
+     *   ...
+     * ]
+     *
+     * 🔑 流程：
+     * 1. 每筆以會話中的答案比對（規則同 /submit-answer）
+     * 2. 依作答時間排序（未提供則依請求順序），在同一交易內逐筆套用記憶算法
+     * 3. 回傳與請求一一對應的答題結果
+     *
+     * 🔑 說明：
+     * - 任一筆不屬於此會話或尚未發出：400；任一筆已作答或重複：409；整批不套用
+     * - 套用前整批認領題目（全部或全不），套用失敗時釋放認領
+     * - 作答時間限制在會話建立之後、現在之前
+     *
+     * @param user 當前登入使用者
+     * @param submissions 答題提交列表
+     * @param sessionId 會話 ID
+     * @return 每筆答題的結果
+     */
+    @PostMapping("/submit-answers")
+    public ResponseEntity<List<QuestionResultDTO>> submitAnswers(
+            @AuthenticationPrincipal User user,
+            @RequestBody List<AnswerSubmissionDTO> submissions,
+            @RequestParam String sessionId) {
+
+        log.info("🔵 使用者 {} 批次提交 {} 題 (sessionId={})", user.getId(), submissions.size(), sessionId);
+
+        try {
+            // ========== 步驟 1：驗證會話 ==========
+            QuizSession session = quizSessionStore.find(sessionId).orElse(null);
+
+            if (session == null || session.getAnswerKeys() == null) {
+                log.error("❌ 會話不存在、已過期或沒有題組: sessionId={}", sessionId);
+                return ResponseEntity.badRequest().build();
+            }
+
+            if (!session.getUserId().equals(user.getId())) {
+                log.error("❌ 會話不屬於此使用者");
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+
+            // ========== 步驟 2：逐筆比對答案 ==========
+            List<AnswerKey> keys = new ArrayList<>(submissions.size());
+            Set<Long> seen = new HashSet<>();
+
+            for (AnswerSubmissionDTO submission : submissions) {
+                if (submission == null || submission.getQuestionId() == null
+                        || submission.getWordId() == null || submission.getAnswerTimeMs() == null) {
+                    return ResponseEntity.badRequest().build();
+                }
+
+                AnswerKey key = session.getAnswerKeys().get(submission.getQuestionId());
+
+                if (key == null
+                        || !key.getWordId().equals(submission.getWordId())
+                        || !session.servedAt(key.getPosition())) {
+                    log.error("❌ 題目不屬於此會話或尚未發出: sessionId={}, questionId={}, wordId={}",
+                            sessionId, submission.getQuestionId(), submission.getWordId());
+                    return ResponseEntity.badRequest().build();
+                }
+
+                if (key.isAnswered() || !seen.add(key.getQuestionId())) {
+                    log.warn("⚠️ 題目已作答或重複提交: sessionId={}, questionId={}", sessionId, key.getQuestionId());
+                    return ResponseEntity.status(HttpStatus.CONFLICT).build();
+                }
+
+                keys.add(key);
+            }
+
+            // ========== 步驟 3：依作答時間排序（穩定排序，同時間維持請求順序） ==========
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime sessionStart = toLocalDateTime(session.getCreatedAt());
+
+            List<LocalDateTime> answeredAt = new ArrayList<>(submissions.size());
+            for (AnswerSubmissionDTO submission : submissions) {
+                LocalDateTime at = submission.getAnsweredAt() == null ? now : toLocalDateTime(submission.getAnsweredAt());
+                answeredAt.add(at.isBefore(sessionStart) ? sessionStart : at.isAfter(now) ? now : at);
+            }
+
+            List<Integer> order = new ArrayList<>(submissions.size());
+            for (int i = 0; i < submissions.size(); i++) {
+                order.add(i);
+            }
+            order.sort(Comparator.comparing(answeredAt::get));
+
+            List<ReviewService.GradedAnswer> graded = new ArrayList<>(order.size());
+            boolean[] correct = new boolean[submissions.size()];
+
+            for (int i : order) {
+                AnswerKey key = keys.get(i);
+                correct[i] = key.matches(submissions.get(i).getSelectedAnswer());
+                graded.add(new ReviewService.GradedAnswer(
+                        key.getWordId(), correct[i], submissions.get(i).getAnswerTimeMs(), answeredAt.get(i)));
+            }
+
+            // ========== 步驟 4：整批認領後在同一交易內套用 ==========
+            List<Long> claimed = keys.stream().map(AnswerKey::getQuestionId).toList();
+            if (!quizSessionStore.claimAnswers(sessionId, claimed)) {
+                log.warn("⚠️ 題目已由其他請求作答: sessionId={}", sessionId);
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            }
+
+            List<WordStateDTO> applied;
+            try {
+                applied = reviewService.handleGradedQuizAnswers(user, graded);
+            } catch (RuntimeException e) {
+                // 交易已回滾：釋放認領，整批可以重送
+                quizSessionStore.releaseAnswers(sessionId, claimed);
+                throw e;
+            }
+
+            // ========== 步驟 5：推進會話 ==========
+            int nextIndex = keys.stream().mapToInt(key -> key.getPosition() + 1).max().orElse(0);
+            session = quizSessionStore.update(sessionId, current -> {
+                current.setCurrentIndex(Math.max(current.getCurrentIndex(), nextIndex));
+                return true;
+            }).orElse(session);
+
+            // ========== 步驟 6：依請求順序構建結果 ==========
+            QuestionResultDTO[] results = new QuestionResultDTO[submissions.size()];
+            for (int n = 0; n < order.size(); n++) {
+                int i = order.get(n);
+                results[i] = buildQuestionResult(applied.get(n), submissions.get(i), keys.get(i).displayAnswer(), correct[i]);
+            }
+
+            log.info("✅ 批次答題完成: sessionId={}, answers={}, progress={}/{}",
+                    sessionId, submissions.size(), session.getCurrentIndex(), session.getWordIds().size());
+
+            return ResponseEntity.ok(Arrays.asList(results));
+
+        } catch (ResponseStatusException e) {
+            // 使用者寫入鎖等待逾時等可重送的錯誤：保留狀態碼
+            log.warn("⚠️ 批次答題失敗: {}", e.getReason());
+            return ResponseEntity.status(e.getStatusCode()).build();
+        } catch (Exception e) {
+            log.error("❌ 批次答題失敗: {}", e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     /**
      * 結束複習會話
      *
@@ -258,14 +497,12 @@ public class ReviewController {
         log.info("🔵 使用者 {} 結束複習會話 (sessionId={})", user.getId(), sessionId);
 
         try {
-            QuizSession session = activeSessions.get(sessionId);
-
-            if (session == null) {
+            if (quizSessionStore.find(sessionId).isEmpty()) {
                 return ResponseEntity.badRequest().build();
             }
 
             // 移除會話
-            activeSessions.remove(sessionId);
+            quizSessionStore.remove(sessionId);
 
             log.info("✅ 會話已結束: sessionId={}", sessionId);
 
@@ -328,6 +565,10 @@ public class ReviewController {
 
             return ResponseEntity.ok(WordStateDTO.fromEntity(updatedState));
 
+        } catch (ResponseStatusException e) {
+            // 使用者寫入鎖等待逾時等可重送的錯誤：保留狀態碼
+            log.warn("⚠️ 答題失敗: {}", e.getReason());
+            return ResponseEntity.status(e.getStatusCode()).build();
         } catch (Exception e) {
             log.error("❌ 答題失敗: {}", e.getMessage());
             return ResponseEntity.internalServerError().build();
@@ -336,16 +577,96 @@ public class ReviewController {
 
     // ==================== 私有方法 ====================
 
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    /**
+     * 以會話中的答案判定並更新記憶狀態
+     *
+     * - 題目不在會話中、單字不符或尚未發出：400
+     * - 已作答過或被並發請求搶先認領：409
+     * - 判定前先在會話中認領題目；記憶狀態更新失敗時釋放認領
+     */
+    private ResponseEntity<QuestionResultDTO> submitAgainstAnswerKey(
+            User user,
+            QuizSession session,
+            AnswerSubmissionDTO submission) {
+
+        // ========== 步驟 2：找出發出過的題目 ==========
+        AnswerKey key = session.getAnswerKeys().get(submission.getQuestionId());
+
+        if (key == null
+                || !key.getWordId().equals(submission.getWordId())
+                || !session.servedAt(key.getPosition())) {
+            log.error("❌ 題目不屬於此會話或尚未發出: sessionId={}, questionId={}, wordId={}",
+                    session.getSessionId(), submission.getQuestionId(), submission.getWordId());
+            return ResponseEntity.badRequest().build();
+        }
+
+        // 先認領再判定：同一題的並發提交只有一個能套用記憶算法
+        List<Long> claimed = List.of(key.getQuestionId());
+        if (!quizSessionStore.claimAnswers(session.getSessionId(), claimed)) {
+            log.warn("⚠️ 題目已作答: sessionId={}, questionId={}", session.getSessionId(), key.getQuestionId());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+
+        // ========== 步驟 3：比對答案並更新記憶狀態 ==========
+        boolean isCorrect = key.matches(submission.getSelectedAnswer());
+        WordState updatedState;
+
+        try {
+            updatedState = reviewService.handleGradedQuizAnswer(
+                    user,
+                    key.getWordId(),
+                    isCorrect,
+                    submission.getAnswerTimeMs()
+            );
+        } catch (RuntimeException e) {
+            // 記憶狀態未更新：釋放認領，讓使用者可以重送
+            quizSessionStore.releaseAnswers(session.getSessionId(), claimed);
+            throw e;
+        }
+
+        // ========== 步驟 4：推進到下一題 ==========
+        session = quizSessionStore.update(session.getSessionId(), current -> {
+            current.setCurrentIndex(Math.max(current.getCurrentIndex(), key.getPosition() + 1));
+            return true;
+        }).orElse(session);
+
+        log.debug("會話進度更新: {}/{}", session.getCurrentIndex(), session.getWordIds().size());
+
+        // ========== 步驟 5：構建結果 ==========
+        QuestionResultDTO result = buildQuestionResult(
+                WordStateDTO.fromEntity(updatedState), submission, key.displayAnswer(), isCorrect);
+
+        log.info("✅ 答題完成: sessionId={}, isCorrect={}, progress={}/{}",
+                session.getSessionId(), isCorrect,
+                session.getCurrentIndex(), session.getWordIds().size());
+
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * 即時生成題目（沒有預先生成題組的舊會話）
+     */
+    private QuestionDTO generateQuestion(User user, Long wordId) {
+        WordState wordState = reviewService.findWordStateByWordId(user, wordId);
+
+        if (wordState == null) {
+            log.error("❌ 找不到 WordState: wordId={}", wordId);
+            throw new RuntimeException("WordState not found");
+        }
+
+        return questionGenerationService.generateQuestion(wordState, null);
+    }
+
     private QuestionResultDTO buildQuestionResult(
-            WordState updatedState,
+            WordStateDTO updatedState,
             AnswerSubmissionDTO submission,
+            String displayAnswer,
             boolean isCorrect) {
 
-        String displayAnswer = getCorrectAnswerDisplay(
-                submission.getQuestionType(),
-                updatedState.getWord()
-        );
-
         if (isCorrect) {
             return QuestionResultDTO.createCorrectResult(
                     submission.getSelectedAnswer(),
@@ -381,35 +702,4 @@ public class ReviewController {
                 return word.getTranslation();
         }
     }
-
-    // ==================== 內部類別 ====================
-
-    /**
-     * 複習會話（簡化版）
-     *
-     * 生產環境應使用 Redis 存儲會話
-     */
-    private static class QuizSession {
-        private String sessionId;
-        private Long userId;
-        private List<Long> wordIds;
-        private Integer currentIndex;
-        private Long createdAt;
-
-        // Getters and Setters
-        public String getSessionId() { return sessionId; }
-        public void setSessionId(String sessionId) { this.sessionId = sessionId; }
-
-        public Long getUserId() { return userId; }
-        public void setUserId(Long userId) { this.userId = userId; }
-
-        public List<Long> getWordIds() { return wordIds; }
-        public void setWordIds(List<Long> wordIds) { this.wordIds = wordIds; }
-
-        public Integer getCurrentIndex() { return currentIndex; }
-        public void setCurrentIndex(Integer currentIndex) { this.currentIndex = currentIndex; }
-
-        public Long getCreatedAt() { return createdAt; }
-        public void setCreatedAt(Long createdAt) { this.createdAt = createdAt; }
-    }
-}
\ No newline at end of file
+}
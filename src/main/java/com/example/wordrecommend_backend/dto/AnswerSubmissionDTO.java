@@ -65,4 +65,13 @@ public class AnswerSubmissionDTO {
      */
     @NotBlank(message = "Question type cannot be blank")
     private String questionType;
+
+    /**
+     * 作答時間（epoch 毫秒，可選）
+     *
+     * 用途：
+     * - 批次提交（離線 / 快速作答）時依作答順序套用，並以實際作答時間計算衰減
+     * - 未提供時以伺服器收到的時間為準
+     */
+    private Long answeredAt;
 }
\ No newline at end of file
@@ -0,0 +1,104 @@
+package com.example.wordrecommend_backend.dto;
+
+import com.example.wordrecommend_backend.entity.Word;
+import com.example.wordrecommend_backend.entity.WordState;
+import com.example.wordrecommend_backend.util.TimeUtil;
+
+import java.time.LocalDateTime;
+
+/**
+ * 複習評分用的輕量投影（取代完整 WordState 實體）
+ *
+ * 只包含 calculateReviewPriority 需要的欄位：
+ * - 不載入 WordState 其他欄位，也不觸發 word / user 的 LAZY 關聯
+ * - 時間以 epoch 毫秒表示，評分時不需建立 LocalDateTime 物件
+ *
+ * 由 WordStateRepository 的 JPQL 建構子表達式一次查詢（JOIN words 取得複雜度）
+ *
+ * @param wordId 單字 ID
+ * @param memoryStrength 記憶強度
+ * @param lastReviewEpochMs 上次複習時間（epoch 毫秒）
+ * @param forgottenCount 遺忘次數
+ * @param lastForgottenEpochMs 上次遺忘時間（epoch 毫秒，無則為 NO_TIME）
+ * @param complexityScore 單字複雜度
+ * @param state FSM 狀態
+ * @param hasEverLearned 是否曾經學會（延遲衰減判定 FSM 狀態用）
+ */
+public record ReviewCandidate(
+        long wordId,
+        double memoryStrength,
+        long lastReviewEpochMs,
+        int forgottenCount,
+        long lastForgottenEpochMs,
+        double complexityScore,
+        String state,
+        boolean hasEverLearned) {
+
+    /**
+     * 無時間值（例如從未遺忘）
+     */
+    public static final long NO_TIME = Long.MIN_VALUE;
+
+    /**
+     * JPQL 建構子表達式使用（欄位型別與實體相同）
+     */
+    public ReviewCandidate(Long wordId,
+                           Double memoryStrength,
+                           LocalDateTime lastReviewTime,
+                           Integer forgottenCount,
+                           LocalDateTime lastForgottenTime,
+                           Double complexityScore,
+                           String state,
+                           Boolean hasEverLearned) {
+        this(
+                wordId,
+                memoryStrength == null ? 0.0 : memoryStrength,
+                TimeUtil.toEpochMillis(lastReviewTime),
+                forgottenCount == null ? 0 : forgottenCount,
+                lastForgottenTime == null ? NO_TIME : TimeUtil.toEpochMillis(lastForgottenTime),
+                complexityScore == null ? 1.0 : complexityScore,
+                state,
+                Boolean.TRUE.equals(hasEverLearned)
+        );
+    }
+
+    /**
+     * 由已載入的實體建立（寫入路徑沿用同一套評分邏輯）
+     */
+    public static ReviewCandidate from(WordState state, Word word) {
+        return new ReviewCandidate(
+                word.getId(),
+                state.getMemoryStrength(),
+                state.getLastReviewTime(),
+                state.getForgottenCount(),
+                state.getLastForgottenTime(),
+                word.getComplexityScore(),
+                state.getCurrentState(),
+                state.getHasEverLearned()
+        );
+    }
+
+    /**
+     * 套用衰減後的副本（延遲衰減模式：強度、狀態與衰減基準時間改為推算值）
+     */
+    public ReviewCandidate withDecay(double decayedStrength, String decayedState, long anchorEpochMs) {
+        return new ReviewCandidate(
+                wordId,
+                decayedStrength,
+                anchorEpochMs,
+                forgottenCount,
+                lastForgottenEpochMs,
+                complexityScore,
+                decayedState,
+                hasEverLearned
+        );
+    }
+
+    public boolean isForgotten() {
+        return "S-1".equals(state);
+    }
+
+    public boolean hasLastForgottenTime() {
+        return lastForgottenEpochMs != NO_TIME;
+    }
+}
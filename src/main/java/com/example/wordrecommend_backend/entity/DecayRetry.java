@@ -0,0 +1,50 @@
+package com.example.wordrecommend_backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+/**
+ * 每日衰減失敗、待重試的使用者（每位使用者每個日期一筆）
+ *
+ * 用途：
+ * - 分片的某個日期執行完成後即推進 last_decay_date，處理失敗的使用者記錄在此
+ * - 下一次排程檢查時只重試這些使用者，已成功的使用者不會重複衰減
+ * - 重試成功與刪除此列在同一交易內，超過補做天數（max-catch-up-days）的記錄直接捨棄
+ */
+@Entity
+@Table(name = "decay_retry",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "ux_decay_retry_user_date", columnNames = {"user_id", "decay_date"})
+        },
+        indexes = {
+                @Index(name = "idx_decay_retry_shard", columnList = "shard_id, decay_date")
+        })
+@Data
+@NoArgsConstructor
+public class DecayRetry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "decay_retry_seq")
+    @SequenceGenerator(name = "decay_retry_seq", sequenceName = "decay_retry_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "shard_id", nullable = false)
+    private Integer shardId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * 該使用者尚未完成衰減的日期
+     */
+    @Column(name = "decay_date", nullable = false)
+    private LocalDate decayDate;
+
+    public DecayRetry(Integer shardId, Long userId, LocalDate decayDate) {
+        this.shardId = shardId;
+        this.userId = userId;
+        this.decayDate = decayDate;
+    }
+}
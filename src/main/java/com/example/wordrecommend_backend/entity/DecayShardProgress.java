@@ -0,0 +1,67 @@
+package com.example.wordrecommend_backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 每日衰減分片進度（每個分片一筆）
+ *
+ * 用途：
+ * - 使用者依 user_id 分為 shard_count 個分片，各分片在一天中的不同時間執行衰減
+ * - last_decay_date 記錄該分片已完成衰減的最後日期
+ * - 錯過的分片（停機、部署）在下一次排程檢查時補做，而不是跳過
+ * - 執行中途中止時記錄續做位置，已處理的使用者不會重複衰減
+ */
+@Entity
+@Table(name = "decay_shard_progress")
+@Data
+@NoArgsConstructor
+public class DecayShardProgress {
+
+    @Id
+    @Column(name = "shard_id")
+    private Integer shardId;
+
+    /**
+     * 建立進度時的分片總數（分片數變更後可辨識舊資料）
+     */
+    @Column(name = "shard_count", nullable = false)
+    private Integer shardCount;
+
+    /**
+     * 已完成衰減的最後日期
+     */
+    @Column(name = "last_decay_date", nullable = false)
+    private LocalDate lastDecayDate;
+
+    /**
+     * 中止（租約被其他節點接手）時尚未完成的日期與已處理到的使用者 ID，下一次從此處繼續
+     */
+    @Column(name = "resume_date")
+    private LocalDate resumeDate;
+
+    @Column(name = "resume_after_user_id")
+    private Long resumeAfterUserId;
+
+    @Column(name = "last_started_at")
+    private LocalDateTime lastStartedAt;
+
+    @Column(name = "last_finished_at")
+    private LocalDateTime lastFinishedAt;
+
+    /**
+     * 最後一次執行的統計（吞吐量記錄用）
+     */
+    @Column(name = "last_users", nullable = false)
+    private Long lastUsers = 0L;
+
+    @Column(name = "last_rows", nullable = false)
+    private Long lastRows = 0L;
+
+    @Column(name = "last_duration_ms", nullable = false)
+    private Long lastDurationMs = 0L;
+}
@@ -0,0 +1,61 @@
+package com.example.wordrecommend_backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 新單字抽樣游標（每位使用者 × 每個 CEFR 等級一筆）
+ *
+ * 新單字順序 = 以 seed 定義的偽隨機排列（SeededPermutation）
+ * position 為低水位：排列中 position 之前的單字都已經學過，走訪時直接從這裡開始
+ *
+ * catalogSize 記錄建立排列時該等級的單字數，目錄變動時游標會歸零重新走訪
+ */
+@Entity
+@Table(name = "user_new_word_cursor")
+@Data
+@NoArgsConstructor
+public class NewWordCursor {
+
+    @EmbeddedId
+    private CursorId id;
+
+    /**
+     * 排列種子（建立後不再變更，確保跨重啟、跨節點順序一致）
+     */
+    @Column(name = "seed", nullable = false)
+    private Long seed;
+
+    /**
+     * 已走訪位置（低水位）
+     */
+    @Column(name = "position", nullable = false)
+    private Integer position = 0;
+
+    /**
+     * 建立排列時的等級單字數
+     */
+    @Column(name = "catalog_size", nullable = false)
+    private Integer catalogSize = 0;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CursorId implements Serializable {
+
+        @Column(name = "user_id", nullable = false)
+        private Long userId;
+
+        @Column(name = "cefr_level", nullable = false)
+        private String cefrLevel;
+    }
+}
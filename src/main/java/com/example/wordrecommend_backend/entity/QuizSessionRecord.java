@@ -0,0 +1,51 @@
+package com.example.wordrecommend_backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 複習會話（JDBC 會話儲存，多節點共用）
+ *
+ * 會話內容以 JSON 存於 payload，只有查詢與清理需要的欄位獨立存放
+ */
+@Entity
+@Table(name = "quiz_session",
+        indexes = {
+                // 過期清理：依 expires_at 範圍刪除
+                @Index(name = "idx_quiz_session_expires_at", columnList = "expires_at")
+        })
+@Data
+@NoArgsConstructor
+public class QuizSessionRecord {
+
+    @Id
+    @Column(name = "session_id", length = 36)
+    private String sessionId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * QuizSession 的 JSON
+     */
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    /**
+     * 版本（每次條件式更新 +1，比對後寫回，並行修改不會互相覆蓋）
+     */
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0 not null")
+    private long version;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * 過期時間（createdAt + ttl）
+     */
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
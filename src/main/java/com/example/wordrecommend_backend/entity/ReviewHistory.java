@@ -12,7 +12,8 @@ import java.time.LocalDateTime;
 public class ReviewHistory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "review_history_seq")
+    @SequenceGenerator(name = "review_history_seq", sequenceName = "review_history_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,68 @@
+package com.example.wordrecommend_backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 定時任務鎖（每個任務一筆）
+ *
+ * 用途：
+ * - 多節點部署時，同一個定時任務只在一個節點執行
+ * - locked_by / locked_until 為租約：持有者以心跳延長，節點當機時租約到期後由其他節點接手
+ * - last_* 欄位記錄最後一次執行結果（管理端檢視）
+ */
+@Entity
+@Table(name = "scheduled_job_lock")
+@Data
+@NoArgsConstructor
+public class ScheduledJobLock {
+
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+
+    /**
+     * 目前持有鎖的節點（未持有時為 null）
+     */
+    @Column(name = "locked_by")
+    private String lockedBy;
+
+    /**
+     * 租約到期時間（未持有時為 null）
+     */
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "locked_at")
+    private LocalDateTime lockedAt;
+
+    /**
+     * 最後一次心跳時間
+     */
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+
+    @Column(name = "last_node")
+    private String lastNode;
+
+    @Column(name = "last_started_at")
+    private LocalDateTime lastStartedAt;
+
+    @Column(name = "last_finished_at")
+    private LocalDateTime lastFinishedAt;
+
+    @Column(name = "last_duration_ms")
+    private Long lastDurationMs;
+
+    /**
+     * 最後一次執行結果：SUCCEEDED / FAILED
+     */
+    @Column(name = "last_status", length = 20)
+    private String lastStatus;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+}
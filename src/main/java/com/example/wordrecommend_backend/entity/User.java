@@ -10,6 +10,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 @Entity
 @Table(name = "users") // 指定表格名稱為 'users'
@@ -17,7 +18,8 @@ import java.util.Collections;
 public class User implements UserDetails {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false)
@@ -50,10 +52,17 @@ public class User implements UserDetails {
     @Column(name = "email_verified")
     private Boolean emailVerified = false;
 
+    // 管理者（可存取 /actuator/scheduledjobs 等管理端點）；只能直接在資料庫設定
+    @Column(name = "is_admin")
+    private Boolean admin = false;
+
     // 以下是 UserDetails 介面的實作方法
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        // 為了簡化，我們先給所有使用者一個 "USER" 角色
+        // 所有使用者都有 "USER" 角色，管理者另有 "ADMIN"
+        if (Boolean.TRUE.equals(admin)) {
+            return List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN"));
+        }
         return Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));
     }
 
@@ -0,0 +1,71 @@
+package com.example.wordrecommend_backend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 使用者學習狀態統計（每位使用者一筆）
+ *
+ * 用途：
+ * - 取代每次頁面載入時對 word_state 的多次 COUNT / GROUP BY 掃描
+ * - 推薦、複習準備度、學習統計都改為單次主鍵查詢
+ *
+ * 維護方式：
+ * - 每次狀態轉移（閱讀、答題、衰減）在同一交易內增量更新
+ * - 可由 word_state 完整重建（修復資料偏移）
+ */
+@Entity
+@Table(name = "user_learning_summary")
+@Data
+@NoArgsConstructor
+public class UserLearningSummary {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    /**
+     * S0：新單字
+     */
+    @Column(name = "count_s0", nullable = false)
+    private Long countS0 = 0L;
+
+    /**
+     * S-1：已遺忘
+     */
+    @Column(name = "count_forgotten", nullable = false)
+    private Long countForgotten = 0L;
+
+    /**
+     * S1：學習中
+     */
+    @Column(name = "count_s1", nullable = false)
+    private Long countS1 = 0L;
+
+    /**
+     * S2：複習中
+     */
+    @Column(name = "count_s2", nullable = false)
+    private Long countS2 = 0L;
+
+    /**
+     * S3：已精通
+     */
+    @Column(name = "count_s3", nullable = false)
+    private Long countS3 = 0L;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // ==================== 業務邏輯方法 ====================
+
+    /**
+     * 學習過的單字總數（S-1 + S1 + S2 + S3）
+     */
+    public long getTotalLearned() {
+        return countForgotten + countS1 + countS2 + countS3;
+    }
+}
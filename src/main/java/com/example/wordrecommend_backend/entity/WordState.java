@@ -29,17 +29,43 @@ import java.time.LocalDateTime;
  * @since 2025-11-03
  */
 @Entity
-@Table(name = "word_state")
+@Table(name = "word_state",
+        uniqueConstraints = {
+                // 每位使用者對每個單字只有一列（upsert 的衝突目標）
+                @UniqueConstraint(name = "ux_word_state_user_word", columnNames = {"user_id", "word_id"})
+        },
+        indexes = {
+                // 到期複習佇列：依使用者範圍掃描 next_recommended_review_time
+                @Index(name = "idx_word_state_user_next_review", columnList = "user_id, next_recommended_review_time")
+        })
+@SqlResultSetMapping(
+        name = WordState.UPSERT_RESULT_MAPPING,
+        entities = @EntityResult(entityClass = WordState.class),
+        columns = @ColumnResult(name = "inserted", type = Boolean.class)
+)
 @Data
 @NoArgsConstructor
 public class WordState {
 
+    /**
+     * WordStateRepository.upsertForUpdate 的結果對應（實體 + 是否新建立）
+     */
+    public static final String UPSERT_RESULT_MAPPING = "WordStateUpsert";
+
     // ==================== 主鍵 ====================
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "word_state_seq")
+    @SequenceGenerator(name = "word_state_seq", sequenceName = "word_state_seq", allocationSize = 50)
     private Long id;
 
+    /**
+     * 樂觀鎖版本（併發更新同一列時，後提交者失敗並由 @RetryOnOptimisticLock 重試）
+     */
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long version = 0L;
+
     // ==================== 關聯關係 ====================
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -177,7 +203,10 @@ public class WordState {
 
     /**
      * 下次建議複習時間（基於遺忘曲線預測）
-     * 用於主動推送提醒
+     * 用於主動推送提醒與到期複習佇列
+     *
+     * 由 AlgorithmCoreService.calculateNextReviewTime 在每次寫入時計算：
+     * 記憶強度衰減到目前狀態閾值的時刻
      */
     @Column(name = "next_recommended_review_time")
     private LocalDateTime nextRecommendedReviewTime;
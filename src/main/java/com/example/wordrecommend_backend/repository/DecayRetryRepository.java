@@ -0,0 +1,11 @@
+package com.example.wordrecommend_backend.repository;
+
+import com.example.wordrecommend_backend.entity.DecayRetry;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface DecayRetryRepository extends JpaRepository<DecayRetry, Long> {
+
+    List<DecayRetry> findByShardIdOrderByDecayDateAscUserIdAsc(Integer shardId);
+}
@@ -0,0 +1,7 @@
+package com.example.wordrecommend_backend.repository;
+
+import com.example.wordrecommend_backend.entity.DecayShardProgress;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface DecayShardProgressRepository extends JpaRepository<DecayShardProgress, Integer> {
+}
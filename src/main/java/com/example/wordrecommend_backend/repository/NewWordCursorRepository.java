@@ -0,0 +1,34 @@
+package com.example.wordrecommend_backend.repository;
+
+import com.example.wordrecommend_backend.entity.NewWordCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface NewWordCursorRepository extends JpaRepository<NewWordCursor, NewWordCursor.CursorId> {
+
+    /**
+     * 查詢使用者所有等級的游標
+     */
+    @Query("SELECT c FROM NewWordCursor c WHERE c.id.userId = :userId")
+    List<NewWordCursor> findByUserId(@Param("userId") Long userId);
+
+    /**
+     * 建立游標（已存在則忽略，避免同一使用者並發請求造成唯一鍵衝突）
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO user_new_word_cursor (user_id, cefr_level, seed, position, catalog_size, updated_at)
+        VALUES (:userId, :level, :seed, 0, :catalogSize, :now)
+        ON CONFLICT (user_id, cefr_level) DO NOTHING
+    """, nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId,
+                       @Param("level") String level,
+                       @Param("seed") long seed,
+                       @Param("catalogSize") int catalogSize,
+                       @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,55 @@
+package com.example.wordrecommend_backend.repository;
+
+import com.example.wordrecommend_backend.entity.QuizSessionRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface QuizSessionRecordRepository extends JpaRepository<QuizSessionRecord, String> {
+
+    /**
+     * 取得未過期會話的內容與版本
+     *
+     * 以投影查詢（不回傳受管理實體），同一個持久化內容中重複讀取也會取得資料庫的最新值
+     */
+    @Query("SELECT s.payload AS payload, s.version AS version FROM QuizSessionRecord s "
+            + "WHERE s.sessionId = :sessionId AND s.expiresAt > :now")
+    Optional<VersionedPayload> findPayload(@Param("sessionId") String sessionId, @Param("now") LocalDateTime now);
+
+    /**
+     * 條件式更新：版本相同才寫入並遞增版本
+     *
+     * @return 1 = 成功，0 = 已被其他請求修改（或已刪除）
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE QuizSessionRecord s SET s.payload = :payload, s.version = s.version + 1 "
+            + "WHERE s.sessionId = :sessionId AND s.version = :version")
+    int compareAndSet(@Param("sessionId") String sessionId,
+                      @Param("version") long version,
+                      @Param("payload") String payload);
+
+    long countByExpiresAtAfter(LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM QuizSessionRecord s WHERE s.sessionId = :sessionId")
+    int deleteBySessionId(@Param("sessionId") String sessionId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM QuizSessionRecord s WHERE s.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+
+    interface VersionedPayload {
+
+        String getPayload();
+
+        long getVersion();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.wordrecommend_backend.repository;
+
+import com.example.wordrecommend_backend.entity.ScheduledJobLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface ScheduledJobLockRepository extends JpaRepository<ScheduledJobLock, String> {
+
+    /**
+     * 建立任務鎖列（已存在則忽略）
+     *
+     * 不使用 ON CONFLICT，H2 也能執行；兩個節點同時建立時其中一個會違反主鍵，由呼叫端忽略
+     *
+     * @return 1 表示本次建立，0 表示已存在
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO scheduled_job_lock (job_name)
+        SELECT :jobName
+        WHERE NOT EXISTS (SELECT 1 FROM scheduled_job_lock WHERE job_name = :jobName)
+    """, nativeQuery = true)
+    int insertIfAbsent(@Param("jobName") String jobName);
+
+    /**
+     * 取得租約：未被持有或租約已到期時成功（同一節點的重疊執行也會被擋下）
+     *
+     * 條件判斷與寫入在同一個 UPDATE 中完成，並發節點在資料列鎖上排隊，只有一個會成功
+     *
+     * @return 1 表示取得，0 表示其他節點持有中
+     */
+    @Modifying
+    @Query("""
+        UPDATE ScheduledJobLock l SET
+            l.lockedBy = :node,
+            l.lockedUntil = :until,
+            l.lockedAt = :now,
+            l.heartbeatAt = :now,
+            l.lastNode = :node,
+            l.lastStartedAt = :now
+        WHERE l.jobName = :jobName
+          AND (l.lockedUntil IS NULL OR l.lockedUntil <= :now)
+    """)
+    int tryAcquire(@Param("jobName") String jobName,
+                   @Param("node") String node,
+                   @Param("now") LocalDateTime now,
+                   @Param("until") LocalDateTime until);
+
+    /**
+     * 心跳：延長本節點持有的租約
+     *
+     * @return 0 表示租約已被其他節點接手
+     */
+    @Modifying
+    @Query("""
+        UPDATE ScheduledJobLock l SET
+            l.lockedUntil = :until,
+            l.heartbeatAt = :now
+        WHERE l.jobName = :jobName AND l.lockedBy = :node
+    """)
+    int extend(@Param("jobName") String jobName,
+               @Param("node") String node,
+               @Param("now") LocalDateTime now,
+               @Param("until") LocalDateTime until);
+
+    /**
+     * 釋放租約並記錄執行結果
+     */
+    @Modifying
+    @Query("""
+        UPDATE ScheduledJobLock l SET
+            l.lockedBy = NULL,
+            l.lockedUntil = NULL,
+            l.lastFinishedAt = :now,
+            l.lastDurationMs = :durationMs,
+            l.lastStatus = :status,
+            l.lastError = :error
+        WHERE l.jobName = :jobName AND l.lockedBy = :node
+    """)
+    int release(@Param("jobName") String jobName,
+                @Param("node") String node,
+                @Param("now") LocalDateTime now,
+                @Param("durationMs") long durationMs,
+                @Param("status") String status,
+                @Param("error") String error);
+}
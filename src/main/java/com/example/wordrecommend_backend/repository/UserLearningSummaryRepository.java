@@ -0,0 +1,102 @@
+package com.example.wordrecommend_backend.repository;
+
+import com.example.wordrecommend_backend.entity.UserLearningSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface UserLearningSummaryRepository extends JpaRepository<UserLearningSummary, Long> {
+
+    /**
+     * 原子增量更新各狀態數量（不需先讀取，並發交易在資料列鎖上排隊）
+     *
+     * @return 更新筆數（0 表示尚未建立統計列）
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE user_learning_summary SET
+            count_s0 = count_s0 + :dS0,
+            count_forgotten = count_forgotten + :dForgotten,
+            count_s1 = count_s1 + :dS1,
+            count_s2 = count_s2 + :dS2,
+            count_s3 = count_s3 + :dS3,
+            updated_at = :now
+        WHERE user_id = :userId
+    """, nativeQuery = true)
+    int applyDelta(@Param("userId") Long userId,
+                   @Param("dS0") long dS0,
+                   @Param("dForgotten") long dForgotten,
+                   @Param("dS1") long dS1,
+                   @Param("dS2") long dS2,
+                   @Param("dS3") long dS3,
+                   @Param("now") LocalDateTime now);
+
+    /**
+     * 直接覆寫各狀態數量（重建用）
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE user_learning_summary SET
+            count_s0 = :s0,
+            count_forgotten = :forgotten,
+            count_s1 = :s1,
+            count_s2 = :s2,
+            count_s3 = :s3,
+            updated_at = :now
+        WHERE user_id = :userId
+    """, nativeQuery = true)
+    int overwriteCounts(@Param("userId") Long userId,
+                        @Param("s0") long s0,
+                        @Param("forgotten") long forgotten,
+                        @Param("s1") long s1,
+                        @Param("s2") long s2,
+                        @Param("s3") long s3,
+                        @Param("now") LocalDateTime now);
+
+    /**
+     * 建立空白統計列（已存在則忽略，避免並發建立造成主鍵衝突）
+     *
+     * @return 1 表示本交易建立，0 表示已存在
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO user_learning_summary
+            (user_id, count_s0, count_forgotten, count_s1, count_s2, count_s3, updated_at)
+        VALUES (:userId, 0, 0, 0, 0, 0, :now)
+        ON CONFLICT (user_id) DO NOTHING
+    """, nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    /**
+     * 由 word_state 重新計數一段使用者（user_id 範圍內、屬於指定分片）的統計（集合式衰減用）
+     *
+     * 只更新已存在的統計列；不存在的列在下次狀態轉移時建立並彙總
+     *
+     * @return 更新筆數
+     */
+    @Modifying
+    @Query(value = """
+        UPDATE user_learning_summary SET
+            count_s0 = (SELECT COUNT(*) FROM word_state ws
+                        WHERE ws.user_id = user_learning_summary.user_id AND ws.current_state = 'S0'),
+            count_forgotten = (SELECT COUNT(*) FROM word_state ws
+                        WHERE ws.user_id = user_learning_summary.user_id AND ws.current_state = 'S-1'),
+            count_s1 = (SELECT COUNT(*) FROM word_state ws
+                        WHERE ws.user_id = user_learning_summary.user_id AND ws.current_state = 'S1'),
+            count_s2 = (SELECT COUNT(*) FROM word_state ws
+                        WHERE ws.user_id = user_learning_summary.user_id AND ws.current_state = 'S2'),
+            count_s3 = (SELECT COUNT(*) FROM word_state ws
+                        WHERE ws.user_id = user_learning_summary.user_id AND ws.current_state = 'S3'),
+            updated_at = :now
+        WHERE user_id BETWEEN :fromUserId AND :toUserId
+          AND MOD(user_id, :shardCount) = :shard
+    """, nativeQuery = true)
+    int recountUserRange(@Param("fromUserId") long fromUserId,
+                         @Param("toUserId") long toUserId,
+                         @Param("shardCount") int shardCount,
+                         @Param("shard") int shard,
+                         @Param("now") LocalDateTime now);
+}
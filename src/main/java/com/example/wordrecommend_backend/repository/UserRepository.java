@@ -1,7 +1,12 @@
 package com.example.wordrecommend_backend.repository;
 
 import com.example.wordrecommend_backend.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -14,4 +19,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
 //    Boolean existsByEmail(String email);     // 新增：方便檢查 Email 是否存在
     boolean existsByUsernameIgnoreCase(String username);
     boolean existsByEmailIgnoreCase(String email);
+
+    // 批次任務用：以 ID 遊標分頁取得某分片的使用者 ID（keyset 分頁，不使用 OFFSET；分片 = id MOD shardCount）
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId AND MOD(u.id, :shardCount) = :shard ORDER BY u.id")
+    List<Long> findIdsInShardAfter(@Param("afterId") Long afterId,
+                                   @Param("shardCount") int shardCount,
+                                   @Param("shard") int shard,
+                                   Pageable pageable);
 }
\ No newline at end of file
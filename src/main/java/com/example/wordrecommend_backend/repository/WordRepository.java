@@ -70,4 +70,15 @@ public interface WordRepository extends JpaRepository<Word, Long> {
             @Param("excludeId") Long excludeWordId,
             Pageable pageable
     );
+
+    // 目錄變更檢查：總數與最大 ID（單次聚合，不載入實體）
+    @Query("SELECT COUNT(w) AS total, COALESCE(MAX(w.id), 0) AS maxId FROM Word w")
+    CatalogSignature findCatalogSignature();
+
+    interface CatalogSignature {
+
+        long getTotal();
+
+        long getMaxId();
+    }
 }
@@ -1,5 +1,6 @@
 package com.example.wordrecommend_backend.repository;
 
+import com.example.wordrecommend_backend.dto.ReviewCandidate;
 import com.example.wordrecommend_backend.entity.User;
 import com.example.wordrecommend_backend.entity.Word;
 import com.example.wordrecommend_backend.entity.WordState;
@@ -9,10 +10,11 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface WordStateRepository extends JpaRepository<WordState, Long> {
+public interface WordStateRepository extends JpaRepository<WordState, Long>, WordStateRepositoryCustom {
 
     // ==================== v1.0 原有方法 ====================
 
@@ -21,6 +23,12 @@ public interface WordStateRepository extends JpaRepository<WordState, Long> {
      */
     Optional<WordState> findByUserAndWord(User user, Word word);
 
+    /**
+     * 一次查詢使用者對多個單字的學習狀態（批次閱讀事件用）
+     */
+    @Query("SELECT ws FROM WordState ws WHERE ws.user = :user AND ws.word.id IN :wordIds")
+    List<WordState> findByUserAndWordIdIn(@Param("user") User user, @Param("wordIds") Collection<Long> wordIds);
+
     /**
      * 查詢使用者在指定狀態的單字（隨機排序）
      */
@@ -231,6 +239,160 @@ public interface WordStateRepository extends JpaRepository<WordState, Long> {
             "ORDER BY ws.forgottenCount DESC, ws.lastReviewTime ASC")
     List<WordState> findDifficultWords(@Param("user") User user, Pageable pageable);
 
+    /**
+     * 查詢使用者所有已建立狀態的單字 ID（搭配記憶體單字目錄過濾新單字）
+     *
+     * @param user 目標使用者
+     * @return 單字 ID 列表
+     */
+    @Query("SELECT ws.word.id FROM WordState ws WHERE ws.user = :user")
+    List<Long> findWordIdsByUser(@Param("user") User user);
+
+    // ==================== 複習評分投影（ReviewCandidate）====================
+
+    /**
+     * 查詢指定多個狀態的複習候選（輕量投影，一次 JOIN 取得單字複雜度）
+     *
+     * 排序：最久未複習的優先（與優先度的急迫性項一致）
+     *
+     * @param user 目標使用者
+     * @param states 狀態列表（如 ["S-1", "S1", "S2", "S3"]）
+     * @param pageable 分頁參數（候選上限）
+     * @return 複習候選列表
+     */
+    @Query("SELECT new com.example.wordrecommend_backend.dto.ReviewCandidate(" +
+            "w.id, ws.memoryStrength, ws.lastReviewTime, ws.forgottenCount, " +
+            "ws.lastForgottenTime, w.complexityScore, ws.currentState, ws.hasEverLearned) " +
+            "FROM WordState ws JOIN ws.word w " +
+            "WHERE ws.user = :user AND ws.currentState IN :states " +
+            "ORDER BY ws.lastReviewTime ASC")
+    List<ReviewCandidate> findReviewCandidates(
+            @Param("user") User user,
+            @Param("states") List<String> states,
+            Pageable pageable
+    );
+
+    /**
+     * 查詢指定狀態的複習候選（隨機排序，對應 findByUserAndState）
+     */
+    @Query("SELECT new com.example.wordrecommend_backend.dto.ReviewCandidate(" +
+            "w.id, ws.memoryStrength, ws.lastReviewTime, ws.forgottenCount, " +
+            "ws.lastForgottenTime, w.complexityScore, ws.currentState, ws.hasEverLearned) " +
+            "FROM WordState ws JOIN ws.word w " +
+            "WHERE ws.user = :user AND ws.currentState = :state " +
+            "ORDER BY function('RANDOM')")
+    List<ReviewCandidate> findReviewCandidatesByState(
+            @Param("user") User user,
+            @Param("state") String state,
+            Pageable pageable
+    );
+
+    /**
+     * 查詢 S-1 遺忘單字的複習候選（最近遺忘的優先，對應 findForgottenWords）
+     */
+    @Query("SELECT new com.example.wordrecommend_backend.dto.ReviewCandidate(" +
+            "w.id, ws.memoryStrength, ws.lastReviewTime, ws.forgottenCount, " +
+            "ws.lastForgottenTime, w.complexityScore, ws.currentState, ws.hasEverLearned) " +
+            "FROM WordState ws JOIN ws.word w " +
+            "WHERE ws.user = :user AND ws.currentState = 'S-1' " +
+            "ORDER BY ws.lastForgottenTime DESC")
+    List<ReviewCandidate> findForgottenReviewCandidates(@Param("user") User user, Pageable pageable);
+
+    /**
+     * 查詢已到期的複習候選（依到期時間排序，最早到期的優先）
+     *
+     * 使用索引 (user_id, next_recommended_review_time) 做範圍掃描，
+     * 成本為 O(log n + k)，不需為所有已學單字計算優先度
+     *
+     * @param user 目標使用者
+     * @param now 目前時間（到期時間 <= now 者）
+     * @param pageable 分頁參數
+     * @return 到期的複習候選
+     */
+    @Query("SELECT new com.example.wordrecommend_backend.dto.ReviewCandidate(" +
+            "w.id, ws.memoryStrength, ws.lastReviewTime, ws.forgottenCount, " +
+            "ws.lastForgottenTime, w.complexityScore, ws.currentState, ws.hasEverLearned) " +
+            "FROM WordState ws JOIN ws.word w " +
+            "WHERE ws.user = :user AND ws.nextRecommendedReviewTime <= :now " +
+            "ORDER BY ws.nextRecommendedReviewTime ASC")
+    List<ReviewCandidate> findDueReviewCandidates(
+            @Param("user") User user,
+            @Param("now") LocalDateTime now,
+            Pageable pageable
+    );
+
+    /**
+     * 在資料庫端計算複習優先度並只回傳前 K 筆
+     *
+     * 公式與 AlgorithmCoreService.calculateReviewPriority 相同：
+     * - 強度項：w1 × (1 - M)
+     * - 急迫性項：w2 × e^(λ'Δt)，λ' = λ × (1 + 複雜度) × (1 + ln(1 + 遺忘次數) × kForgotten)
+     * - S-1 加成：依遺忘天數分 3 / 7 天三級，遺忘 2 次以上打折；無遺忘時間時給一半
+     *
+     * 時間以 epoch 毫秒計算（timestamp 以 UTC 解讀，與 TimeUtil.toEpochMillis 一致）
+     * 常數刻意寫成整數運算（如 × 6 / 10），讓整個運算維持 DOUBLE PRECISION，不退化為 NUMERIC
+     *
+     * 返回格式：List<Object[]>
+     * - Object[0]: Number word_id
+     * - Object[1]: String current_state
+     * - Object[2]: Number priority
+     *
+     * @param userId 使用者 ID
+     * @param states 狀態列表
+     * @param excludeWordIds 排除的單字 ID（不可為空，無排除時傳入 -1）
+     * @param nowMs 目前時間（epoch 毫秒）
+     * @param limit 回傳筆數
+     * @return 依優先度遞減排序的前 K 筆
+     */
+    @Query(value = """
+        SELECT ranked.word_id, ranked.current_state, ranked.priority
+        FROM (
+            SELECT ws.word_id AS word_id,
+                   ws.current_state AS current_state,
+                   :w1 * (1 - ws.memory_strength)
+                   + :w2 * EXP(
+                       :lambdaBase
+                       * (1 + COALESCE(w.complexity_score, 1))
+                       * (CASE WHEN ws.forgotten_count > 0
+                               THEN 1 + LN(1 + ws.forgotten_count) * :kForgotten
+                               ELSE 1 END)
+                       * GREATEST(0, :nowMs - CAST(EXTRACT(EPOCH FROM ws.last_review_time) AS DOUBLE PRECISION) * 1000)
+                       / 86400000)
+                   + (CASE
+                       WHEN ws.current_state <> 'S-1' THEN 0
+                       WHEN ws.last_forgotten_time IS NULL THEN :kS1Bonus / 2
+                       ELSE (CASE
+                               WHEN FLOOR(GREATEST(0, :nowMs - CAST(EXTRACT(EPOCH FROM ws.last_forgotten_time) AS DOUBLE PRECISION) * 1000) / 86400000) <= 3
+                                   THEN :kS1Bonus
+                               WHEN FLOOR(GREATEST(0, :nowMs - CAST(EXTRACT(EPOCH FROM ws.last_forgotten_time) AS DOUBLE PRECISION) * 1000) / 86400000) <= 7
+                                   THEN :kS1Bonus * 6 / 10
+                               ELSE :kS1Bonus * 3 / 10 END)
+                           * (CASE WHEN ws.forgotten_count > 1
+                                   THEN 2 / (2 + CAST(ws.forgotten_count AS DOUBLE PRECISION))
+                                   ELSE 1 END)
+                      END) AS priority
+            FROM word_state ws
+            JOIN words w ON w.id = ws.word_id
+            WHERE ws.user_id = :userId
+              AND ws.current_state IN (:states)
+              AND ws.word_id NOT IN (:excludeWordIds)
+        ) ranked
+        ORDER BY ranked.priority DESC, ranked.word_id
+        LIMIT :limit
+    """, nativeQuery = true)
+    List<Object[]> findTopReviewPriorities(
+            @Param("userId") Long userId,
+            @Param("states") List<String> states,
+            @Param("excludeWordIds") Collection<Long> excludeWordIds,
+            @Param("nowMs") long nowMs,
+            @Param("w1") double w1,
+            @Param("w2") double w2,
+            @Param("lambdaBase") double lambdaBase,
+            @Param("kForgotten") double kForgotten,
+            @Param("kS1Bonus") double kS1Bonus,
+            @Param("limit") int limit
+    );
+
     /**
      * 根據使用者查詢所有 WordState（衰減任務用）
      *
@@ -239,5 +401,20 @@ public interface WordStateRepository extends JpaRepository<WordState, Long> {
      */
     List<WordState> findByUser(User user);
 
+    /**
+     * 以 ID 遊標分批查詢使用者的 WordState（衰減任務用，keyset 分頁）
+     *
+     * @param user 使用者
+     * @param afterId 上一批最後一筆的 ID（第一批傳 0）
+     * @param pageable 每批筆數
+     * @return ID 大於 afterId 的 WordState（依 ID 排序）
+     */
+    @Query("SELECT ws FROM WordState ws WHERE ws.user = :user AND ws.id > :afterId ORDER BY ws.id")
+    List<WordState> findByUserAfterId(
+            @Param("user") User user,
+            @Param("afterId") Long afterId,
+            Pageable pageable
+    );
+
 
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.example.wordrecommend_backend.repository;
+
+import com.example.wordrecommend_backend.entity.WordState;
+
+import java.time.LocalDateTime;
+
+/**
+ * WordStateRepository 自訂方法（需要 EntityManager 的原生 SQL）
+ */
+public interface WordStateRepositoryCustom {
+
+    /**
+     * 取得使用者對單字的 WordState，不存在時以初始值（S0）建立
+     *
+     * 單次往返、不先查詢：INSERT ... ON CONFLICT (user_id, word_id) DO UPDATE ... RETURNING
+     * - 既有的列與新建立的列走同一條語句，衰減與增益直接套用在回傳的列上
+     * - 回傳的列已在本交易中鎖定，後續讀取-計算-寫回不會與其他請求交錯
+     * - 回傳的實體為 managed 狀態，修改後由 dirty checking 寫回
+     *
+     * @param userId 使用者 ID
+     * @param wordId 單字 ID
+     * @param now 新建立時的 last_review_time
+     * @return WordState 與是否為本次新建立
+     */
+    Upsert upsertForUpdate(Long userId, Long wordId, LocalDateTime now);
+
+    /**
+     * upsertForUpdate 結果
+     *
+     * @param state WordState（managed）
+     * @param inserted 是否為本次新建立
+     */
+    record Upsert(WordState state, boolean inserted) {
+    }
+
+    /**
+     * 集合式每日衰減：以單一 UPDATE 對一段使用者（user_id 範圍內、屬於指定分片）的 WordState 套用衰減
+     *
+     * 規則與 MemoryDecayTask 的逐筆路徑相同：
+     * - 依狀態扣除衰減量，限制在 [0, 1]，變化小於 0.0001 的列不更新
+     * - 依新強度重新判定 FSM 狀態，last_review_time 設為 now，重新排程下次複習時間
+     * - version 加 1，讓同時進行中的互動寫入以樂觀鎖衝突重試
+     *
+     * @param slice 使用者分段
+     * @param now 衰減時間
+     * @param parameters 衰減量、狀態閾值與遺忘率參數
+     * @return 衰減的列數
+     */
+    int applyNightlyDecay(UserSlice slice, LocalDateTime now, NightlyDecayParameters parameters);
+
+    /**
+     * 集合式補排程：尚未排程的舊資料依目前狀態，從 last_review_time 起算下次複習時間
+     *
+     * @return 補排程的列數
+     */
+    int scheduleMissingReviews(UserSlice slice, NightlyDecayParameters parameters);
+
+    /**
+     * 使用者分段：user_id 介於 [fromUserId, toUserId] 且 user_id MOD shardCount = shard
+     *
+     * 不分片時 shardCount = 1、shard = 0
+     */
+    record UserSlice(long fromUserId, long toUserId, int shardCount, int shard) {
+    }
+
+    /**
+     * 集合式衰減參數（取自 AlgorithmCoreService / AlgorithmConfig）
+     */
+    record NightlyDecayParameters(
+            double decayS1,
+            double decayS2,
+            double decayS3,
+            double thresholdS1,
+            double thresholdS2,
+            double thresholdS3,
+            double lambdaBase,
+            double kForgotten,
+            double maxIntervalDays) {
+    }
+}
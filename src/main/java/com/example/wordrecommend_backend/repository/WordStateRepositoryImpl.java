@@ -0,0 +1,196 @@
+package com.example.wordrecommend_backend.repository;
+
+import com.example.wordrecommend_backend.entity.WordState;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.time.LocalDateTime;
+
+/**
+ * WordStateRepositoryCustom 實作（PostgreSQL；集合式衰減的 SQL 同時相容 H2 測試資料庫）
+ */
+class WordStateRepositoryImpl implements WordStateRepositoryCustom {
+
+    /**
+     * 衝突時 DO UPDATE（而非 DO NOTHING）才會回傳既有的列並加上列鎖；
+     * (xmax = 0) 僅在本次 INSERT 產生的列版本成立，用來判斷是否為新建立
+     *
+     * 注意：nextval 在衝突時也會被消耗（pooled 序列一次 50 個 ID），只造成 ID 空洞（bigint 無影響）；
+     * 不先查詢既有的列，每個事件省下一次往返
+     */
+    private static final String UPSERT_SQL = """
+            INSERT INTO word_state (
+                id, version, user_id, word_id,
+                memory_strength, current_state, has_ever_learned,
+                last_review_time, next_review_priority,
+                read_count, total_read_duration, avg_read_duration,
+                total_review_count, forgotten_count, consecutive_correct,
+                total_correct, total_incorrect, average_response_time_ms
+            )
+            VALUES (
+                nextval('word_state_seq'), 0, :userId, :wordId,
+                0.0, 'S0', FALSE,
+                :now, 0.0,
+                0, 0.0, 0.0,
+                0, 0, 0,
+                0, 0, 0
+            )
+            ON CONFLICT (user_id, word_id) DO UPDATE SET user_id = EXCLUDED.user_id
+            RETURNING *, (xmax = 0) AS inserted
+            """;
+
+    // ==================== 集合式每日衰減 ====================
+
+    /**
+     * 衰減後的強度（扣除各狀態的衰減量，限制在 [0, 1]）
+     */
+    private static final String DECAYED_STRENGTH = """
+            GREATEST(0, LEAST(1, COALESCE(memory_strength, 0) - CASE current_state
+                WHEN 'S1' THEN CAST(:decayS1 AS DOUBLE PRECISION)
+                WHEN 'S2' THEN CAST(:decayS2 AS DOUBLE PRECISION)
+                WHEN 'S3' THEN CAST(:decayS3 AS DOUBLE PRECISION)
+                ELSE 0 END))""";
+
+    /**
+     * 個人化遺忘率 λ'（與 AlgorithmCoreService.calculatePersonalizedDecayRate 相同）
+     */
+    private static final String PERSONALIZED_LAMBDA = """
+            (:lambdaBase
+                * (1 + COALESCE((SELECT w.complexity_score FROM words w WHERE w.id = word_state.word_id), 1))
+                * (CASE WHEN COALESCE(forgotten_count, 0) > 0
+                        THEN 1 + LN(1 + forgotten_count) * :kForgotten
+                        ELSE 1 END))""";
+
+    /**
+     * 依每日衰減排程到達閾值的夜數（與 AlgorithmCoreService.calculateNightlyReviewTime 相同，ε = NIGHTLY_EPSILON）
+     * NULLIF 避免規劃時常數折疊出除以零（衰減量為 0 的分支不會採用此結果）
+     */
+    private static final String NIGHTS_UNTIL_THRESHOLD = """
+            GREATEST(1, CEIL(({strength} - {threshold}) / NULLIF({amount}, 0)
+                - CAST(0.000000001 AS DOUBLE PRECISION)))""";
+
+    /**
+     * 下次複習時間（與 AlgorithmCoreService.calculateNextReviewTime 相同，毫秒四捨五入）
+     * - λ' > 0：閉式解 ln(M₀ / T) / λ'
+     * - λ' = 0：強度第一次降到閾值的午夜（{amount} 為該狀態的每日衰減量）
+     * {from}、{strength}、{threshold}、{amount} 於組字串時替換
+     */
+    private static final String NEXT_REVIEW_TIME = """
+            (CASE
+                WHEN {lambda} <= 0 AND {strength} > {threshold} AND {amount} > 0
+                     AND {nights} < CAST(:maxIntervalDays AS DOUBLE PRECISION)
+                THEN CAST(CAST({from} AS DATE) AS TIMESTAMP) + INTERVAL '1' DAY * {nights}
+                ELSE {from} + INTERVAL '0.001' SECOND * ROUND(86400000 * CASE
+                    WHEN {strength} <= {threshold} THEN 0
+                    WHEN {threshold} <= 0 OR {lambda} <= 0 THEN CAST(:maxIntervalDays AS DOUBLE PRECISION)
+                    ELSE LEAST(LN({strength} / {threshold}) / {lambda}, CAST(:maxIntervalDays AS DOUBLE PRECISION)) END)
+                END)"""
+            .replace("{nights}", NIGHTS_UNTIL_THRESHOLD)
+            .replace("{lambda}", PERSONALIZED_LAMBDA);
+
+    /**
+     * 每日衰減量（S-1 不衰減）
+     */
+    private static final String DECAY_S1 = "CAST(:decayS1 AS DOUBLE PRECISION)";
+    private static final String DECAY_S2 = "CAST(:decayS2 AS DOUBLE PRECISION)";
+    private static final String DECAY_S3 = "CAST(:decayS3 AS DOUBLE PRECISION)";
+
+    private static final String DECAY_SQL = """
+            UPDATE word_state SET
+                memory_strength = {s},
+                current_state = CASE
+                    WHEN {s} >= :thresholdS3 THEN 'S3'
+                    WHEN {s} >= :thresholdS2 THEN 'S2'
+                    WHEN COALESCE(has_ever_learned, FALSE) THEN 'S-1'
+                    WHEN {s} > 0 THEN 'S1'
+                    ELSE 'S0' END,
+                last_review_time = :now,
+                next_recommended_review_time = CASE
+                    WHEN {s} >= :thresholdS3 THEN {nextS3}
+                    WHEN {s} >= :thresholdS2 THEN {nextS2}
+                    WHEN COALESCE(has_ever_learned, FALSE) OR {s} > 0 THEN {nextS1}
+                    ELSE NULL END,
+                version = version + 1
+            WHERE user_id BETWEEN :fromUserId AND :toUserId
+              AND MOD(user_id, :shardCount) = :shard
+              AND ABS({s} - COALESCE(memory_strength, 0)) >= 0.0001
+            """
+            .replace("{nextS3}", nextReviewTime("CAST(:now AS TIMESTAMP)", "{s}", ":thresholdS3", DECAY_S3))
+            .replace("{nextS2}", nextReviewTime("CAST(:now AS TIMESTAMP)", "{s}", ":thresholdS2", DECAY_S2))
+            .replace("{nextS1}", nextReviewTime("CAST(:now AS TIMESTAMP)", "{s}", ":thresholdS1",
+                    "CASE WHEN COALESCE(has_ever_learned, FALSE) THEN 0 ELSE " + DECAY_S1 + " END"))
+            .replace("{s}", DECAYED_STRENGTH);
+
+    private static final String SCHEDULE_MISSING_SQL = """
+            UPDATE word_state SET
+                next_recommended_review_time = CASE current_state
+                    WHEN 'S3' THEN {nextS3}
+                    WHEN 'S2' THEN {nextS2}
+                    ELSE {nextS1} END,
+                version = version + 1
+            WHERE user_id BETWEEN :fromUserId AND :toUserId
+              AND MOD(user_id, :shardCount) = :shard
+              AND next_recommended_review_time IS NULL
+              AND current_state IN ('S-1', 'S1', 'S2', 'S3')
+              AND last_review_time IS NOT NULL
+              AND memory_strength IS NOT NULL
+            """
+            .replace("{nextS3}", nextReviewTime("last_review_time", "memory_strength", ":thresholdS3", DECAY_S3))
+            .replace("{nextS2}", nextReviewTime("last_review_time", "memory_strength", ":thresholdS2", DECAY_S2))
+            .replace("{nextS1}", nextReviewTime("last_review_time", "memory_strength", ":thresholdS1",
+                    "CASE current_state WHEN 'S1' THEN " + DECAY_S1 + " ELSE 0 END"));
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Upsert upsertForUpdate(Long userId, Long wordId, LocalDateTime now) {
+        Object[] row = (Object[]) entityManager.createNativeQuery(UPSERT_SQL, WordState.UPSERT_RESULT_MAPPING)
+                .setParameter("userId", userId)
+                .setParameter("wordId", wordId)
+                .setParameter("now", now)
+                .getSingleResult();
+
+        return new Upsert((WordState) row[0], Boolean.TRUE.equals(row[1]));
+    }
+
+    @Override
+    public int applyNightlyDecay(UserSlice slice, LocalDateTime now, NightlyDecayParameters parameters) {
+        Query query = entityManager.createNativeQuery(DECAY_SQL)
+                .setParameter("now", now);
+
+        return bindCommon(query, slice, parameters).executeUpdate();
+    }
+
+    @Override
+    public int scheduleMissingReviews(UserSlice slice, NightlyDecayParameters parameters) {
+        return bindCommon(entityManager.createNativeQuery(SCHEDULE_MISSING_SQL), slice, parameters)
+                .executeUpdate();
+    }
+
+    private static Query bindCommon(Query query, UserSlice slice, NightlyDecayParameters parameters) {
+        return query
+                .setParameter("fromUserId", slice.fromUserId())
+                .setParameter("toUserId", slice.toUserId())
+                .setParameter("shardCount", slice.shardCount())
+                .setParameter("shard", slice.shard())
+                .setParameter("decayS1", parameters.decayS1())
+                .setParameter("decayS2", parameters.decayS2())
+                .setParameter("decayS3", parameters.decayS3())
+                .setParameter("thresholdS1", parameters.thresholdS1())
+                .setParameter("thresholdS2", parameters.thresholdS2())
+                .setParameter("thresholdS3", parameters.thresholdS3())
+                .setParameter("lambdaBase", parameters.lambdaBase())
+                .setParameter("kForgotten", parameters.kForgotten())
+                .setParameter("maxIntervalDays", parameters.maxIntervalDays());
+    }
+
+    private static String nextReviewTime(String from, String strength, String threshold, String amount) {
+        return NEXT_REVIEW_TIME
+                .replace("{from}", from)
+                .replace("{strength}", strength)
+                .replace("{threshold}", threshold)
+                .replace("{amount}", amount);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.wordrecommend_backend.service;
 
 import com.example.wordrecommend_backend.config.AlgorithmConfig;
+import com.example.wordrecommend_backend.dto.ReviewCandidate;
 import com.example.wordrecommend_backend.entity.Word;
 import com.example.wordrecommend_backend.entity.WordState;
 import com.example.wordrecommend_backend.util.TimeUtil;
@@ -8,7 +9,9 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 /**
  * 演算法核心服務 (純計算器)
@@ -32,7 +35,7 @@ public class AlgorithmCoreService {
         double deltaT = TimeUtil.calculateDaysDifference(lastReviewTime, currentTime);
 
         // ========== 3. 計算個人化動態遺忘率 ==========
-        double dynamicLambda = calculatePersonalizedDecayRate(state, word);
+        double dynamicLambda = calculatePersonalizedDecayRate(word.getComplexityScore(), state.getForgottenCount());
 
         // ========== 4. 指數衰減公式 ==========
         // Math.exp(x) = e^x
@@ -135,31 +138,8 @@ public class AlgorithmCoreService {
         log.info("S3 閾值: {:.2f}", config.getThresholdS3());
         log.info("S2 閾值: {:.2f}", config.getThresholdS2());
 
-        String result;
-
-        if (strength >= config.getThresholdS3()) {
-            result = "S3";
-            log.info("✅ 決定: S3（strength >= S3 閾值）");
-        } else if (strength >= config.getThresholdS2()) {
-            result = "S2";
-            log.info("✅ 決定: S2（strength >= S2 閾值）");
-        } else if (strength > 0.0) {
-            if (hasEverLearned) {
-                result = "S-1";
-                log.info("✅ 決定: S-1（0 < strength, hasEverLearned=true）");
-            } else {
-                result = "S1";
-                log.info("✅ 決定: S1（0 < strength, hasEverLearned=false）");
-            }
-        } else {
-            if (hasEverLearned) {
-                result = "S-1";
-                log.info("✅ 決定: S-1（strength <= 0, hasEverLearned=true）");
-            } else {
-                result = "S0";
-                log.info("✅ 決定: S0（strength <= 0, hasEverLearned=false）");
-            }
-        }
+        String result = classifyFsmState(strength, hasEverLearned);
+        log.info("✅ 決定: {}", result);
 
         log.info("🟠 ========== FSM 狀態判定結束 ==========");
         return result;
@@ -168,11 +148,38 @@ public class AlgorithmCoreService {
     public String determineFsmState(WordState state) {
         return determineFsmState(state.getMemoryStrength(), state.getHasEverLearned());
     }
+
+    /**
+     * FSM 狀態判定（不輸出日誌，大量推算時使用；規則與 determineFsmState 相同）
+     */
+    public String classifyFsmState(double strength, boolean hasEverLearned) {
+        strength = clamp(strength, 0.0, 1.0);
+
+        if (strength >= config.getThresholdS3()) {
+            return "S3";
+        }
+        if (strength >= config.getThresholdS2()) {
+            return "S2";
+        }
+        if (hasEverLearned) {
+            return "S-1";
+        }
+        return strength > 0.0 ? "S1" : "S0";
+    }
     private double clamp(double value, double min, double max) {
         return Math.max(min, Math.min(max, value));
     }
 
-    private double calculatePersonalizedDecayRate(WordState state, Word word) {
+    /**
+     * 計算個人化動態遺忘率 λ'
+     *
+     * 只依賴兩個數值，實體與輕量投影（ReviewCandidate）共用
+     *
+     * @param complexityScore 單字複雜度
+     * @param forgottenCount 遺忘次數
+     * @return λ'
+     */
+    public double calculatePersonalizedDecayRate(double complexityScore, int forgottenCount) {
         // 1. 基礎遺忘率（從配置讀取）
         double lambdaBase = config.getLambdaDecay(); // 預設 0.1
 
@@ -183,7 +190,6 @@ public class AlgorithmCoreService {
         // - complexity = 0.0 → factor = 1.0（簡單單字）
         // - complexity = 0.5 → factor = 1.5（中等難度）
         // - complexity = 1.0 → factor = 2.0（最難單字）
-        double complexityScore = word.getComplexityScore();
         double complexityFactor = 1.0 + complexityScore;
 
         // ========== 3. 遺忘歷史因子（個人化）==========
@@ -195,7 +201,6 @@ public class AlgorithmCoreService {
         // - forgotten = 3 → factor = 1.14（增加 14%）
         // - forgotten = 5 → factor = 1.18（增加 18%）
         // - forgotten = 10 → factor = 1.24（增加 24%）
-        int forgottenCount = state.getForgottenCount();
         double forgottenFactor = 1.0;
 
         if (forgottenCount > 0) {
@@ -208,11 +213,9 @@ public class AlgorithmCoreService {
         double personalizedLambda = lambdaBase * complexityFactor * forgottenFactor;
 
         // ========== 5. 詳細日誌（用於論文分析）==========
-        log.trace("Personalized λ' for word '{}' (user {}): " +
+        log.trace("Personalized λ': " +
                         "base={:.3f}, complexity={:.2f} (factor={:.2f}), " +
                         "forgotten={} (factor={:.2f}), final={:.4f}",
-                word.getWordText(),
-                state.getUser().getId(),
                 lambdaBase,
                 complexityScore, complexityFactor,
                 forgottenCount, forgottenFactor,
@@ -291,8 +294,26 @@ public class AlgorithmCoreService {
             Word word,
             LocalDateTime currentTime) {
 
-        double strength = state.getMemoryStrength();
-        LocalDateTime lastReviewTime = state.getLastReviewTime();
+        return calculateReviewPriority(
+                ReviewCandidate.from(state, word),
+                TimeUtil.toEpochMillis(currentTime)
+        );
+    }
+
+    /**
+     * 計算推薦優先度（輕量投影版本）
+     *
+     * 公式：P = w₁(1 - M) + w₂·e^(λ'Δt) + S-1 加成
+     *
+     * 只使用投影中的基本型別欄位，不觸發任何 LAZY 關聯
+     *
+     * @param candidate 複習候選（ReviewCandidate）
+     * @param nowEpochMs 目前時間（epoch 毫秒，與 TimeUtil.toEpochMillis 相同基準）
+     * @return 推薦優先度（越大越優先）
+     */
+    public double calculateReviewPriority(ReviewCandidate candidate, long nowEpochMs) {
+
+        double strength = candidate.memoryStrength();
 
         // ========== 1. 記憶強度項 ==========
         // 理論：記憶越弱，越需要複習
@@ -303,8 +324,9 @@ public class AlgorithmCoreService {
         // ========== 2. 時間急迫性項 ==========
         // 理論：距離上次複習越久，越需要複習
         // 使用個人化動態遺忘率（考慮單字難度和個人表現）
-        double deltaT = TimeUtil.calculateDaysDifference(lastReviewTime, currentTime);
-        double dynamicLambda = calculatePersonalizedDecayRate(state, word);
+        double deltaT = TimeUtil.calculateDaysDifference(candidate.lastReviewEpochMs(), nowEpochMs);
+        double dynamicLambda = calculatePersonalizedDecayRate(
+                candidate.complexityScore(), candidate.forgottenCount());
 
         // 指數增長：時間越久，優先度增長越快
         double urgencyComponent = config.getW2Urgency() * Math.exp(dynamicLambda * deltaT);
@@ -312,13 +334,11 @@ public class AlgorithmCoreService {
         // ========== 3. S-1 狀態特殊加成（核心創新）==========
         double forgottenBonus = 0.0;
 
-        if (state.isForgotten()) {
+        if (candidate.isForgotten()) {
             // 計算距離遺忘多久了
-            LocalDateTime lastForgottenTime = state.getLastForgottenTime();
-
-            if (lastForgottenTime != null) {
+            if (candidate.hasLastForgottenTime()) {
                 long daysSinceForgotten = TimeUtil.calculateDaysDifferenceAsLong(
-                        lastForgottenTime, currentTime
+                        candidate.lastForgottenEpochMs(), nowEpochMs
                 );
 
                 // 時間相關加成（剛遺忘 vs 久遠遺忘）
@@ -345,7 +365,7 @@ public class AlgorithmCoreService {
                 // 遺忘次數折扣（反覆遺忘的單字，降低期望）
                 // forgotten_count = 0 → factor = 1.0
                 // forgotten_count = 3 → factor = 0.25
-                int forgottenCount = state.getForgottenCount();
+                int forgottenCount = candidate.forgottenCount();
                 if (forgottenCount > 1) {
                     double discountFactor = 1.0 / (1.0 + forgottenCount * 0.5);
                     forgottenBonus *= discountFactor;
@@ -364,16 +384,224 @@ public class AlgorithmCoreService {
         double totalPriority = strengthComponent + urgencyComponent + forgottenBonus;
 
         // ========== 5. 詳細日誌（用於論文分析）==========
-        log.debug("Priority for word '{}' (state={}, M={:.2f}): " +
+        log.debug("Priority for word {} (state={}, M={:.2f}): " +
                         "strength_component={:.2f}, urgency_component={:.2f} (λ'={:.3f}, Δt={:.1f}), " +
                         "forgotten_bonus={:.2f}, total={:.2f}",
-                word.getWordText(), state.getCurrentState(), strength,
+                candidate.wordId(), candidate.state(), strength,
                 strengthComponent, urgencyComponent, dynamicLambda, deltaT,
                 forgottenBonus, totalPriority);
 
         return totalPriority;
     }
 
+    // ==================== 到期複習時間（閉式解）====================
+
+    /**
+     * 遺忘率為 0（或不需衰減）時的最長複習間隔（天）
+     */
+    public static final double MAX_REVIEW_INTERVAL_DAYS = 30.0;
+
+    /**
+     * 每日衰減排程推算夜數時的浮點容許誤差（與集合式衰減 SQL 相同）
+     */
+    public static final double NIGHTLY_EPSILON = 1e-9;
+
+    /**
+     * 計算下次建議複習時間（記憶衰減到目前狀態閾值的時刻）
+     *
+     * 衰減模型與 calculateDecay 相同：M(t) = M₀ · e^(-λ'Δt)
+     * 令 M(t) = T，得 Δt = ln(M₀ / T) / λ'
+     *
+     * 未設定遺忘率（λ' = 0）時改依實際套用的每日衰減排程推算：
+     * 每個午夜扣除 nightlyDecayAmount，取強度第一次降到閾值的午夜
+     *
+     * 閾值 T 依狀態決定：
+     * - S3 → thresholdS3（掉出精通）
+     * - S2 → thresholdS2（掉出複習中）
+     * - S1 / S-1 → thresholdS1
+     * - S0 → 不排程（返回 null）
+     *
+     * @param state 已更新強度與狀態的 WordState
+     * @param word 單字
+     * @param from 起算時間（通常為本次複習時間）
+     * @return 下次建議複習時間；S0 返回 null
+     */
+    public LocalDateTime calculateNextReviewTime(WordState state, Word word, LocalDateTime from) {
+        return calculateNextReviewTime(
+                state.getCurrentState(),
+                state.getMemoryStrength(),
+                word.getComplexityScore() == null ? 1.0 : word.getComplexityScore(),
+                state.getForgottenCount(),
+                from
+        );
+    }
+
+    /**
+     * 計算下次建議複習時間（基本型別版本，衰減任務用，不需載入 Word 實體）
+     */
+    public LocalDateTime calculateNextReviewTime(String state,
+                                                 double strength,
+                                                 double complexityScore,
+                                                 int forgottenCount,
+                                                 LocalDateTime from) {
+        Double threshold = reviewThresholdFor(state);
+        if (threshold == null) {
+            return null;
+        }
+
+        double lambda = calculatePersonalizedDecayRate(complexityScore, forgottenCount);
+        if (lambda <= 0.0) {
+            LocalDateTime nightly = calculateNightlyReviewTime(state, strength, threshold, from);
+            if (nightly != null) {
+                return nightly;
+            }
+        }
+
+        double days = calculateDaysUntilThreshold(strength, threshold, lambda);
+
+        return from.plus(Math.round(days * 86_400_000L), ChronoUnit.MILLIS);
+    }
+
+    /**
+     * 依每日衰減排程推算到期時間（強度第一次降到閾值的午夜）
+     *
+     * 每日衰減任務重新排程時，強度少一次扣除、起算日多一天，推算結果不變
+     *
+     * @return 到期的午夜；已低於閾值、不會衰減或超過最長間隔時返回 null（改用閉式解的結果）
+     */
+    private LocalDateTime calculateNightlyReviewTime(String state,
+                                                     double strength,
+                                                     double threshold,
+                                                     LocalDateTime from) {
+        double amount = nightlyDecayAmount(state);
+        if (strength <= threshold || amount <= 0.0) {
+            return null;
+        }
+
+        // 扣除 ε 避免浮點誤差多算一晚（例如 (0.25 - 0.10) / 0.15 = 1.0000000000000002）
+        long nights = Math.max(1L, (long) Math.ceil((strength - threshold) / amount - NIGHTLY_EPSILON));
+        if (nights >= MAX_REVIEW_INTERVAL_DAYS) {
+            return null;
+        }
+
+        return from.toLocalDate().plusDays(nights).atStartOfDay();
+    }
+
+    /**
+     * 計算記憶強度衰減到閾值所需天數
+     *
+     * @param strength 目前記憶強度 M₀
+     * @param threshold 閾值 T
+     * @param lambda 個人化遺忘率 λ'
+     * @return 天數，範圍 [0, MAX_REVIEW_INTERVAL_DAYS]
+     */
+    public double calculateDaysUntilThreshold(double strength, double threshold, double lambda) {
+        if (strength <= threshold) {
+            // 已低於閾值：立即到期
+            return 0.0;
+        }
+        if (threshold <= 0.0 || lambda <= 0.0) {
+            // 永遠不會衰減到閾值：以最長間隔排程，避免永不複習
+            return MAX_REVIEW_INTERVAL_DAYS;
+        }
+        return Math.min(Math.log(strength / threshold) / lambda, MAX_REVIEW_INTERVAL_DAYS);
+    }
+
+    private Double reviewThresholdFor(String state) {
+        if (state == null) {
+            return null;
+        }
+        switch (state) {
+            case "S3":  return config.getThresholdS3();
+            case "S2":  return config.getThresholdS2();
+            case "S1":
+            case "S-1": return config.getThresholdS1();
+            default:    return null;
+        }
+    }
+
+    // ==================== 每日衰減（Phase 7）====================
+
+    /**
+     * 每日衰減幅度（每經過一次午夜扣除一次）
+     *
+     * | 狀態 | 描述 | 衰減幅度 | 理由 |
+     * |------|------|--------|------|
+     * | S0 | 新單字 | 0.00 | 未開始學習 |
+     * | S1 | 學習中 | 0.15 | 記憶不穩定 |
+     * | S2 | 複習中 | 0.08 | 記憶逐漸穩定 |
+     * | S3 | 已精通 | 0.03 | 記憶非常穩定 |
+     * | S-1 | 已遺忘 | 0.00 | 等待複習 |
+     *
+     * @param state FSM 狀態
+     * @return 衰減幅度（0.0-0.15）
+     */
+    public double nightlyDecayAmount(String state) {
+        if (state == null) {
+            return 0.0;
+        }
+        switch (state) {
+            case "S1": return 0.15;
+            case "S2": return 0.08;
+            case "S3": return 0.03;
+            default:   return 0.0;
+        }
+    }
+
+    /**
+     * 推算延遲衰減後的強度與狀態（延遲衰減模式）
+     *
+     * 結果與每日衰減任務在 anchor 之後的每個午夜各執行一次相同：
+     * - 每個午夜扣除目前狀態的衰減幅度，再依新強度判定狀態
+     * - 衰減幅度為 0（S0 / S-1）或強度不再變化時停止
+     * - 最多約 35 次迭代（最小幅度 0.03，強度上限 1.0），成本固定
+     *
+     * @param state 保存的 FSM 狀態
+     * @param strength 保存的記憶強度
+     * @param hasEverLearned 是否曾經學會
+     * @param anchor 保存強度的時間（last_review_time）
+     * @param now 目前時間
+     * @return 推算結果（未經過午夜時與輸入相同）
+     */
+    public DecayedStrength projectNightlyDecay(String state,
+                                               double strength,
+                                               boolean hasEverLearned,
+                                               LocalDateTime anchor,
+                                               LocalDateTime now) {
+
+        LocalDate lastDecayDay = anchor.toLocalDate();
+        LocalDate today = now.toLocalDate();
+
+        while (lastDecayDay.isBefore(today)) {
+            double amount = nightlyDecayAmount(state);
+            if (amount <= 0.0) {
+                break;
+            }
+
+            double decayed = clamp(strength - amount, 0.0, 1.0);
+            if (Math.abs(decayed - strength) < 0.0001) {
+                break;
+            }
+
+            lastDecayDay = lastDecayDay.plusDays(1);
+            strength = decayed;
+            state = classifyFsmState(decayed, hasEverLearned);
+            anchor = lastDecayDay.atStartOfDay();
+        }
+
+        return new DecayedStrength(strength, state, anchor);
+    }
+
+    /**
+     * 延遲衰減推算結果
+     *
+     * @param strength 衰減後強度
+     * @param state 衰減後狀態
+     * @param anchor 最後一次衰減的時間（未衰減時為原本的 last_review_time）
+     */
+    public record DecayedStrength(double strength, String state, LocalDateTime anchor) {
+    }
+
 //    /**
 //     * 輔助方法：計算推薦優先度 Pᵢ
 //     * 公式：Pᵢ = w₁ * (1 - Mᵢ) + w₂ * e^(λΔt)
@@ -0,0 +1,96 @@
+package com.example.wordrecommend_backend.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 已發出題目的答案（與會話一起保存，不傳給前端）
+ *
+ * 用途：
+ * - 提交答案時直接比對，不需再查詢單字
+ * - 只接受會話中發出過的題目，每題只能作答一次
+ *
+ * 比對規則與 ReviewService.validateAnswerByQuestionType 相同：
+ * - EASY：選項 ID 對應的翻譯與正確翻譯相同（acceptedOptionIds，生成題目時已計算）
+ * - NORMAL：選項 ID 等於主題單字 ID
+ * - HARD：拼寫去除前後空白、不分大小寫後相同
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnswerKey {
+
+    private Long questionId;
+
+    private Long wordId;
+
+    private String questionType;
+
+    /**
+     * 題目在題組中的位置
+     */
+    private int position;
+
+    /**
+     * 正確選項 ID（HARD 為 null）
+     */
+    private Long correctOptionId;
+
+    /**
+     * 正確翻譯（顯示用）
+     */
+    private String correctTranslation;
+
+    /**
+     * 正確拼寫（比對時不分大小寫）
+     */
+    private String expectedSpelling;
+
+    /**
+     * 視為正確的選項 ID（EASY 含翻譯相同的干擾選項；NORMAL 只有正確選項）
+     */
+    private List<Long> acceptedOptionIds;
+
+    private boolean answered;
+
+    /**
+     * 比對答案
+     *
+     * @param answer EASY / NORMAL 為選項 ID，HARD 為拼寫
+     */
+    public boolean matches(String answer) {
+        if (answer == null) {
+            return false;
+        }
+
+        if ("HARD".equals(questionType)) {
+            return expectedSpelling != null
+                    && expectedSpelling.trim().equalsIgnoreCase(answer.trim());
+        }
+
+        try {
+            long optionId = Long.parseLong(answer.trim());
+            return acceptedOptionIds != null && acceptedOptionIds.contains(optionId);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 複本（會話儲存回傳副本時使用；acceptedOptionIds 生成後不再修改，共用）
+     */
+    public AnswerKey copy() {
+        return new AnswerKey(questionId, wordId, questionType, position, correctOptionId,
+                correctTranslation, expectedSpelling, acceptedOptionIds, answered);
+    }
+
+    /**
+     * 顯示給使用者的正確答案（選擇題為翻譯，拼寫題為單字）
+     */
+    public String displayAnswer() {
+        return "HARD".equals(questionType) ? expectedSpelling : correctTranslation;
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.wordrecommend_backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * 記憶體內複習會話儲存（單節點）
+ *
+ * 設計理念：
+ * - 以插入順序保存，開頭即為最早建立的會話
+ * - 過期淘汰：超過 ttl（由 createdAt 起算）的會話，在讀取、寫入與定期清理時移除
+ * - 容量上限：超過 maxSessions 時淘汰最早建立的會話，放棄的會話不會無限累積
+ *
+ * 執行緒安全：
+ * - 所有操作在同一把鎖內完成，每次操作為 O(1)（清理為 O(過期數量)）
+ * - 保存與回傳的都是副本：鎖外不會有人持有保存中的會話，修改只能經由 update 在鎖內套用
+ */
+@Service
+@ConditionalOnProperty(name = "learning.quiz.session.store", havingValue = "memory", matchIfMissing = true)
+@Slf4j
+public class InMemoryQuizSessionStore implements QuizSessionStore {
+
+    private final long ttlMillis;
+    private final Map<String, QuizSession> sessions;
+    private final Counter expiredCounter;
+    private final Counter capacityCounter;
+
+    public InMemoryQuizSessionStore(
+            MeterRegistry meterRegistry,
+            @Value("${learning.quiz.session.max-sessions:10000}") int maxSessions,
+            @Value("${learning.quiz.session.ttl-minutes:60}") long ttlMinutes) {
+
+        this.ttlMillis = ttlMinutes * 60_000L;
+        this.expiredCounter = evictionCounter(meterRegistry, "expired");
+        this.capacityCounter = evictionCounter(meterRegistry, "capacity");
+        this.sessions = new LinkedHashMap<>(256) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, QuizSession> eldest) {
+                if (size() <= maxSessions) {
+                    return false;
+                }
+                capacityCounter.increment();
+                log.debug("Quiz session {} evicted: store is full ({} sessions)", eldest.getKey(), maxSessions);
+                return true;
+            }
+        };
+
+        Gauge.builder("quiz.sessions.live", this, InMemoryQuizSessionStore::size)
+                .description("Quiz sessions currently held")
+                .register(meterRegistry);
+
+        log.info("📋 Quiz sessions kept in memory: maxSessions={}, ttl={}min", maxSessions, ttlMinutes);
+    }
+
+    @Override
+    public void save(QuizSession session) {
+        synchronized (sessions) {
+            purgeExpired(System.currentTimeMillis());
+            sessions.put(session.getSessionId(), session.copy());
+        }
+    }
+
+    @Override
+    public Optional<QuizSession> find(String sessionId) {
+        synchronized (sessions) {
+            return live(sessionId).map(QuizSession::copy);
+        }
+    }
+
+    /**
+     * 在鎖內修改副本，mutation 成功才取代保存的會話（鎖內不會有並行修改，不需重試）
+     */
+    @Override
+    public Optional<QuizSession> update(String sessionId, Predicate<QuizSession> mutation) {
+        synchronized (sessions) {
+            Optional<QuizSession> stored = live(sessionId);
+            if (stored.isEmpty()) {
+                return Optional.empty();
+            }
+
+            QuizSession updated = stored.get().copy();
+            if (!mutation.test(updated)) {
+                return Optional.empty();
+            }
+
+            // 取代既有鍵不改變插入順序，不影響過期與容量淘汰
+            sessions.put(sessionId, updated);
+            return Optional.of(updated.copy());
+        }
+    }
+
+    @Override
+    public void remove(String sessionId) {
+        synchronized (sessions) {
+            sessions.remove(sessionId);
+        }
+    }
+
+    @Override
+    public int purgeExpired() {
+        synchronized (sessions) {
+            return purgeExpired(System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * 定期清理（沒有新會話寫入時，過期會話也會被釋放）
+     */
+    @Scheduled(fixedDelayString = "${learning.quiz.session.purge-interval-ms:60000}")
+    public void purgeExpiredSessions() {
+        purgeExpired();
+    }
+
+    double size() {
+        synchronized (sessions) {
+            return sessions.size();
+        }
+    }
+
+    /**
+     * 從最早建立的會話開始移除，遇到第一個未過期的即停止（需持有鎖）
+     */
+    private int purgeExpired(long now) {
+        int purged = 0;
+        Iterator<QuizSession> it = sessions.values().iterator();
+
+        while (it.hasNext()) {
+            if (!isExpired(it.next(), now)) {
+                break;
+            }
+            it.remove();
+            purged++;
+        }
+
+        if (purged > 0) {
+            expiredCounter.increment(purged);
+            log.debug("Purged {} expired quiz sessions", purged);
+        }
+        return purged;
+    }
+
+    /**
+     * 取得未過期的會話，已過期則移除（需持有鎖）
+     */
+    private Optional<QuizSession> live(String sessionId) {
+        QuizSession session = sessions.get(sessionId);
+        if (session != null && isExpired(session, System.currentTimeMillis())) {
+            sessions.remove(sessionId);
+            expiredCounter.increment();
+            return Optional.empty();
+        }
+        return Optional.ofNullable(session);
+    }
+
+    private boolean isExpired(QuizSession session, long now) {
+        return now - session.getCreatedAt() > ttlMillis;
+    }
+
+    private static Counter evictionCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("quiz.sessions.evicted")
+                .description("Quiz sessions removed before the client ended them")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
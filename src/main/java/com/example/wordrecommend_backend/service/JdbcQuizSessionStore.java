@@ -0,0 +1,160 @@
+package com.example.wordrecommend_backend.service;
+
+import com.example.wordrecommend_backend.aspect.SingleNodeJob;
+import com.example.wordrecommend_backend.entity.QuizSessionRecord;
+import com.example.wordrecommend_backend.repository.QuizSessionRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * 資料庫複習會話儲存（多節點共用）
+ *
+ * 設計理念：
+ * - 每個會話一列（quiz_session），內容以 JSON 保存，任何節點都能接續同一個會話
+ * - 讀取時以 expires_at 過濾，過期的會話不會被使用
+ * - 修改為比對版本的條件式 UPDATE（compare-and-set），衝突時重新讀取後再套用，並行請求不會互相覆蓋
+ * - 過期資料由定期清理刪除（叢集中只在一個節點執行）
+ *
+ * 指標：
+ * - quiz.sessions.live 每次讀取都會查詢資料庫（count）
+ * - quiz.sessions.evicted 只計算本節點清理的數量
+ */
+@Service
+@ConditionalOnProperty(name = "learning.quiz.session.store", havingValue = "jdbc")
+@Slf4j
+public class JdbcQuizSessionStore implements QuizSessionStore {
+
+    /**
+     * 條件式更新連續衝突的最多嘗試次數
+     */
+    private static final int MAX_UPDATE_ATTEMPTS = 10;
+
+    private final QuizSessionRecordRepository recordRepository;
+    private final ObjectMapper objectMapper;
+    private final long ttlMinutes;
+    private final Counter expiredCounter;
+
+    public JdbcQuizSessionStore(
+            QuizSessionRecordRepository recordRepository,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${learning.quiz.session.ttl-minutes:60}") long ttlMinutes) {
+
+        this.recordRepository = recordRepository;
+        this.objectMapper = objectMapper;
+        this.ttlMinutes = ttlMinutes;
+        this.expiredCounter = Counter.builder("quiz.sessions.evicted")
+                .description("Quiz sessions removed before the client ended them")
+                .tag("reason", "expired")
+                .register(meterRegistry);
+
+        Gauge.builder("quiz.sessions.live", recordRepository,
+                        repo -> repo.countByExpiresAtAfter(LocalDateTime.now()))
+                .description("Quiz sessions currently held")
+                .register(meterRegistry);
+
+        log.info("📋 Quiz sessions kept in quiz_session table: ttl={}min", ttlMinutes);
+    }
+
+    @Override
+    public void save(QuizSession session) {
+        LocalDateTime createdAt = LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(session.getCreatedAt()), ZoneId.systemDefault());
+
+        QuizSessionRecord record = new QuizSessionRecord();
+        record.setSessionId(session.getSessionId());
+        record.setUserId(session.getUserId());
+        record.setPayload(toJson(session));
+        record.setCreatedAt(createdAt);
+        record.setExpiresAt(createdAt.plusMinutes(ttlMinutes));
+
+        recordRepository.save(record);
+    }
+
+    @Override
+    public Optional<QuizSession> find(String sessionId) {
+        return recordRepository.findPayload(sessionId, LocalDateTime.now())
+                .map(stored -> fromJson(stored.getPayload()));
+    }
+
+    @Override
+    public Optional<QuizSession> update(String sessionId, Predicate<QuizSession> mutation) {
+        for (int attempt = 1; ; attempt++) {
+            Optional<QuizSessionRecordRepository.VersionedPayload> stored =
+                    recordRepository.findPayload(sessionId, LocalDateTime.now());
+            if (stored.isEmpty()) {
+                return Optional.empty();
+            }
+
+            QuizSession session = fromJson(stored.get().getPayload());
+            if (!mutation.test(session)) {
+                return Optional.empty();
+            }
+
+            if (recordRepository.compareAndSet(sessionId, stored.get().getVersion(), toJson(session)) > 0) {
+                return Optional.of(session);
+            }
+
+            if (attempt >= MAX_UPDATE_ATTEMPTS) {
+                throw new OptimisticLockingFailureException(
+                        "Quiz session " + sessionId + " kept changing during update");
+            }
+            log.debug("Quiz session {} changed concurrently, retrying update (attempt {})", sessionId, attempt);
+        }
+    }
+
+    @Override
+    public void remove(String sessionId) {
+        recordRepository.deleteBySessionId(sessionId);
+    }
+
+    @Override
+    public int purgeExpired() {
+        int purged = recordRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            expiredCounter.increment(purged);
+            log.debug("Purged {} expired quiz sessions", purged);
+        }
+        return purged;
+    }
+
+    /**
+     * 定期清理過期會話
+     */
+    @Scheduled(fixedDelayString = "${learning.quiz.session.purge-interval-ms:60000}")
+    @SingleNodeJob(name = "quiz-session-purge", leaseSeconds = 60)
+    public void purgeExpiredSessions() {
+        purgeExpired();
+    }
+
+    private String toJson(QuizSession session) {
+        try {
+            return objectMapper.writeValueAsString(session);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize quiz session " + session.getSessionId(), e);
+        }
+    }
+
+    private QuizSession fromJson(String payload) {
+        try {
+            return objectMapper.readValue(payload, QuizSession.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to deserialize quiz session", e);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.wordrecommend_backend.service;
+
+import com.example.wordrecommend_backend.entity.ScheduledJobLock;
+import com.example.wordrecommend_backend.repository.ScheduledJobLockRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 定時任務鎖服務（叢集中每個任務同時只有一個節點執行）
+ *
+ * 設計理念：
+ * - 每個任務在 scheduled_job_lock 有一筆資料，locked_by / locked_until 為租約
+ * - 取得租約為單一條件式 UPDATE（未持有或已到期才成功），不依賴資料庫特有的 advisory lock，H2 也能測試
+ * - 執行期間每 lease / 3 以心跳延長租約；節點當機時租約到期，下一次排程由其他節點接手
+ * - 心跳發現租約已被其他節點接手時標記為遺失，長時間任務以 isLeaseLost 在工作單位之間檢查並中止
+ * - 執行結束後釋放租約，並記錄節點、開始 / 結束時間、耗時與結果
+ *
+ * 交易：
+ * - 取得、心跳、釋放各自在獨立的短交易（REQUIRES_NEW）中提交，不受任務本身的交易影響
+ *
+ * 注意：
+ * - 租約時間以各節點時鐘計算，租約長度應遠大於節點間的時鐘誤差
+ */
+@Service
+@Slf4j
+public class JobLockService {
+
+    public static final String STATUS_SUCCEEDED = "SUCCEEDED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final ScheduledJobLockRepository lockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final boolean enabled;
+    private final String nodeId;
+    private final ScheduledExecutorService heartbeats;
+
+    /**
+     * 本節點執行中、但租約已被其他節點接手的任務
+     */
+    private final Set<String> lostLeases = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public JobLockService(
+            ScheduledJobLockRepository lockRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${learning.jobs.lock.enabled:true}") boolean enabled,
+            @Value("${learning.jobs.node-id:}") String nodeId) {
+
+        this(lockRepository, transactionManager, Clock.systemDefaultZone(), enabled, nodeId);
+    }
+
+    JobLockService(ScheduledJobLockRepository lockRepository,
+                   PlatformTransactionManager transactionManager,
+                   Clock clock,
+                   boolean enabled,
+                   String nodeId) {
+
+        this.lockRepository = lockRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.clock = clock;
+        this.enabled = enabled;
+        this.nodeId = nodeId == null || nodeId.isBlank() ? defaultNodeId() : nodeId;
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "job-lock-heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    // ==================== 執行 ====================
+
+    /**
+     * 取得租約後執行任務；其他節點持有中時不執行
+     *
+     * @param jobName 任務名稱
+     * @param lease 租約長度（心跳間隔為 lease / 3）
+     * @param job 任務內容（例外會記錄為 FAILED 後再拋出）
+     * @return 是否有執行
+     */
+    public boolean runExclusive(String jobName, Duration lease, Runnable job) {
+        if (!enabled) {
+            job.run();
+            return true;
+        }
+
+        if (!tryAcquire(jobName, lease)) {
+            log.debug("⏭️ 任務 {} 由其他節點執行中，略過（node={}）", jobName, nodeId);
+            return false;
+        }
+
+        log.debug("🔒 任務 {} 取得租約（node={}, lease={}）", jobName, nodeId, lease);
+        lostLeases.remove(jobName);
+
+        long heartbeatMs = Math.max(1, lease.toMillis() / 3);
+        ScheduledFuture<?> heartbeat = heartbeats.scheduleAtFixedRate(
+                () -> heartbeat(jobName, lease), heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+
+        long start = System.currentTimeMillis();
+        String status = STATUS_FAILED;
+        String error = null;
+
+        try {
+            job.run();
+            status = STATUS_SUCCEEDED;
+            return true;
+
+        } catch (RuntimeException | Error e) {
+            error = truncate(e.toString());
+            throw e;
+
+        } finally {
+            heartbeat.cancel(false);
+            lostLeases.remove(jobName);
+            release(jobName, System.currentTimeMillis() - start, status, error);
+        }
+    }
+
+    /**
+     * 執行中的任務租約是否已被其他節點接手（任務應盡快在工作單位之間中止）
+     *
+     * 未啟用任務鎖或任務未在本節點執行時返回 false
+     */
+    public boolean isLeaseLost(String jobName) {
+        return lostLeases.contains(jobName);
+    }
+
+    /**
+     * 所有任務的鎖與最後執行結果（管理端檢視）
+     */
+    public List<ScheduledJobLock> findAll() {
+        return lockRepository.findAll();
+    }
+
+    // ==================== 租約 ====================
+
+    boolean tryAcquire(String jobName, Duration lease) {
+        ensureLockRow(jobName);
+
+        Integer acquired = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now(clock);
+            return lockRepository.tryAcquire(jobName, nodeId, now, now.plus(lease));
+        });
+        return acquired != null && acquired > 0;
+    }
+
+    /**
+     * 第一次執行時建立任務鎖列（獨立交易：主鍵衝突不影響後續的取得租約）
+     */
+    private void ensureLockRow(String jobName) {
+        if (lockRepository.existsById(jobName)) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(tx -> lockRepository.insertIfAbsent(jobName));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("任務 {} 的鎖列已由其他節點建立", jobName);
+        }
+    }
+
+    void heartbeat(String jobName, Duration lease) {
+        try {
+            Integer extended = transactionTemplate.execute(status -> {
+                LocalDateTime now = LocalDateTime.now(clock);
+                return lockRepository.extend(jobName, nodeId, now, now.plus(lease));
+            });
+
+            if (extended == null || extended == 0) {
+                lostLeases.add(jobName);
+                log.warn("⚠️ 任務 {} 的租約已被其他節點接手，通知任務中止（node={}）", jobName, nodeId);
+            }
+        } catch (Exception e) {
+            log.warn("⚠️ 任務 {} 心跳失敗: {}", jobName, e.getMessage());
+        }
+    }
+
+    private void release(String jobName, long durationMs, String status, String error) {
+        try {
+            transactionTemplate.executeWithoutResult(tx -> lockRepository.release(
+                    jobName, nodeId, LocalDateTime.now(clock), durationMs, status, error));
+
+            log.debug("🔓 任務 {} 釋放租約: {}, {} ms", jobName, status, durationMs);
+
+        } catch (Exception e) {
+            // 釋放失敗時租約會自然到期
+            log.error("❌ 任務 {} 釋放租約失敗: {}", jobName, e.getMessage(), e);
+        }
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        return host + ":" + ManagementFactory.getRuntimeMXBean().getPid() + ":"
+                + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
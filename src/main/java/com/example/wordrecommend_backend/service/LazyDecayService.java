@@ -0,0 +1,104 @@
+package com.example.wordrecommend_backend.service;
+
+import com.example.wordrecommend_backend.config.DecayConfig;
+import com.example.wordrecommend_backend.dto.ReviewCandidate;
+import com.example.wordrecommend_backend.entity.WordState;
+import com.example.wordrecommend_backend.util.TimeUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 延遲衰減服務（learning.decay.mode=lazy）
+ *
+ * 設計理念：
+ * - WordState 的 (memory_strength, last_review_time) 視為「某時間點的強度」
+ * - 讀取時（推薦、複習、統計）推算衰減後的強度與狀態，不寫回
+ * - 實際互動（閱讀、答題）時先落實衰減，再套用本次增益並寫回
+ * - 取代每日凌晨改寫所有 WordState 的批次任務
+ *
+ * 每日衰減模式下所有方法皆為原樣傳回
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LazyDecayService {
+
+    private final DecayConfig decayConfig;
+    private final AlgorithmCoreService algorithmCoreService;
+
+    public boolean isEnabled() {
+        return decayConfig.isLazy();
+    }
+
+    /**
+     * 將推算的衰減寫入實體（互動的寫入路徑在套用演算法前呼叫）
+     *
+     * last_review_time 改為最後一次衰減的時間，與每日衰減任務寫回的結果相同
+     *
+     * @return 是否有變化
+     */
+    public boolean materialize(WordState state, LocalDateTime now) {
+        if (!isEnabled() || state.getLastReviewTime() == null) {
+            return false;
+        }
+
+        AlgorithmCoreService.DecayedStrength decayed = algorithmCoreService.projectNightlyDecay(
+                state.getCurrentState(),
+                state.getMemoryStrength() == null ? 0.0 : state.getMemoryStrength(),
+                Boolean.TRUE.equals(state.getHasEverLearned()),
+                state.getLastReviewTime(),
+                now
+        );
+
+        if (decayed.anchor().equals(state.getLastReviewTime())) {
+            return false;
+        }
+
+        log.debug("Lazy decay materialized: strength {} → {}, state {} → {}",
+                state.getMemoryStrength(), decayed.strength(), state.getCurrentState(), decayed.state());
+
+        state.setMemoryStrength(decayed.strength());
+        state.setCurrentState(decayed.state());
+        state.setLastReviewTime(decayed.anchor());
+        return true;
+    }
+
+    /**
+     * 推算複習候選衰減後的強度與狀態（不寫回）
+     */
+    public ReviewCandidate project(ReviewCandidate candidate, LocalDateTime now) {
+        if (!isEnabled()) {
+            return candidate;
+        }
+
+        AlgorithmCoreService.DecayedStrength decayed = algorithmCoreService.projectNightlyDecay(
+                candidate.state(),
+                candidate.memoryStrength(),
+                candidate.hasEverLearned(),
+                TimeUtil.fromEpochMillis(candidate.lastReviewEpochMs()),
+                now
+        );
+
+        return candidate.withDecay(decayed.strength(), decayed.state(), TimeUtil.toEpochMillis(decayed.anchor()));
+    }
+
+    /**
+     * 批次推算（保持原順序）
+     */
+    public List<ReviewCandidate> project(List<ReviewCandidate> candidates, LocalDateTime now) {
+        if (!isEnabled()) {
+            return candidates;
+        }
+
+        List<ReviewCandidate> projected = new ArrayList<>(candidates.size());
+        for (ReviewCandidate c : candidates) {
+            projected.add(project(c, now));
+        }
+        return projected;
+    }
+}
@@ -0,0 +1,290 @@
+package com.example.wordrecommend_backend.service;
+
+import com.example.wordrecommend_backend.dto.ReviewCandidate;
+import com.example.wordrecommend_backend.entity.User;
+import com.example.wordrecommend_backend.entity.UserLearningSummary;
+import com.example.wordrecommend_backend.repository.UserLearningSummaryRepository;
+import com.example.wordrecommend_backend.repository.UserRepository;
+import com.example.wordrecommend_backend.repository.WordStateRepository;
+import com.example.wordrecommend_backend.repository.WordStateRepositoryCustom;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 使用者學習狀態統計服務
+ *
+ * 設計理念：
+ * - 讀取：單次主鍵查詢 user_learning_summary
+ * - 寫入：每次 FSM 狀態轉移時，在同一交易內以原子 UPDATE 增量調整
+ * - 修復：rebuild 由 word_state 重新彙總
+ *
+ * 建立時機：
+ * - 使用者第一次發生狀態轉移時建立（由 word_state 彙總，含本次轉移）
+ * - 尚未建立統計列的使用者，讀取時暫以 GROUP BY 計算（不寫入）
+ *
+ * 延遲衰減模式：
+ * - 計數表只反映保存的狀態；讀取時再加上推算衰減造成的狀態變化
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LearningSummaryService {
+
+    private final UserLearningSummaryRepository summaryRepository;
+    private final WordStateRepository wordStateRepository;
+    private final UserRepository userRepository;
+    private final LazyDecayService lazyDecayService;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 會隨時間衰減的狀態（S0 / S-1 的衰減幅度為 0）
+     */
+    private static final List<String> DECAYING_STATES = List.of("S1", "S2", "S3");
+
+    /**
+     * rebuildAll 每頁取得的使用者數
+     */
+    private static final int REBUILD_PAGE_SIZE = 500;
+
+    // ==================== 讀取 ====================
+
+    /**
+     * 取得使用者的學習狀態統計
+     *
+     * @param user 目標使用者
+     * @return 統計資料（未建立時回傳即時計算、未保存的物件）
+     */
+    @Transactional(readOnly = true)
+    public UserLearningSummary getSummary(User user) {
+        UserLearningSummary stored = summaryRepository.findById(user.getId())
+                .orElseGet(() -> {
+                    log.debug("Learning summary missing for user {}, aggregating from word_state", user.getId());
+                    return aggregate(user);
+                });
+
+        return lazyDecayService.isEnabled() ? withLazyDecay(user, stored) : stored;
+    }
+
+    // ==================== 增量更新 ====================
+
+    /**
+     * 記錄一次狀態轉移
+     *
+     * @param user 使用者
+     * @param fromState 原狀態（新建立的 WordState 傳 null）
+     * @param toState 新狀態
+     */
+    @Transactional
+    public void recordTransition(User user, String fromState, String toState) {
+        StateDelta delta = new StateDelta();
+        delta.record(fromState, toState);
+        recordTransitions(user, delta);
+    }
+
+    /**
+     * 一次套用多筆狀態轉移（衰減任務用，每位使用者一次 UPDATE）
+     */
+    @Transactional
+    public void recordTransitions(User user, StateDelta delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int updated = summaryRepository.applyDelta(
+                user.getId(), delta.s0, delta.forgotten, delta.s1, delta.s2, delta.s3, now);
+
+        if (updated > 0) {
+            return;
+        }
+
+        // 統計列不存在：由本交易建立者負責彙總（彙總結果已包含本次轉移）
+        if (summaryRepository.insertIfAbsent(user.getId(), now) > 0) {
+            overwrite(user, aggregate(user), now);
+            log.debug("Learning summary created for user {}", user.getId());
+        } else {
+            // 其他交易剛建立，改為增量更新
+            summaryRepository.applyDelta(
+                    user.getId(), delta.s0, delta.forgotten, delta.s1, delta.s2, delta.s3, now);
+        }
+    }
+
+    // ==================== 重建（資料修復）====================
+
+    /**
+     * 由 word_state 重建單一使用者的統計
+     */
+    @Transactional
+    public UserLearningSummary rebuild(User user) {
+        LocalDateTime now = LocalDateTime.now();
+        summaryRepository.insertIfAbsent(user.getId(), now);
+
+        UserLearningSummary summary = aggregate(user);
+        overwrite(user, summary, now);
+        return summary;
+    }
+
+    /**
+     * 重建所有使用者的統計
+     *
+     * 以 ID 遊標分頁取得使用者，每位使用者各自在一個短交易內重建，
+     * 避免整批重建長時間持有同一個交易與連線
+     *
+     * @return 重建的使用者數
+     */
+    public int rebuildAll() {
+        log.info("🔵 開始重建學習統計");
+        long startTime = System.currentTimeMillis();
+
+        int rebuilt = 0;
+        long afterId = 0L;
+
+        while (true) {
+            // 分片數 1 = 不分片，只使用 keyset 分頁
+            List<Long> userIds = userRepository.findIdsInShardAfter(
+                    afterId, 1, 0, PageRequest.of(0, REBUILD_PAGE_SIZE));
+            if (userIds.isEmpty()) {
+                break;
+            }
+
+            for (Long userId : userIds) {
+                transactionTemplate.executeWithoutResult(
+                        status -> rebuild(userRepository.getReferenceById(userId)));
+                rebuilt++;
+            }
+
+            afterId = userIds.get(userIds.size() - 1);
+        }
+
+        log.info("✅ 學習統計重建完成: {} 個使用者, 耗時 {} ms",
+                rebuilt, System.currentTimeMillis() - startTime);
+
+        return rebuilt;
+    }
+
+    /**
+     * 由 word_state 重新計數一段使用者的統計（集合式衰減後呼叫，須在交易內）
+     *
+     * @return 更新的統計列數
+     */
+    public int recountUserRange(WordStateRepositoryCustom.UserSlice slice) {
+        return summaryRepository.recountUserRange(
+                slice.fromUserId(), slice.toUserId(), slice.shardCount(), slice.shard(), LocalDateTime.now());
+    }
+
+    // ==================== 私有方法 ====================
+
+    /**
+     * 由 word_state 彙總（JPQL 查詢會先 flush 本交易尚未寫入的 WordState）
+     */
+    private UserLearningSummary aggregate(User user) {
+        UserLearningSummary summary = new UserLearningSummary();
+        summary.setUserId(user.getId());
+        summary.setUpdatedAt(LocalDateTime.now());
+
+        for (Object[] row : wordStateRepository.countByUserGroupByState(user)) {
+            String state = (String) row[0];
+            Long count = (Long) row[1];
+
+            switch (state) {
+                case "S0":  summary.setCountS0(count); break;
+                case "S-1": summary.setCountForgotten(count); break;
+                case "S1":  summary.setCountS1(count); break;
+                case "S2":  summary.setCountS2(count); break;
+                case "S3":  summary.setCountS3(count); break;
+                default:
+                    log.warn("⚠️ 未知的 FSM 狀態: {}, 不列入統計", state);
+            }
+        }
+
+        return summary;
+    }
+
+    /**
+     * 延遲衰減模式：計數表記錄的是「保存的狀態」，加上推算衰減造成的狀態變化後回傳（不寫回）
+     *
+     * 成本為該使用者 S1 / S2 / S3 單字數的一次投影查詢
+     */
+    private UserLearningSummary withLazyDecay(User user, UserLearningSummary stored) {
+        LocalDateTime now = LocalDateTime.now();
+        StateDelta delta = new StateDelta();
+
+        for (ReviewCandidate c : wordStateRepository.findReviewCandidates(user, DECAYING_STATES, Pageable.unpaged())) {
+            delta.record(c.state(), lazyDecayService.project(c, now).state());
+        }
+
+        // 回傳新物件：stored 可能是 managed 實體，修改會在外層讀寫交易中被 flush
+        UserLearningSummary effective = new UserLearningSummary();
+        effective.setUserId(stored.getUserId());
+        effective.setCountS0(stored.getCountS0() + delta.s0);
+        effective.setCountForgotten(stored.getCountForgotten() + delta.forgotten);
+        effective.setCountS1(stored.getCountS1() + delta.s1);
+        effective.setCountS2(stored.getCountS2() + delta.s2);
+        effective.setCountS3(stored.getCountS3() + delta.s3);
+        effective.setUpdatedAt(now);
+        return effective;
+    }
+
+    private void overwrite(User user, UserLearningSummary summary, LocalDateTime now) {
+        summaryRepository.overwriteCounts(
+                user.getId(),
+                summary.getCountS0(),
+                summary.getCountForgotten(),
+                summary.getCountS1(),
+                summary.getCountS2(),
+                summary.getCountS3(),
+                now
+        );
+    }
+
+    // ==================== 狀態轉移累計 ====================
+
+    /**
+     * 各狀態數量的變化量
+     */
+    public static class StateDelta {
+        private long s0;
+        private long forgotten;
+        private long s1;
+        private long s2;
+        private long s3;
+
+        /**
+         * 累計一次轉移（fromState 為 null 表示新建立）
+         */
+        public void record(String fromState, String toState) {
+            if (Objects.equals(fromState, toState)) {
+                return;
+            }
+            add(fromState, -1);
+            add(toState, 1);
+        }
+
+        public boolean isEmpty() {
+            return s0 == 0 && forgotten == 0 && s1 == 0 && s2 == 0 && s3 == 0;
+        }
+
+        private void add(String state, long amount) {
+            if (state == null) {
+                return;
+            }
+            switch (state) {
+                case "S0":  s0 += amount; break;
+                case "S-1": forgotten += amount; break;
+                case "S1":  s1 += amount; break;
+                case "S2":  s2 += amount; break;
+                case "S3":  s3 += amount; break;
+                default:    break;
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.wordrecommend_backend.service;
+
+import com.example.wordrecommend_backend.entity.NewWordCursor;
+import com.example.wordrecommend_backend.entity.User;
+import com.example.wordrecommend_backend.entity.Word;
+import com.example.wordrecommend_backend.repository.NewWordCursorRepository;
+import com.example.wordrecommend_backend.util.CompressedBitmap;
+import com.example.wordrecommend_backend.util.SeededPermutation;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * 新單字游標服務（取代 ORDER BY random() 的新單字抽樣）
+ *
+ * 設計理念：
+ * - 每位使用者、每個 CEFR 等級有一個固定種子的偽隨機排列
+ * - 從游標位置開始依序走訪排列，跳過已學過的單字，取 k 個即停止
+ * - 取 k 個新單字的成本為 O(k)（加上少量被跳過的已學單字），不需資料庫排序
+ * - 游標存在資料庫，重啟或切換節點後順序不變
+ *
+ * 游標推進：
+ * - 只有「排列開頭連續已學過」的部分會被推進（低水位）
+ * - 推薦過但尚未閱讀的單字仍會留在原位，下次推薦時再次出現
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NewWordCursorService {
+
+    private final NewWordCursorRepository cursorRepository;
+    private final WordCatalogService wordCatalogService;
+
+    /**
+     * 依各等級配額挑選新單字
+     *
+     * @param user 目標使用者
+     * @param levelCounts 各 CEFR 等級需要的數量
+     * @param touchedWords 使用者已接觸單字點陣圖（稠密索引）
+     * @return 新單字列表（依等級順序）
+     */
+    @Transactional
+    public List<Word> pickNewWords(User user, Map<String, Integer> levelCounts, CompressedBitmap touchedWords) {
+        List<Word> result = new ArrayList<>();
+
+        if (levelCounts.values().stream().noneMatch(c -> c != null && c > 0)) {
+            return result;
+        }
+
+        WordCatalogService.Snapshot snapshot = wordCatalogService.currentSnapshot();
+        Map<String, NewWordCursor> cursors = loadCursors(user, levelCounts.keySet(), snapshot);
+        LocalDateTime now = LocalDateTime.now();
+
+        for (Map.Entry<String, Integer> e : levelCounts.entrySet()) {
+            int take = e.getValue() == null ? 0 : e.getValue();
+            if (take <= 0) continue;
+
+            int[] pool = snapshot.byLevel.get(e.getKey());
+            NewWordCursor cursor = cursors.get(e.getKey());
+            if (pool == null || pool.length == 0 || cursor == null) continue;
+
+            result.addAll(walk(cursor, pool, snapshot, take, touchedWords, now));
+        }
+
+        return result;
+    }
+
+    /**
+     * 從游標位置開始走訪排列
+     */
+    private List<Word> walk(NewWordCursor cursor,
+                            int[] pool,
+                            WordCatalogService.Snapshot snapshot,
+                            int take,
+                            CompressedBitmap touchedWords,
+                            LocalDateTime now) {
+
+        // 目錄變動：排列定義域改變，游標歸零
+        if (cursor.getCatalogSize() != pool.length) {
+            log.debug("Catalog size changed for level {} ({} → {}), resetting cursor",
+                    cursor.getId().getCefrLevel(), cursor.getCatalogSize(), pool.length);
+            cursor.setCatalogSize(pool.length);
+            cursor.setPosition(0);
+            cursor.setUpdatedAt(now);
+        }
+
+        SeededPermutation permutation = new SeededPermutation(pool.length, cursor.getSeed());
+        List<Word> picked = new ArrayList<>(take);
+
+        int start = Math.min(cursor.getPosition(), pool.length);
+        int lowWaterMark = start;
+        boolean prefixTouched = true;
+
+        for (int i = start; i < pool.length && picked.size() < take; i++) {
+            int denseIndex = pool[permutation.apply(i)];
+
+            if (touchedWords.contains(denseIndex)) {
+                if (prefixTouched) {
+                    lowWaterMark = i + 1;
+                }
+                continue;
+            }
+
+            prefixTouched = false;
+            picked.add(snapshot.words[denseIndex]);
+        }
+
+        if (lowWaterMark != cursor.getPosition()) {
+            cursor.setPosition(lowWaterMark);
+            cursor.setUpdatedAt(now);
+        }
+
+        log.trace("Level {} cursor: start={}, lowWaterMark={}, picked={}",
+                cursor.getId().getCefrLevel(), start, lowWaterMark, picked.size());
+
+        return picked;
+    }
+
+    /**
+     * 載入使用者游標，缺少的等級以隨機種子建立
+     */
+    private Map<String, NewWordCursor> loadCursors(User user,
+                                                   Collection<String> levels,
+                                                   WordCatalogService.Snapshot snapshot) {
+
+        Map<String, NewWordCursor> cursors = cursorRepository.findByUserId(user.getId()).stream()
+                .collect(Collectors.toMap(c -> c.getId().getCefrLevel(), c -> c));
+
+        boolean created = false;
+        for (String level : levels) {
+            if (cursors.containsKey(level)) continue;
+
+            int[] pool = snapshot.byLevel.get(level);
+            cursorRepository.insertIfAbsent(
+                    user.getId(),
+                    level,
+                    ThreadLocalRandom.current().nextLong(),
+                    pool == null ? 0 : pool.length,
+                    LocalDateTime.now()
+            );
+            created = true;
+        }
+
+        if (created) {
+            log.debug("Created new-word cursors for user {}", user.getId());
+            cursors = cursorRepository.findByUserId(user.getId()).stream()
+                    .collect(Collectors.toMap(c -> c.getId().getCefrLevel(), c -> c));
+        }
+
+        return cursors;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.wordrecommend_backend.service;
 
+import com.example.wordrecommend_backend.aspect.SingleNodeJob;
 import com.example.wordrecommend_backend.repository.PasswordResetTokenRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -70,8 +71,12 @@ public class PasswordResetTokenCleanupService {
      * - 如果清理失敗，記錄錯誤日誌
      * - 不影響應用程式運行
      * - 下次執行時會重試
+     *
+     * 多節點：
+     * - 只由取得 scheduled_job_lock 租約的節點執行
      */
     @Scheduled(cron = "0 0 2 * * ?") // 每天凌晨 2 點執行
+    @SingleNodeJob(name = "password-reset-token-cleanup")
     @Transactional
     public void cleanupExpiredTokens() {
 
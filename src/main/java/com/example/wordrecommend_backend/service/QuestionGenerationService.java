@@ -4,16 +4,14 @@ import com.example.wordrecommend_backend.dto.QuestionDTO;
 import com.example.wordrecommend_backend.dto.QuestionOptionDTO;
 import com.example.wordrecommend_backend.entity.Word;
 import com.example.wordrecommend_backend.entity.WordState;
-import com.example.wordrecommend_backend.repository.WordRepository;
-import com.example.wordrecommend_backend.repository.WordStateRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
@@ -33,8 +31,12 @@ import java.util.stream.Collectors;
 @Slf4j
 public class QuestionGenerationService {
 
-    private final WordRepository wordRepository;
-    private final WordStateRepository wordStateRepository;
+    private final WordCatalogService wordCatalogService;
+
+    /**
+     * 題目 ID 產生器（同一題組中的題目 ID 不可重複，作為答案的鍵）
+     */
+    private final AtomicLong questionIds = new AtomicLong(System.nanoTime());
 
     // ==================== 公開方法：生成題目 ====================
 
@@ -53,8 +55,74 @@ public class QuestionGenerationService {
      */
     @Transactional(readOnly = true)
     public QuestionDTO generateQuestion(WordState wordState, org.springframework.security.core.Authentication auth) {
+        return generateQuestion(wordState, wordState.getWord());
+    }
+
+    /**
+     * 一次生成整個複習會話的題組（開始複習時呼叫）
+     *
+     * - 單字內容取自記憶體目錄（只讀取 WordState 的 word id，不初始化延遲載入的 Word）
+     * - 干擾選項同樣從目錄抽樣，整個過程不存取資料庫
+     * - 題型依建立當下的記憶強度決定（同一會話中每個單字只出現一次）
+     *
+     * @param wordStates 依出題順序排列的單字狀態
+     * @return 與 wordStates 順序相同的題目
+     */
+    public List<QuestionDTO> generateDeck(List<WordState> wordStates) {
+        List<QuestionDTO> deck = new ArrayList<>(wordStates.size());
 
-        Word word = wordState.getWord();
+        for (WordState wordState : wordStates) {
+            Word word = wordCatalogService.getById(wordState.getWord().getId());
+            deck.add(generateQuestion(wordState, word));
+        }
+
+        log.debug("✅ 題組生成完成: {} 題", deck.size());
+
+        return deck;
+    }
+
+    /**
+     * 建立題組的答案（以 questionId 為鍵，與題組一起保存在會話中）
+     *
+     * @param deck generateDeck 產生的題組
+     * @return questionId → 答案（依題組順序）
+     */
+    public Map<Long, AnswerKey> answerKeys(List<QuestionDTO> deck) {
+        Map<Long, AnswerKey> keys = new LinkedHashMap<>();
+
+        for (int i = 0; i < deck.size(); i++) {
+            QuestionDTO question = deck.get(i);
+            Word word = wordCatalogService.getById(question.getWordId());
+            String translation = word.getTranslation().trim();
+
+            List<Long> accepted = new ArrayList<>();
+            if (question.getOptions() != null) {
+                for (QuestionOptionDTO option : question.getOptions()) {
+                    boolean sameTranslation = "EASY".equals(question.getQuestionType())
+                            && translation.equals(option.getContent() == null ? null : option.getContent().trim());
+                    if (Boolean.TRUE.equals(option.getIsCorrect()) || sameTranslation) {
+                        accepted.add(option.getId());
+                    }
+                }
+            }
+
+            keys.put(question.getQuestionId(), new AnswerKey(
+                    question.getQuestionId(),
+                    word.getId(),
+                    question.getQuestionType(),
+                    i,
+                    question.getCorrectAnswerId(),
+                    word.getTranslation(),
+                    word.getWordText(),
+                    accepted,
+                    false
+            ));
+        }
+
+        return keys;
+    }
+
+    private QuestionDTO generateQuestion(WordState wordState, Word word) {
         Double memoryStrength = wordState.getMemoryStrength();
         String currentState = wordState.getCurrentState();
 
@@ -70,13 +138,13 @@ public class QuestionGenerationService {
 
         switch (questionType) {
             case "EASY":
-                question = generateEasyQuestion(wordState);
+                question = generateEasyQuestion(wordState, word);
                 break;
             case "NORMAL":
-                question = generateNormalQuestion(wordState);
+                question = generateNormalQuestion(wordState, word);
                 break;
             case "HARD":
-                question = generateHardQuestion(wordState);
+                question = generateHardQuestion(wordState, word);
                 break;
             default:
                 throw new RuntimeException("Unknown question type: " + questionType);
@@ -137,11 +205,11 @@ public class QuestionGenerationService {
      * 4. 返回 QuestionDTO
      *
      * @param wordState 主題單字的狀態
+     * @param word 主題單字
      * @return 簡單題 DTO
      */
-    private QuestionDTO generateEasyQuestion(WordState wordState) {
+    private QuestionDTO generateEasyQuestion(WordState wordState, Word word) {
 
-        Word word = wordState.getWord();
         String partOfSpeech = word.getPartOfSpeech();
 
         log.debug("🟢 生成簡單題: word='{}', pos={}", word.getWordText(), partOfSpeech);
@@ -196,11 +264,11 @@ public class QuestionGenerationService {
      * Options: [apple(✓), orange, banana, grape]
      *
      * @param wordState 主題單字的狀態
+     * @param word 主題單字
      * @return 普通題 DTO
      */
-    private QuestionDTO generateNormalQuestion(WordState wordState) {
+    private QuestionDTO generateNormalQuestion(WordState wordState, Word word) {
 
-        Word word = wordState.getWord();
         String partOfSpeech = word.getPartOfSpeech();
 
         log.debug("🟢 生成普通題: word='{}', pos={}", word.getWordText(), partOfSpeech);
@@ -255,11 +323,10 @@ public class QuestionGenerationService {
      * 無選項，使用者需要輸入英文單字
      *
      * @param wordState 主題單字的狀態
+     * @param word 主題單字
      * @return 困難題 DTO
      */
-    private QuestionDTO generateHardQuestion(WordState wordState) {
-
-        Word word = wordState.getWord();
+    private QuestionDTO generateHardQuestion(WordState wordState, Word word) {
 
         log.debug("🟢 生成困難題: word='{}', translation='{}'",
                 word.getWordText(), word.getTranslation());
@@ -304,60 +371,15 @@ public class QuestionGenerationService {
         log.debug("🟡 生成干擾選項: word='{}', count={}, language={}",
                 mainWord.getWordText(), count, language);
 
-        String partOfSpeech = mainWord.getPartOfSpeech();
-        Double complexity = mainWord.getComplexityScore();
-
-        // ========== 步驟 1：定義難度範圍 ==========
-        Double complexityMin = complexity - 0.2;
-        Double complexityMax = complexity + 0.2;
-
-        log.trace("難度範圍: [{:.2f}, {:.2f}]", complexityMin, complexityMax);
-
-        // ========== 步驟 2：查詢候選單字 ==========
-        // 同詞性 + 難度相近 + 非主題單字
-        List<Word> candidates = wordRepository.findCandidateDistractors(
-                partOfSpeech,
-                complexityMin,
-                complexityMax,
+        // ========== 步驟 1-3：從記憶體目錄抽樣（同詞性、難度 ±0.2 → ±0.4 → 不限難度） ==========
+        List<Word> candidates = wordCatalogService.sampleDistractors(
+                mainWord.getPartOfSpeech(),
+                mainWord.getComplexityScore(),
                 mainWord.getId(),
-                PageRequest.of(0, count * 5)  // 查詢超額，以便選擇
+                count
         );
 
-        log.debug("候選單字數量: {} (requested: {}, page size: {})",
-                candidates.size(), count, count * 5);
-
-        // ========== 步驟 3：降級策略 ==========
-        if (candidates.size() < count) {
-            log.warn("⚠️ 候選單字不足 ({}/{}), 嘗試降級策略", candidates.size(), count);
-
-            // 降級 1：擴大難度範圍
-            List<Word> backup1 = wordRepository.findCandidateDistractors(
-                    partOfSpeech,
-                    complexity - 0.4,
-                    complexity + 0.4,
-                    mainWord.getId(),
-                    PageRequest.of(0, count * 5)
-            );
-
-            if (backup1.size() > candidates.size()) {
-                candidates = backup1;
-                log.debug("✅ 降級 1 成功: 擴大難度範圍，候選數 {}", candidates.size());
-            }
-
-            // 降級 2：移除難度限制
-            if (candidates.size() < count) {
-                List<Word> backup2 = wordRepository.findWordsByPartOfSpeech(
-                        partOfSpeech,
-                        mainWord.getId(),
-                        PageRequest.of(0, count * 5)
-                );
-
-                if (backup2.size() > candidates.size()) {
-                    candidates = backup2;
-                    log.debug("✅ 降級 2 成功: 移除難度限制，候選數 {}", candidates.size());
-                }
-            }
-        }
+        log.debug("候選單字數量: {} (requested: {})", candidates.size(), count);
 
         // ========== 步驟 4：隨機選擇 N 個 ==========
         Collections.shuffle(candidates);
@@ -417,6 +439,6 @@ public class QuestionGenerationService {
      * @return 唯一的題目 ID
      */
     private Long generateQuestionId() {
-        return System.nanoTime();
+        return questionIds.incrementAndGet();
     }
 }
\ No newline at end of file
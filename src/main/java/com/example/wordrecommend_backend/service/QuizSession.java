@@ -0,0 +1,115 @@
+package com.example.wordrecommend_backend.service;
+
+import com.example.wordrecommend_backend.dto.QuestionDTO;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 複習會話
+ *
+ * 由 QuizSessionStore 保存；JDBC 後端以 JSON 序列化，欄位需可由 Jackson 讀寫
+ */
+@Data
+@NoArgsConstructor
+public class QuizSession {
+
+    private String sessionId;
+
+    private Long userId;
+
+    /**
+     * 本次會話的單字（依出題順序，不重複）
+     */
+    private List<Long> wordIds;
+
+    /**
+     * 開始複習時預先生成的題目（與 wordIds 對齊），取題時不需存取資料庫
+     */
+    private List<QuestionDTO> deck;
+
+    /**
+     * 題組中每題的答案（questionId → 答案），提交時據此判定對錯
+     */
+    private Map<Long, AnswerKey> answerKeys;
+
+    private Integer currentIndex;
+
+    /**
+     * 已一次發出的題數（GET /reviews/questions 預先取題，供離線 / 快速作答模式使用）
+     */
+    private int prefetchedCount;
+
+    /**
+     * 建立時間（epoch ms），會話存活時間由此起算
+     */
+    private Long createdAt;
+
+    /**
+     * 題組中該位置的題目是否已發出（目前的題目，或已預先取走）
+     */
+    public boolean servedAt(int position) {
+        return position <= currentIndex || position < prefetchedCount;
+    }
+
+    /**
+     * 認領題目：全部未作答時一次標記為已作答；任一題不存在或已作答則不修改
+     *
+     * @return 是否認領成功
+     */
+    public boolean claimAnswers(Collection<Long> questionIds) {
+        if (answerKeys == null) {
+            return false;
+        }
+        for (Long questionId : questionIds) {
+            AnswerKey key = answerKeys.get(questionId);
+            if (key == null || key.isAnswered()) {
+                return false;
+            }
+        }
+        for (Long questionId : questionIds) {
+            answerKeys.get(questionId).setAnswered(true);
+        }
+        return true;
+    }
+
+    /**
+     * 取消認領（評分失敗時，題目可再次提交）
+     */
+    public void releaseAnswers(Collection<Long> questionIds) {
+        if (answerKeys == null) {
+            return;
+        }
+        for (Long questionId : questionIds) {
+            AnswerKey key = answerKeys.get(questionId);
+            if (key != null) {
+                key.setAnswered(false);
+            }
+        }
+    }
+
+    /**
+     * 深層複本（可修改的部分：清單、答案與作答狀態；題目生成後不再修改，共用）
+     */
+    public QuizSession copy() {
+        QuizSession copy = new QuizSession();
+        copy.setSessionId(sessionId);
+        copy.setUserId(userId);
+        copy.setWordIds(wordIds == null ? null : new ArrayList<>(wordIds));
+        copy.setDeck(deck == null ? null : new ArrayList<>(deck));
+        if (answerKeys != null) {
+            Map<Long, AnswerKey> keys = new LinkedHashMap<>(answerKeys.size() * 2);
+            answerKeys.forEach((questionId, key) -> keys.put(questionId, key.copy()));
+            copy.setAnswerKeys(keys);
+        }
+        copy.setCurrentIndex(currentIndex);
+        copy.setPrefetchedCount(prefetchedCount);
+        copy.setCreatedAt(createdAt);
+        return copy;
+    }
+}
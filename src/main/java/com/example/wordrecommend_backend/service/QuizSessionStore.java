@@ -0,0 +1,78 @@
+package com.example.wordrecommend_backend.service;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * 複習會話儲存
+ *
+ * 實作：
+ * - memory：單節點，記憶體內有上限、依 createdAt 過期淘汰（InMemoryQuizSessionStore）
+ * - jdbc：存於 quiz_session 表，多節點共用（JdbcQuizSessionStore）
+ *
+ * 由 learning.quiz.session.store 選擇
+ *
+ * 注意：
+ * - find / update 回傳的是副本，修改副本不會影響保存的會話
+ * - 修改已存在的會話一律經由 update（讀取 → 修改 → 比對版本後寫回），並行請求不會互相覆蓋
+ * - 已過期的會話視同不存在
+ *
+ * 指標：
+ * - quiz.sessions.live：目前有效的會話數
+ * - quiz.sessions.evicted：被淘汰的會話數（reason = expired / capacity）
+ */
+public interface QuizSessionStore {
+
+    /**
+     * 新增會話
+     */
+    void save(QuizSession session);
+
+    /**
+     * 取得未過期的會話（副本）
+     */
+    Optional<QuizSession> find(String sessionId);
+
+    /**
+     * 原子地修改會話
+     *
+     * 套用 mutation 後，只有會話在此期間未被其他請求修改時才寫回；
+     * 否則重新讀取最新內容再套用一次，因此 mutation 可能執行多次，不可有外部副作用
+     *
+     * @param mutation 修改會話；回傳 false 表示放棄（不寫回）
+     * @return 寫回後的會話（副本）；會話不存在或 mutation 放棄時為 empty
+     */
+    Optional<QuizSession> update(String sessionId, Predicate<QuizSession> mutation);
+
+    /**
+     * 認領題目（檢查與標記為已作答在同一步完成，並行提交同一題時只有一個成功）
+     *
+     * @return 全部題目原本皆未作答且已標記時為 true；任一題已作答（或會話不存在）時不修改並回傳 false
+     */
+    default boolean claimAnswers(String sessionId, Collection<Long> questionIds) {
+        return update(sessionId, session -> session.claimAnswers(questionIds)).isPresent();
+    }
+
+    /**
+     * 取消認領（評分失敗時呼叫，題目可再次提交）
+     */
+    default void releaseAnswers(String sessionId, Collection<Long> questionIds) {
+        update(sessionId, session -> {
+            session.releaseAnswers(questionIds);
+            return true;
+        });
+    }
+
+    /**
+     * 移除會話（會話結束）
+     */
+    void remove(String sessionId);
+
+    /**
+     * 清除已過期的會話
+     *
+     * @return 清除數量
+     */
+    int purgeExpired();
+}
@@ -1,10 +1,16 @@
 package com.example.wordrecommend_backend.service;
 
+import com.example.wordrecommend_backend.aspect.RetryOnOptimisticLock;
+import com.example.wordrecommend_backend.aspect.SerializedPerUser;
+import com.example.wordrecommend_backend.dto.ReadEventRequest;
+import com.example.wordrecommend_backend.dto.ReviewCandidate;
 import com.example.wordrecommend_backend.dto.WordDTO;
+import com.example.wordrecommend_backend.dto.WordStateDTO;
 import com.example.wordrecommend_backend.entity.*;
-import com.example.wordrecommend_backend.repository.ReviewHistoryRepository;
-import com.example.wordrecommend_backend.repository.WordRepository;
 import com.example.wordrecommend_backend.repository.WordStateRepository;
+import com.example.wordrecommend_backend.util.CompressedBitmap;
+import com.example.wordrecommend_backend.util.TimeUtil;
+import com.example.wordrecommend_backend.util.TopKSelector;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
@@ -14,6 +20,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -22,10 +29,24 @@ import java.util.stream.Collectors;
 @Slf4j
 public class RecommendationService {
 
-    private final WordRepository wordRepository;
     private final WordStateRepository wordStateRepository;
-    private final ReviewHistoryRepository reviewHistoryRepository;
+    private final ReviewHistoryWriter reviewHistoryWriter;
     private final AlgorithmCoreService algorithmCoreService;
+    private final WordCatalogService wordCatalogService;
+    private final TouchedWordIndex touchedWordIndex;
+    private final NewWordCursorService newWordCursorService;
+    private final LearningSummaryService learningSummaryService;
+    private final LazyDecayService lazyDecayService;
+
+    /**
+     * 可複習的狀態
+     */
+    private static final List<String> REVIEWABLE_STATES = List.of("S-1", "S1", "S2", "S3");
+
+    /**
+     * 延遲衰減模式下一次載入的候選上限（與複習推薦相同）
+     */
+    private static final int MAX_LAZY_CANDIDATES = 4000;
 
     // ==================== 公開方法：推薦單字（v2.0 - Phase 5）====================
 
@@ -38,26 +59,32 @@ public class RecommendationService {
      * - 遺忘提醒（S-1 單字輕度提醒）
      * - 動態調整（根據新單字剩餘量）
      *
+     * 注意：新單字游標可能會推進，因此不是唯讀交易
+     *
      * @param user 目標使用者
      * @param limit 需要推薦的單字數量
      * @return 推薦的單字列表（包含狀態資訊）
      */
-    @Transactional(readOnly = true)
+    @Transactional
     public List<WordDTO> getWordRecommendations(User user, int limit) {
         if (limit <= 0) return Collections.emptyList();
 
         LocalDateTime currentTime = LocalDateTime.now();
 
-        // ========== 步驟 1：統計使用者的學習狀態 ==========
-        long countS_1 = wordStateRepository.countForgottenWords(user);
-        long countS1 = wordStateRepository.countByUserAndState(user, "S1");
-        long countS2 = wordStateRepository.countByUserAndState(user, "S2");
-        long countS3 = wordStateRepository.countByUserAndState(user, "S3");
+        // ========== 步驟 1：統計使用者的學習狀態（單次主鍵查詢）==========
+        UserLearningSummary summary = learningSummaryService.getSummary(user);
+        long countS_1 = summary.getCountForgotten();
+        long countS1 = summary.getCountS1();
+        long countS2 = summary.getCountS2();
+        long countS3 = summary.getCountS3();
         double totalLearned = countS_1 + countS1 + countS2 + countS3;
 
         log.info("User {} learning stats: S-1={}, S1={}, S2={}, S3={}, total={}",
                 user.getId(), countS_1, countS1, countS2, countS3, totalLearned);
 
+        // 🔑 已建立狀態的單字點陣圖（新單字 = 目錄 - 點陣圖）
+        CompressedBitmap touchedWords = touchedWordIndex.getTouchedWords(user);
+
         // ========== 步驟 2：根據學習進度和新單字剩餘量決定狀態比例 ==========
         Map<String, Double> stateRatio = new LinkedHashMap<>();
 
@@ -75,7 +102,7 @@ public class RecommendationService {
             // 進階階段：根據新單字剩餘量動態調整
 
             // 🔑 查詢新單字剩餘數量（精確查詢）
-            long availableNewWords = wordRepository.countNewWords(user);
+            long availableNewWords = Math.max(0, wordCatalogService.size() - touchedWords.cardinality());
 
             log.info("User {} has {} new words available (out of total learned: {})",
                     user.getId(), availableNewWords, (long)totalLearned);
@@ -161,39 +188,35 @@ public class RecommendationService {
 
         // ========== 步驟 5：從資料庫取出各類單字 ==========
 
-        // 5.1 取 S0 新單字（按難度等級分別取，隨機排序）
-        List<Word> s0Words = new ArrayList<>();
-        for (Map.Entry<String, Integer> e : s0LevelCounts.entrySet()) {
-            int take = e.getValue();
-            if (take <= 0) continue;
-            s0Words.addAll(wordRepository.findNewWordsByLevel(user, e.getKey(), page(take)));
-        }
+        // 5.1 取 S0 新單字（按難度等級分別取，沿使用者的固定洗牌順序走訪）
+        List<Word> s0Words = newWordCursorService.pickNewWords(user, s0LevelCounts, touchedWords);
+
+        // 延遲衰減模式：一次載入候選並依推算後的狀態分組，取代依保存狀態篩選的查詢
+        Map<String, List<ReviewCandidate>> lazyBuckets =
+                lazyDecayService.isEnabled() ? groupByDecayedState(user, currentTime) : null;
 
         // 5.2 取 S-1 單字（遺忘單字，輕度優先度排序）
         List<Word> s_1Words = fetchWordsWithPriority(
                 user, "S-1", numS_1, currentTime,
-                () -> wordStateRepository.findForgottenWords(user, PageRequest.of(0, Math.max(numS_1 * 2, 10)))
+                () -> candidatesInState(user, "S-1", Math.max(numS_1 * 2, 10), lazyBuckets)
         );
 
         // 5.3 取 S1 單字（輕度優先度排序）
         List<Word> s1Words = fetchWordsWithPriority(
                 user, "S1", numS1, currentTime,
-                () -> wordStateRepository.findByUserAndState(user, "S1", PageRequest.of(0, Math.max(numS1 * 2, 10)))
+                () -> candidatesInState(user, "S1", Math.max(numS1 * 2, 10), lazyBuckets)
         );
 
         // 5.4 取 S2 單字（輕度優先度排序）
         List<Word> s2Words = fetchWordsWithPriority(
                 user, "S2", numS2, currentTime,
-                () -> wordStateRepository.findByUserAndState(user, "S2", PageRequest.of(0, Math.max(numS2 * 2, 10)))
+                () -> candidatesInState(user, "S2", Math.max(numS2 * 2, 10), lazyBuckets)
         );
 
         // 5.5 取 S3 單字（隨機即可，已精通）
         List<Word> s3Words = new ArrayList<>();
         if (numS3 > 0) {
-            s3Words = wordStateRepository.findByUserAndState(user, "S3", page(numS3))
-                    .stream()
-                    .map(WordState::getWord)
-                    .collect(Collectors.toList());
+            s3Words = toCatalogWords(candidatesInState(user, "S3", numS3, lazyBuckets));
         }
 
         // ========== 步驟 6：合併所有單字並去重 ==========
@@ -223,7 +246,7 @@ public class RecommendationService {
 
             // 嘗試 1：補充新單字
             if (missing > 0) {
-                List<Word> extraNewWords = wordRepository.findNewWordsRandomly(user, page(missing * 2));
+                List<Word> extraNewWords = wordCatalogService.sampleAnyExcluding(missing * 2, touchedWords);
                 for (Word w : extraNewWords) {
                     if (deduped.stream().noneMatch(x -> Objects.equals(x.getId(), w.getId()))) {
                         deduped.add(w);
@@ -236,11 +259,8 @@ public class RecommendationService {
 
             // 嘗試 2：補充 S-1 遺忘單字
             if (missing > 0 && countS_1 > 0) {
-                List<WordState> extraS_1 = wordStateRepository.findForgottenWords(
-                        user, PageRequest.of(0, missing * 2)
-                );
-                for (WordState ws : extraS_1) {
-                    Word w = ws.getWord();
+                List<Word> extraS_1 = toCatalogWords(candidatesInState(user, "S-1", missing * 2, lazyBuckets));
+                for (Word w : extraS_1) {
                     if (deduped.stream().noneMatch(x -> Objects.equals(x.getId(), w.getId()))) {
                         deduped.add(w);
                         missing--;
@@ -252,11 +272,8 @@ public class RecommendationService {
 
             // 嘗試 3：補充 S1 單字
             if (missing > 0 && countS1 > 0) {
-                List<WordState> extraS1 = wordStateRepository.findByUserAndState(
-                        user, "S1", PageRequest.of(0, missing * 2)
-                );
-                for (WordState ws : extraS1) {
-                    Word w = ws.getWord();
+                List<Word> extraS1 = toCatalogWords(candidatesInState(user, "S1", missing * 2, lazyBuckets));
+                for (Word w : extraS1) {
                     if (deduped.stream().noneMatch(x -> Objects.equals(x.getId(), w.getId()))) {
                         deduped.add(w);
                         missing--;
@@ -268,11 +285,8 @@ public class RecommendationService {
 
             // 嘗試 4：補充 S2 單字
             if (missing > 0 && countS2 > 0) {
-                List<WordState> extraS2 = wordStateRepository.findByUserAndState(
-                        user, "S2", PageRequest.of(0, missing * 2)
-                );
-                for (WordState ws : extraS2) {
-                    Word w = ws.getWord();
+                List<Word> extraS2 = toCatalogWords(candidatesInState(user, "S2", missing * 2, lazyBuckets));
+                for (Word w : extraS2) {
                     if (deduped.stream().noneMatch(x -> Objects.equals(x.getId(), w.getId()))) {
                         deduped.add(w);
                         missing--;
@@ -284,11 +298,8 @@ public class RecommendationService {
 
             // 嘗試 5：補充 S3 單字（最後手段）
             if (missing > 0 && countS3 > 0) {
-                List<WordState> extraS3 = wordStateRepository.findByUserAndState(
-                        user, "S3", PageRequest.of(0, missing * 2)
-                );
-                for (WordState ws : extraS3) {
-                    Word w = ws.getWord();
+                List<Word> extraS3 = toCatalogWords(candidatesInState(user, "S3", missing * 2, lazyBuckets));
+                for (Word w : extraS3) {
                     if (deduped.stream().noneMatch(x -> Objects.equals(x.getId(), w.getId()))) {
                         deduped.add(w);
                         missing--;
@@ -347,6 +358,8 @@ public class RecommendationService {
      * @return 更新後的 WordState
      */
     @Transactional
+    @SerializedPerUser
+    @RetryOnOptimisticLock
     public WordState handleReadingEvent(User user, Long wordId, double durationSeconds) {
 
         // 🔑 添加唯一請求 ID
@@ -356,7 +369,7 @@ public class RecommendationService {
                 requestId, user.getId(), wordId, durationSeconds);
 
         // ========== 步驟 1：查詢單字和狀態 ==========
-        Word word = wordRepository.findById(wordId)
+        Word word = wordCatalogService.findById(wordId)
                 .orElseThrow(() -> {
                     log.error("🔴 [{}] Word not found: wordId={}", requestId, wordId);
                     return new RuntimeException("Word not found: " + wordId);
@@ -364,17 +377,157 @@ public class RecommendationService {
 
         log.debug("🟢 [{}] Word found: {}", requestId, word.getWordText());
 
-        WordState state = wordStateRepository.findByUserAndWord(user, word)
-                .orElseGet(() -> {
-                    log.debug("🟢 [{}] WordState not found, initializing new state", requestId);
-                    return initializeNewState(user, word);
-                });
+        // 單次往返取得（或建立）並鎖定 WordState，同一單字的併發事件依序套用
+        LocalDateTime now = LocalDateTime.now();
+        WordStateRepository.Upsert upsert = wordStateRepository.upsertForUpdate(user.getId(), wordId, now);
+        WordState state = attach(upsert.state(), user, word);
+        boolean created = upsert.inserted();
 
         log.debug("🟢 [{}] Current state: {}, strength: {}, readCount: {}",
                 requestId, state.getCurrentState(), state.getMemoryStrength(), state.getReadCount());
 
+        String previousState = state.getCurrentState();
+
+        // ========== 步驟 2-6：套用閱讀算法並更新統計 ==========
+        ReviewHistory history = applyReadingEvent(user, state, word, durationSeconds, now, requestId);
+
+        // ========== 步驟 7：提交歷史記錄（交易提交後非同步寫入）==========
+        reviewHistoryWriter.submit(history);
+
+        // ========== 步驟 8：保存並返回 ==========
+        log.info("🟢 [{}] Saving WordState...", requestId);
+
+        WordState saved = wordStateRepository.save(state);
+
+        if (created) {
+            touchedWordIndex.markTouched(user.getId(), wordId);
+        }
+
+        // 新建立的 WordState 視為從「無」轉移
+        learningSummaryService.recordTransition(user, created ? null : previousState, state.getCurrentState());
+
+        log.info("🟢 [{}] handleReadingEvent END: word='{}', state: {}→{}",
+                requestId, word.getWordText(), previousState, state.getCurrentState());
+
+        return saved;
+    }
+
+    /**
+     * 批次處理閱讀事件（v2.0）
+     *
+     * 與逐筆呼叫 handleReadingEvent 的結果相同，但：
+     * - 單字取自記憶體目錄，WordState 以一次 IN 查詢載入
+     * - 事件依傳入順序套用；同一單字出現多次時，後一次以前一次的結果為基礎
+     * - WordState 在同一交易內以 saveAll 寫入，歷史記錄於提交後交給非同步寫入器
+     * - 學習摘要計數每位使用者只更新一次
+     *
+     * @param user 使用者
+     * @param events 閱讀事件（依發生順序）
+     * @return 每個事件套用後的 WordState（與 events 一一對應）
+     */
+    @Transactional
+    @SerializedPerUser
+    @RetryOnOptimisticLock
+    public List<WordStateDTO> handleReadingEvents(User user, List<ReadEventRequest> events) {
+
+        String requestId = UUID.randomUUID().toString().substring(0, 8);
+
+        log.info("🟢 [{}] handleReadingEvents START: user={}, events={}", requestId, user.getId(), events.size());
+
+        if (events.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // ========== 步驟 1：查詢單字（記憶體目錄）和狀態（一次 IN 查詢）==========
+        Map<Long, Word> words = new HashMap<>();
+        for (ReadEventRequest event : events) {
+            Long wordId = event.wordId();
+            if (!words.containsKey(wordId)) {
+                Word word = wordCatalogService.findById(wordId)
+                        .orElseThrow(() -> {
+                            log.error("🔴 [{}] Word not found: wordId={}", requestId, wordId);
+                            return new RuntimeException("Word not found: " + wordId);
+                        });
+                words.put(wordId, word);
+            }
+        }
+
         LocalDateTime now = LocalDateTime.now();
 
+        Map<Long, WordState> states = new LinkedHashMap<>();
+        for (WordState ws : wordStateRepository.findByUserAndWordIdIn(user, words.keySet())) {
+            // 關聯到已載入的使用者與目錄單字，避免 DTO 轉換時逐筆載入 LAZY 的 Word
+            Long wordId = ws.getWord().getId();
+            states.put(wordId, attach(ws, user, words.get(wordId)));
+        }
+
+        // 閱讀前的狀態（null 表示新建立），用於摘要計數
+        Map<Long, String> initialStates = new HashMap<>();
+        for (Map.Entry<Long, Word> e : words.entrySet()) {
+            WordState existing = states.get(e.getKey());
+            if (existing != null) {
+                initialStates.put(e.getKey(), existing.getCurrentState());
+                continue;
+            }
+
+            // 缺少的單字以 upsert 建立（併發請求同時建立時不會產生重複列）
+            WordStateRepository.Upsert upsert = wordStateRepository.upsertForUpdate(user.getId(), e.getKey(), now);
+            WordState state = attach(upsert.state(), user, e.getValue());
+            states.put(e.getKey(), state);
+            initialStates.put(e.getKey(), upsert.inserted() ? null : state.getCurrentState());
+        }
+
+        // ========== 步驟 2-6：依序套用閱讀算法 ==========
+        List<ReviewHistory> histories = new ArrayList<>(events.size());
+        List<WordStateDTO> results = new ArrayList<>(events.size());
+
+        for (ReadEventRequest event : events) {
+            Word word = words.get(event.wordId());
+            WordState state = states.get(event.wordId());
+
+            double durationSeconds = event.durationMs() / 1000.0;
+            histories.add(applyReadingEvent(user, state, word, durationSeconds, now, requestId));
+            results.add(WordStateDTO.fromEntity(state));
+        }
+
+        // ========== 步驟 7-8：批次保存 ==========
+        reviewHistoryWriter.submitAll(histories);
+        List<WordState> saved = wordStateRepository.saveAll(states.values());
+
+        LearningSummaryService.StateDelta delta = new LearningSummaryService.StateDelta();
+        for (WordState ws : saved) {
+            Long wordId = ws.getWord().getId();
+            String before = initialStates.get(wordId);
+            if (before == null) {
+                touchedWordIndex.markTouched(user.getId(), wordId);
+            }
+            delta.record(before, ws.getCurrentState());
+        }
+        learningSummaryService.recordTransitions(user, delta);
+
+        log.info("🟢 [{}] handleReadingEvents END: events={}, words={}",
+                requestId, events.size(), saved.size());
+
+        return results;
+    }
+
+    /**
+     * 套用一次閱讀事件（單筆與批次共用）
+     *
+     * 更新 WordState 的記憶強度、FSM 狀態、閱讀統計與下次複習時間（不保存）
+     *
+     * @return 對應的歷史記錄（尚未保存）
+     */
+    private ReviewHistory applyReadingEvent(User user,
+                                            WordState state,
+                                            Word word,
+                                            double durationSeconds,
+                                            LocalDateTime now,
+                                            String requestId) {
+
+        // ========== 步驟 1.5：延遲衰減模式下先落實到目前為止的衰減 ==========
+        lazyDecayService.materialize(state, now);
+
         // ========== 步驟 2：記錄閱讀前的狀態 ==========
         String previousState = state.getCurrentState();
         double previousStrength = state.getMemoryStrength();
@@ -424,9 +577,10 @@ public class RecommendationService {
         log.debug("🟢 [{}] Reading statistics: count: {}→{}, total: {:.1f}s, avg: {:.1f}s",
                 requestId, previousReadCount, newCount, newTotal, newAvg);
 
-        // ========== 步驟 7：保存歷史記錄 ==========
-        log.info("🟢 [{}] Saving review history...", requestId);
+        // ========== 步驟 6.5：排程下次複習時間（記憶衰減到狀態閾值的時刻）==========
+        state.setNextRecommendedReviewTime(algorithmCoreService.calculateNextReviewTime(state, word, now));
 
+        // ========== 步驟 7：建立歷史記錄 ==========
         ReviewHistory history = new ReviewHistory();
         history.setUser(user);
         history.setWord(word);
@@ -435,23 +589,13 @@ public class RecommendationService {
         history.setDurationMs((long)(durationSeconds * 1000));
         history.setIsCorrect(null);
 
-        ReviewHistory savedHistory = reviewHistoryRepository.save(history);
-
-        log.info("🟢 [{}] Review history saved: id={}", requestId, savedHistory.getId());
-
-        // ========== 步驟 8：保存並返回 ==========
-        log.info("🟢 [{}] Saving WordState...", requestId);
-
-        WordState saved = wordStateRepository.save(state);
-
-        log.info("🟢 [{}] handleReadingEvent END: word='{}', duration={:.1f}s, " +
-                        "strength: {:.3f}→{:.3f}, state: {}→{}, read_count: {}→{}",
+        log.debug("🟢 [{}] Reading applied: word='{}', duration={}s, strength: {}→{}, state: {}→{}, read_count: {}→{}",
                 requestId, word.getWordText(), durationSeconds,
                 previousStrength, newStrength,
                 previousState, newState,
                 previousReadCount, newCount);
 
-        return saved;
+        return history;
     }
 
     // ==================== 公開方法：學習統計 ====================
@@ -463,28 +607,14 @@ public class RecommendationService {
     public Map<String, Object> getLearningStatsSummary(User user) {
         Map<String, Object> stats = new HashMap<>();
 
-        List<Object[]> stateStats = wordStateRepository.countByUserGroupByState(user);
-
-        long totalS0 = 0, totalS_1 = 0, totalS1 = 0, totalS2 = 0, totalS3 = 0;
-        for (Object[] row : stateStats) {
-            String state = (String) row[0];
-            Long count = (Long) row[1];
-
-            switch (state) {
-                case "S0":  totalS0 = count; break;
-                case "S-1": totalS_1 = count; break;
-                case "S1":  totalS1 = count; break;
-                case "S2":  totalS2 = count; break;
-                case "S3":  totalS3 = count; break;
-            }
-        }
+        UserLearningSummary summary = learningSummaryService.getSummary(user);
 
-        stats.put("newWords", totalS0);
-        stats.put("forgottenWords", totalS_1);
-        stats.put("learningWords", totalS1);
-        stats.put("reviewingWords", totalS2);
-        stats.put("masteredWords", totalS3);
-        stats.put("totalLearned", totalS_1 + totalS1 + totalS2 + totalS3);
+        stats.put("newWords", summary.getCountS0());
+        stats.put("forgottenWords", summary.getCountForgotten());
+        stats.put("learningWords", summary.getCountS1());
+        stats.put("reviewingWords", summary.getCountS2());
+        stats.put("masteredWords", summary.getCountS3());
+        stats.put("totalLearned", summary.getTotalLearned());
 
         log.debug("Learning stats for user {}: {}", user.getId(), stats);
 
@@ -495,19 +625,21 @@ public class RecommendationService {
 
     /**
      * 使用輕度優先度排序獲取單字
+     *
+     * 候選為輕量投影（ReviewCandidate），評分不觸發 LAZY 關聯；單字本體取自記憶體目錄
      */
     private List<Word> fetchWordsWithPriority(
             User user,
             String state,
             int targetCount,
             LocalDateTime currentTime,
-            Supplier<List<WordState>> fetcher) {
+            Supplier<List<ReviewCandidate>> fetcher) {
 
         if (targetCount <= 0) {
             return new ArrayList<>();
         }
 
-        List<WordState> candidates = fetcher.get();
+        List<ReviewCandidate> candidates = fetcher.get();
 
         if (candidates.isEmpty()) {
             log.debug("No {} words found for user {}", state, user.getId());
@@ -516,36 +648,25 @@ public class RecommendationService {
 
         if (candidates.size() <= targetCount) {
             log.debug("Limited {} candidates ({}), return all", state, candidates.size());
-            return candidates.stream()
-                    .map(WordState::getWord)
-                    .collect(Collectors.toList());
+            return toCatalogWords(candidates);
         }
 
-        Map<Long, Double> priorities = new HashMap<>();
-        for (WordState ws : candidates) {
-            double priority = algorithmCoreService.calculateReviewPriority(
-                    ws, ws.getWord(), currentTime
-            );
-            priorities.put(ws.getWord().getId(), priority);
+        long nowMs = TimeUtil.toEpochMillis(currentTime);
+        double[] priorities = new double[candidates.size()];
+        for (int i = 0; i < priorities.length; i++) {
+            priorities[i] = algorithmCoreService.calculateReviewPriority(candidates.get(i), nowMs);
         }
 
-        List<WordState> sorted = candidates.stream()
-                .sorted((a, b) -> {
-                    double priorityA = priorities.getOrDefault(a.getWord().getId(), 0.0);
-                    double priorityB = priorities.getOrDefault(b.getWord().getId(), 0.0);
-                    return Double.compare(priorityB, priorityA);
-                })
-                .collect(Collectors.toList());
+        // 前 60% 再隨機（有界堆積選取，不做全排序）
+        int[] picked = TopKSelector.selectTopFractionThenShuffle(
+                priorities, 0.6, targetCount, ThreadLocalRandom.current());
 
-        int topCount = Math.max((int)(sorted.size() * 0.6), targetCount);
-        List<WordState> topPriority = sorted.subList(0, Math.min(topCount, sorted.size()));
+        List<ReviewCandidate> selected = new ArrayList<>(picked.length);
+        for (int index : picked) {
+            selected.add(candidates.get(index));
+        }
 
-        Collections.shuffle(topPriority);
-
-        List<Word> result = topPriority.stream()
-                .limit(targetCount)
-                .map(WordState::getWord)
-                .collect(Collectors.toList());
+        List<Word> result = toCatalogWords(selected);
 
         log.debug("Selected {} {} words from {} candidates (top 60% then random)",
                 result.size(), state, candidates.size());
@@ -554,44 +675,74 @@ public class RecommendationService {
     }
 
     /**
-     * 初始化新的 WordState
+     * 取出指定狀態的複習候選
+     *
+     * - 每日衰減模式：依保存的狀態查詢（S-1 最近遺忘優先，其餘隨機）
+     * - 延遲衰減模式：取自推算後狀態的分組（排序規則相同）
      */
-    private WordState initializeNewState(User user, Word word) {
-        WordState state = new WordState();
-
-        state.setUser(user);
-        state.setWord(word);
-
-        state.setMemoryStrength(0.0);
-        state.setCurrentState("S0");
-        state.setHasEverLearned(false);
+    private List<ReviewCandidate> candidatesInState(
+            User user,
+            String state,
+            int limit,
+            Map<String, List<ReviewCandidate>> lazyBuckets) {
 
-        state.setTotalCorrect(0);
-        state.setTotalIncorrect(0);
-        state.setAverageResponseTimeMs(0L);
+        boolean forgotten = "S-1".equals(state);
 
-        state.setReadCount(0);
-        state.setTotalReadDuration(0.0);
-        state.setAvgReadDuration(0.0);
+        if (lazyBuckets == null) {
+            return forgotten
+                    ? wordStateRepository.findForgottenReviewCandidates(user, page(limit))
+                    : wordStateRepository.findReviewCandidatesByState(user, state, page(limit));
+        }
 
-        state.setForgottenCount(0);
-        state.setLastForgottenTime(null);
+        List<ReviewCandidate> bucket = new ArrayList<>(lazyBuckets.getOrDefault(state, List.of()));
+        if (forgotten) {
+            bucket.sort(Comparator.comparingLong(ReviewCandidate::lastForgottenEpochMs).reversed());
+        } else {
+            Collections.shuffle(bucket);
+        }
+        return bucket.subList(0, Math.min(limit, bucket.size()));
+    }
 
-        LocalDateTime now = LocalDateTime.now();
-        state.setLastReviewTime(now);
-        state.setLastReadTime(null);
+    /**
+     * 載入可複習的候選，推算衰減後依狀態分組（延遲衰減模式）
+     */
+    private Map<String, List<ReviewCandidate>> groupByDecayedState(User user, LocalDateTime currentTime) {
+        List<ReviewCandidate> candidates = lazyDecayService.project(
+                wordStateRepository.findReviewCandidates(user, REVIEWABLE_STATES, PageRequest.of(0, MAX_LAZY_CANDIDATES)),
+                currentTime
+        );
 
-        state.setNextReviewPriority(0.0);
+        return candidates.stream().collect(Collectors.groupingBy(ReviewCandidate::state));
+    }
 
-        log.debug("Initialized new WordState: user={}, word='{}', state=S0, strength=0.0",
-                user.getId(), word.getWordText());
+    /**
+     * 將複習候選轉為單字（取自記憶體目錄，不查詢資料庫）
+     */
+    private List<Word> toCatalogWords(List<ReviewCandidate> candidates) {
+        List<Word> words = new ArrayList<>(candidates.size());
+        for (ReviewCandidate c : candidates) {
+            wordCatalogService.findById(c.wordId()).ifPresent(words::add);
+        }
+        return words;
+    }
 
+    /**
+     * 將 upsert 回傳的 WordState 關聯到已載入的使用者與目錄單字（避免 LAZY 關聯再查詢）
+     */
+    private WordState attach(WordState state, User user, Word word) {
+        state.setUser(user);
+        state.setWord(word);
         return state;
     }
 
     // ==================== 原有工具方法 ====================
 
-    private Map<String, Integer> distributeCounts(int total, Map<String, Double> ratios) {
+    /**
+     * 依比例分配數量（最大餘數法）
+     *
+     * 套件可見：供 JMH 基準測試直接呼叫
+     */
+    static Map<String, Integer> distributeCounts(int total, Map<String, Double> ratios) {
         Map<String, Integer> result = new LinkedHashMap<>();
 
         if (total <= 0 || ratios == null || ratios.isEmpty()) {
@@ -642,7 +793,12 @@ public class RecommendationService {
         return PageRequest.of(0, Math.max(1, size));
     }
 
-    private List<Word> deduplicateById(List<Word> list) {
+    /**
+     * 依單字 ID 去重（保留第一次出現的順序）
+     *
+     * 套件可見：供 JMH 基準測試直接呼叫
+     */
+    static List<Word> deduplicateById(List<Word> list) {
         Set<Long> seen = new HashSet<>();
         List<Word> out = new ArrayList<>(list.size());
 
@@ -0,0 +1,289 @@
+package com.example.wordrecommend_backend.service;
+
+import com.example.wordrecommend_backend.entity.InteractionType;
+import com.example.wordrecommend_backend.entity.ReviewHistory;
+import com.example.wordrecommend_backend.repository.ReviewHistoryRepository;
+import com.example.wordrecommend_backend.repository.UserRepository;
+import com.example.wordrecommend_backend.repository.WordRepository;
+import com.example.wordrecommend_backend.util.TransactionUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 複習歷史非同步寫入器（Write-Behind）
+ *
+ * 設計理念：
+ * - ReviewHistory 只新增、不在請求路徑上讀取，不需要佔用使用者請求的交易時間
+ * - 請求交易提交後才放入有界佇列（回滾的事件不會留下歷史）
+ * - 背景執行緒批次取出，以 saveAll 寫入（pooled 序列 + JDBC 批次，一個批次一次往返）
+ *
+ * 背壓：
+ * - 佇列已滿時等待 offerTimeoutMs；仍無空間則在呼叫端同步寫入該筆
+ * - 寫入變慢時請求會跟著變慢，而不是無限制堆積在記憶體中
+ *
+ * 關閉：
+ * - 停止背景執行緒後，將佇列剩餘資料同步寫完（優雅關閉時不遺失）
+ * - 與關閉同時排入的資料：排入後再次檢查，已關閉則取回並同步寫入
+ *
+ * 失敗：
+ * - 批次寫入失敗時對半拆分重試，只丟棄單筆仍失敗的記錄（計入 review.history.failed）
+ *
+ * 指標：
+ * - review.history.queue.depth：佇列深度
+ * - review.history.flush：每批寫入耗時
+ * - review.history.written / review.history.sync.writes / review.history.failed：筆數統計
+ */
+@Service
+@Slf4j
+public class ReviewHistoryWriter {
+
+    private final ReviewHistoryRepository reviewHistoryRepository;
+    private final UserRepository userRepository;
+    private final WordRepository wordRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final int flushSize;
+    private final long flushIntervalMs;
+    private final long offerTimeoutMs;
+    private final BlockingQueue<PendingHistory> queue;
+
+    private final Timer flushTimer;
+    private final Counter writtenCounter;
+    private final Counter syncWriteCounter;
+    private final Counter failedCounter;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public ReviewHistoryWriter(
+            ReviewHistoryRepository reviewHistoryRepository,
+            UserRepository userRepository,
+            WordRepository wordRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${learning.history.write-behind.enabled:true}") boolean enabled,
+            @Value("${learning.history.write-behind.queue-capacity:10000}") int queueCapacity,
+            @Value("${learning.history.write-behind.flush-size:200}") int flushSize,
+            @Value("${learning.history.write-behind.flush-interval-ms:500}") long flushIntervalMs,
+            @Value("${learning.history.write-behind.offer-timeout-ms:50}") long offerTimeoutMs) {
+
+        this.reviewHistoryRepository = reviewHistoryRepository;
+        this.userRepository = userRepository;
+        this.wordRepository = wordRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // 同步寫入在請求交易的 afterCommit 中執行，必須開新交易才會真正提交
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.enabled = enabled;
+        this.flushSize = flushSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        Gauge.builder("review.history.queue.depth", queue, BlockingQueue::size)
+                .description("Review history records waiting to be written")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("review.history.flush")
+                .description("Time to write one batch of review history")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("review.history.written").register(meterRegistry);
+        this.syncWriteCounter = Counter.builder("review.history.sync.writes")
+                .description("Records written on the caller thread because the queue was full or disabled")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("review.history.failed").register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            log.info("📝 Review history write-behind disabled, writing synchronously");
+            return;
+        }
+
+        running = true;
+        worker = new Thread(this::drainLoop, "review-history-writer");
+        worker.setDaemon(true);
+        worker.start();
+
+        log.info("📝 Review history writer started: capacity={}, flushSize={}, flushInterval={}ms",
+                queue.remainingCapacity(), flushSize, flushIntervalMs);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (!enabled) {
+            return;
+        }
+
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // 背景執行緒結束後，剩餘資料在關閉執行緒上寫完
+        List<PendingHistory> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            log.info("📝 Flushing {} pending review history records on shutdown", remaining.size());
+            for (int from = 0; from < remaining.size(); from += flushSize) {
+                flush(remaining.subList(from, Math.min(remaining.size(), from + flushSize)));
+            }
+        }
+    }
+
+    // ==================== 公開方法 ====================
+
+    /**
+     * 提交一筆歷史記錄（在目前交易提交後才排入佇列）
+     */
+    public void submit(ReviewHistory history) {
+        PendingHistory pending = PendingHistory.from(history);
+        TransactionUtil.runAfterCommit(() -> enqueue(pending));
+    }
+
+    /**
+     * 提交多筆歷史記錄（在目前交易提交後才排入佇列）
+     */
+    public void submitAll(List<ReviewHistory> histories) {
+        List<PendingHistory> pending = histories.stream().map(PendingHistory::from).toList();
+        TransactionUtil.runAfterCommit(() -> pending.forEach(this::enqueue));
+    }
+
+    // ==================== 內部實作 ====================
+
+    private void enqueue(PendingHistory pending) {
+        if (running) {
+            try {
+                if (queue.offer(pending, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    // stop() 可能已在 offer 之前完成 drainTo：取回成功代表無人會寫這筆，改為同步寫入
+                    if (running || !queue.remove(pending)) {
+                        return;
+                    }
+                } else {
+                    log.warn("⚠️ Review history queue full ({}), writing synchronously", queue.size());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // 未啟用、已關閉或佇列已滿：在呼叫端同步寫入（背壓）
+        syncWriteCounter.increment();
+        flush(List.of(pending));
+    }
+
+    private void drainLoop() {
+        List<PendingHistory> batch = new ArrayList<>(flushSize);
+
+        while (running) {
+            try {
+                PendingHistory first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, flushSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                // stop() 中斷：寫完手上的批次，佇列剩餘部分由 stop() 處理
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingHistory> batch) {
+        long start = System.nanoTime();
+        try {
+            write(batch);
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 寫入一批；失敗時對半拆分重試，最後只丟棄單筆仍失敗的記錄
+     */
+    private void write(List<PendingHistory> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<ReviewHistory> entities = new ArrayList<>(batch.size());
+                for (PendingHistory pending : batch) {
+                    entities.add(pending.toEntity(userRepository, wordRepository));
+                }
+                reviewHistoryRepository.saveAll(entities);
+            });
+            writtenCounter.increment(batch.size());
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                failedCounter.increment();
+                log.error("❌ Failed to write review history record {}", batch.get(0), e);
+                return;
+            }
+
+            log.warn("⚠️ Failed to write {} review history records, retrying in halves: {}",
+                    batch.size(), e.getMessage());
+            int middle = batch.size() / 2;
+            write(batch.subList(0, middle));
+            write(batch.subList(middle, batch.size()));
+        }
+    }
+
+    /**
+     * 佇列中的歷史記錄（只保留 ID，不持有 JPA 實體）
+     */
+    private record PendingHistory(Long userId,
+                                  Long wordId,
+                                  InteractionType interactionType,
+                                  Long durationMs,
+                                  Boolean isCorrect,
+                                  LocalDateTime reviewTime) {
+
+        static PendingHistory from(ReviewHistory history) {
+            return new PendingHistory(
+                    history.getUser().getId(),
+                    history.getWord().getId(),
+                    history.getInteractionType(),
+                    history.getDurationMs(),
+                    history.getIsCorrect(),
+                    history.getReviewTime()
+            );
+        }
+
+        ReviewHistory toEntity(UserRepository userRepository, WordRepository wordRepository) {
+            ReviewHistory history = new ReviewHistory();
+            history.setUser(userRepository.getReferenceById(userId));
+            history.setWord(wordRepository.getReferenceById(wordId));
+            history.setInteractionType(interactionType);
+            history.setDurationMs(durationMs);
+            history.setIsCorrect(isCorrect);
+            history.setReviewTime(reviewTime);
+            return history;
+        }
+    }
+}
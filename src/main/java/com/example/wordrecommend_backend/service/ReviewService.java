@@ -1,12 +1,18 @@
 package com.example.wordrecommend_backend.service;
 
+import com.example.wordrecommend_backend.aspect.RetryOnOptimisticLock;
+import com.example.wordrecommend_backend.aspect.SerializedPerUser;
+import com.example.wordrecommend_backend.config.AlgorithmConfig;
+import com.example.wordrecommend_backend.dto.ReviewCandidate;
 import com.example.wordrecommend_backend.dto.WordDTO;
+import com.example.wordrecommend_backend.dto.WordStateDTO;
 import com.example.wordrecommend_backend.entity.*;
-import com.example.wordrecommend_backend.repository.ReviewHistoryRepository;
-import com.example.wordrecommend_backend.repository.WordRepository;
 import com.example.wordrecommend_backend.repository.WordStateRepository;
+import com.example.wordrecommend_backend.util.TimeUtil;
+import com.example.wordrecommend_backend.util.TopKSelector;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,10 +26,33 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ReviewService {
 
-    private final WordRepository wordRepository;
     private final WordStateRepository wordStateRepository;
-    private final ReviewHistoryRepository reviewHistoryRepository;
+    private final ReviewHistoryWriter reviewHistoryWriter;
     private final AlgorithmCoreService algorithmCoreService;
+    private final WordCatalogService wordCatalogService;
+    private final TouchedWordIndex touchedWordIndex;
+    private final LearningSummaryService learningSummaryService;
+    private final LazyDecayService lazyDecayService;
+    private final AlgorithmConfig algorithmConfig;
+
+    /**
+     * 複習候選選取方式
+     * - due：依 next_recommended_review_time 索引取出已到期的單字，不足時以 sql 補足（預設）
+     * - sql：資料庫端計算優先度並只回傳前 K 筆
+     * - java：載入候選投影後在應用程式端排序
+     */
+    @Value("${learning.review.scoring-mode:due}")
+    private String scoringMode;
+
+    /**
+     * 可複習的狀態（S-1 優先復原）
+     */
+    private static final List<String> REVIEWABLE_STATES = List.of("S-1", "S1", "S2", "S3");
+
+    /**
+     * 複習候選上限（原本每個狀態各 1000 筆）
+     */
+    private static final int MAX_REVIEW_CANDIDATES = 4000;
 
     // ==================== 公開方法：答題處理 ====================
 
@@ -31,6 +60,8 @@ public class ReviewService {
      * 處理答題回饋（v3.0 - 完全在 Service 層比對）
      */
     @Transactional
+    @SerializedPerUser
+    @RetryOnOptimisticLock
     public WordState handleQuizAnswer(
             User user,
             Long wordId,
@@ -41,17 +72,186 @@ public class ReviewService {
         log.info("🔵 ========== 答題處理開始 ==========");
         log.info("使用者: {}, 單字: {}, 題型: {}", user.getId(), wordId, questionType);
 
-        // ========== 步驟 1：查詢單字和狀態 ==========
+        // ========== 步驟 1：在 Service 層進行答案比對 ==========
         Word word = findWordById(wordId);
-        WordState state = findOrInitializeState(user, word);
+        boolean isCorrect = validateAnswerByQuestionType(word, selectedAnswer, questionType);
+
+        log.info("🟠 答案比對結果: isCorrect={}", isCorrect);
+
+        return applyQuizAnswer(user, word, isCorrect, answerTimeMs);
+    }
+
+    /**
+     * 處理已判定對錯的答題（複習會話以答案比對後呼叫，不再查詢選項單字）
+     *
+     * @param user 使用者
+     * @param wordId 單字 ID
+     * @param isCorrect 是否答對
+     * @param answerTimeMs 答題耗時
+     * @return 更新後的 WordState
+     */
+    @Transactional
+    @SerializedPerUser
+    @RetryOnOptimisticLock
+    public WordState handleGradedQuizAnswer(
+            User user,
+            Long wordId,
+            boolean isCorrect,
+            long answerTimeMs) {
+
+        log.info("🔵 ========== 答題處理開始 ==========");
+        log.info("使用者: {}, 單字: {}, isCorrect={}", user.getId(), wordId, isCorrect);
+
+        return applyQuizAnswer(user, findWordById(wordId), isCorrect, answerTimeMs);
+    }
+
+    /**
+     * 批次處理已判定對錯的答題（離線 / 快速作答模式一次同步）
+     *
+     * 與逐筆呼叫 handleGradedQuizAnswer 的結果相同，但：
+     * - 單字取自記憶體目錄，WordState 以一次 IN 查詢載入
+     * - 答題依傳入順序（呼叫端已依作答時間排序）逐筆套用，每筆以作答時間計算衰減與間隔
+     * - WordState 在同一交易內以 saveAll 寫入，歷史記錄於提交後交給非同步寫入器
+     * - 學習摘要計數只更新一次
+     *
+     * @param user 使用者
+     * @param answers 已判定的答題（依作答時間排序）
+     * @return 每筆答題套用後的狀態（與 answers 一一對應）
+     */
+    @Transactional
+    @SerializedPerUser
+    @RetryOnOptimisticLock
+    public List<WordStateDTO> handleGradedQuizAnswers(User user, List<GradedAnswer> answers) {
+
+        log.info("🔵 ========== 批次答題處理開始: 使用者 {}, {} 題 ==========", user.getId(), answers.size());
+
+        if (answers.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // ========== 步驟 1：查詢單字（記憶體目錄）和狀態（一次 IN 查詢）==========
+        Map<Long, Word> words = new HashMap<>();
+        for (GradedAnswer answer : answers) {
+            words.computeIfAbsent(answer.wordId(), this::findWordById);
+        }
+
         LocalDateTime now = LocalDateTime.now();
 
-        log.debug("單字: {}, 詞性: {}", word.getWordText(), word.getPartOfSpeech());
+        Map<Long, WordState> states = new LinkedHashMap<>();
+        for (WordState ws : wordStateRepository.findByUserAndWordIdIn(user, words.keySet())) {
+            ws.setUser(user);
+            ws.setWord(words.get(ws.getWord().getId()));
+            states.put(ws.getWord().getId(), ws);
+        }
 
-        // ========== 步驟 2：在 Service 層進行答案比對 ==========
-        boolean isCorrect = validateAnswerByQuestionType(word, selectedAnswer, questionType);
+        // 答題前保存的狀態（null 表示新建立），用於摘要計數
+        Map<Long, String> storedStates = new HashMap<>();
+        for (Map.Entry<Long, Word> e : words.entrySet()) {
+            WordState existing = states.get(e.getKey());
+            if (existing != null) {
+                storedStates.put(e.getKey(), existing.getCurrentState());
+                continue;
+            }
+
+            WordStateRepository.Upsert upsert = findOrInitializeState(user, e.getValue(), now);
+            states.put(e.getKey(), upsert.state());
+            storedStates.put(e.getKey(), upsert.inserted() ? null : upsert.state().getCurrentState());
+        }
 
-        log.info("🟠 答案比對結果: isCorrect={}", isCorrect);
+        // ========== 步驟 2-9：依序套用答題算法 ==========
+        List<ReviewHistory> histories = new ArrayList<>(answers.size());
+        List<WordStateDTO> results = new ArrayList<>(answers.size());
+
+        for (GradedAnswer answer : answers) {
+            WordState state = states.get(answer.wordId());
+            LocalDateTime answeredAt = answerTime(state, answer.answeredAt(), now);
+
+            histories.add(applyQuizAnswer(user, state, words.get(answer.wordId()),
+                    answer.correct(), answer.answerTimeMs(), answeredAt));
+            results.add(WordStateDTO.fromEntity(state));
+        }
+
+        // ========== 步驟 10-11：批次保存 ==========
+        reviewHistoryWriter.submitAll(histories);
+        List<WordState> saved = wordStateRepository.saveAll(states.values());
+
+        LearningSummaryService.StateDelta delta = new LearningSummaryService.StateDelta();
+        for (WordState ws : saved) {
+            Long wordId = ws.getWord().getId();
+            String before = storedStates.get(wordId);
+            if (before == null) {
+                touchedWordIndex.markTouched(user.getId(), wordId);
+            }
+            delta.record(before, ws.getCurrentState());
+        }
+        learningSummaryService.recordTransitions(user, delta);
+
+        log.info("✅ ========== 批次答題處理完成: {} 題, {} 個單字 ==========", answers.size(), saved.size());
+
+        return results;
+    }
+
+    /**
+     * 已判定對錯的答題（批次提交用）
+     *
+     * @param wordId 單字 ID
+     * @param correct 是否答對
+     * @param answerTimeMs 答題耗時
+     * @param answeredAt 作答時間（null 表示現在）
+     */
+    public record GradedAnswer(Long wordId, boolean correct, long answerTimeMs, LocalDateTime answeredAt) {
+    }
+
+    /**
+     * 單筆答題：查詢（或建立）狀態、套用並保存
+     */
+    private WordState applyQuizAnswer(User user, Word word, boolean isCorrect, long answerTimeMs) {
+
+        Long wordId = word.getId();
+
+        // ========== 步驟 2：查詢狀態 ==========
+        LocalDateTime now = LocalDateTime.now();
+        WordStateRepository.Upsert upsert = findOrInitializeState(user, word, now);
+        WordState state = upsert.state();
+        boolean created = upsert.inserted();
+        String storedState = state.getCurrentState();
+
+        // ========== 步驟 3-10：套用答題算法 ==========
+        reviewHistoryWriter.submit(applyQuizAnswer(user, state, word, isCorrect, answerTimeMs, now));
+
+        // ========== 步驟 11：保存並返回 ==========
+        WordState saved = wordStateRepository.save(state);
+
+        if (created) {
+            touchedWordIndex.markTouched(user.getId(), wordId);
+        }
+
+        // 新建立的 WordState 視為從「無」轉移
+        learningSummaryService.recordTransition(user, created ? null : storedState, state.getCurrentState());
+
+        log.info("✅ ========== 答題處理完成 ==========");
+
+        return saved;
+    }
+
+    /**
+     * 套用一次答題（單筆與批次共用）
+     *
+     * 更新 WordState 的記憶強度、FSM 狀態、遺忘偵測、答題統計與下次複習時間（不保存）
+     *
+     * @return 對應的歷史記錄（尚未保存）
+     */
+    private ReviewHistory applyQuizAnswer(User user,
+                                          WordState state,
+                                          Word word,
+                                          boolean isCorrect,
+                                          long answerTimeMs,
+                                          LocalDateTime now) {
+
+        // 延遲衰減模式：先落實到目前為止的衰減（摘要計數以保存的狀態為準）
+        lazyDecayService.materialize(state, now);
+
+        log.debug("單字: {}, 詞性: {}", word.getWordText(), word.getPartOfSpeech());
 
         // ========== 步驟 3：記錄答題前的狀態 ==========
         String previousState = state.getCurrentState();
@@ -87,30 +287,38 @@ public class ReviewService {
         // ========== 步驟 8：更新答題統計 ==========
         updateAnswerStatistics(state, isCorrect, answerTimeMs);
 
-        // ========== 步驟 9：計算新的推薦優先度 ==========
+        // ========== 步驟 9：計算新的推薦優先度與下次複習時間 ==========
         double priority = algorithmCoreService.calculateReviewPriority(
                 state, word, now
         );
         state.setNextReviewPriority(priority);
+        state.setNextRecommendedReviewTime(algorithmCoreService.calculateNextReviewTime(state, word, now));
 
-        // ========== 步驟 10：保存歷史記錄 ==========
-        saveReviewHistory(user, word, InteractionType.QUIZ, answerTimeMs, isCorrect, now);
-
-        // ========== 步驟 11：保存並返回 ==========
-        WordState saved = wordStateRepository.save(state);
-
-        log.info("✅ ========== 答題處理完成 ==========");
+        // ========== 步驟 10：歷史記錄 ==========
         log.info("結果: isCorrect={}, strength: {:.4f}→{:.4f}, state: {}→{}, forgotten={}",
                 isCorrect, previousStrength, newStrength,
                 previousState, newState, forgotten);
 
-        return saved;
+        return newReviewHistory(user, word, InteractionType.QUIZ, answerTimeMs, isCorrect, now);
+    }
+
+    /**
+     * 作答時間：不早於上次複習（避免負的經過時間），不晚於現在
+     */
+    private static LocalDateTime answerTime(WordState state, LocalDateTime answeredAt, LocalDateTime now) {
+        if (answeredAt == null || answeredAt.isAfter(now)) {
+            return now;
+        }
+        LocalDateTime lastReview = state.getLastReviewTime();
+        return lastReview != null && answeredAt.isBefore(lastReview) ? lastReview : answeredAt;
     }
 
     /**
      * 重載方法：保持向後相容性
      */
     @Transactional
+    @SerializedPerUser
+    @RetryOnOptimisticLock
     public WordState handleQuizAnswer(
             User user,
             Long wordId,
@@ -161,7 +369,7 @@ public class ReviewService {
         try {
             Long selectedWordId = Long.parseLong(selectedAnswer.trim());
 
-            Word selectedWord = wordRepository.findById(selectedWordId)
+            Word selectedWord = wordCatalogService.findById(selectedWordId)
                     .orElseThrow(() -> {
                         log.error("❌ EASY: 找不到選項 Word ID: {}", selectedWordId);
                         return new RuntimeException("Word not found: " + selectedWordId);
@@ -252,47 +460,134 @@ public class ReviewService {
 
         LocalDateTime now = LocalDateTime.now();
 
-        // ========== 獲取所有可複習的單字 ==========
+        // 延遲衰減模式：保存的狀態與強度尚未衰減，到期佇列與資料庫端排序不適用
+        boolean lazyDecay = lazyDecayService.isEnabled();
 
-        List<WordState> allReviewable = new ArrayList<>();
+        if (!lazyDecay && "due".equalsIgnoreCase(scoringMode)) {
+            return getDueReviewWords(user, limit, excludeWordIds, now);
+        }
+        if (!lazyDecay && "sql".equalsIgnoreCase(scoringMode)) {
+            return getReviewWordsRankedInDatabase(user, limit, excludeWordIds, now);
+        }
 
-        allReviewable.addAll(wordStateRepository.findForgottenWords(user, PageRequest.of(0, 1000)));
-        allReviewable.addAll(wordStateRepository.findByUserAndState(user, "S1", PageRequest.of(0, 1000)));
-        allReviewable.addAll(wordStateRepository.findByUserAndState(user, "S2", PageRequest.of(0, 1000)));
-        allReviewable.addAll(wordStateRepository.findByUserAndState(user, "S3", PageRequest.of(0, 1000)));
+        // ========== 獲取所有可複習的單字（單次投影查詢）==========
+
+        List<ReviewCandidate> allReviewable = wordStateRepository.findReviewCandidates(
+                user, REVIEWABLE_STATES, PageRequest.of(0, MAX_REVIEW_CANDIDATES)
+        );
+
+        if (lazyDecay) {
+            // 推算衰減後的強度與狀態，衰減為 S0 的單字不再可複習
+            allReviewable = lazyDecayService.project(allReviewable, now).stream()
+                    .filter(c -> REVIEWABLE_STATES.contains(c.state()))
+                    .collect(Collectors.toList());
+        }
 
         log.debug("可複習單字總數: {}", allReviewable.size());
 
         // ========== 排除已推薦過的單字 ==========
 
-        List<WordState> filtered = allReviewable.stream()
-                .filter(ws -> !excludeWordIds.contains(ws.getWord().getId()))
+        List<ReviewCandidate> filtered = allReviewable.stream()
+                .filter(c -> !excludeWordIds.contains(c.wordId()))
                 .collect(Collectors.toList());
 
         log.debug("排除已推薦後: {} 個", filtered.size());
 
         // ========== 計算優先度並排序 ==========
 
-        List<ScoredWordState> scored = filtered.stream()
-                .map(ws -> new ScoredWordState(
-                        ws,
-                        algorithmCoreService.calculateReviewPriority(ws, ws.getWord(), now)
-                ))
-                .sorted((a, b) -> Double.compare(b.priority, a.priority))
-                .collect(Collectors.toList());
+        long nowMs = TimeUtil.toEpochMillis(now);
+        double[] priorities = new double[filtered.size()];
+        for (int i = 0; i < priorities.length; i++) {
+            priorities[i] = algorithmCoreService.calculateReviewPriority(filtered.get(i), nowMs);
+        }
 
-        // ========== 取出前 N 個 ==========
+        // ========== 取出前 N 個（有界堆積，單字取自記憶體目錄）==========
 
-        List<WordDTO> result = scored.stream()
-                .limit(limit)
-                .map(sw -> WordDTO.fromEntityWithState(sw.wordState.getWord(), sw.wordState.getCurrentState()))
-                .collect(Collectors.toList());
+        int[] top = TopKSelector.selectTopK(priorities, limit);
+
+        List<WordDTO> result = new ArrayList<>(top.length);
+        for (int index : top) {
+            ReviewCandidate c = filtered.get(index);
+            wordCatalogService.findById(c.wordId())
+                    .ifPresent(w -> result.add(WordDTO.fromEntityWithState(w, c.state())));
+        }
 
         log.info("✅ 複習推薦完成: {} 個不同的單字", result.size());
 
         return result;
     }
 
+    /**
+     * 到期複習佇列：索引範圍掃描 (user_id, next_recommended_review_time)
+     *
+     * - 最早到期的優先
+     * - 到期單字不足 limit 時（或舊資料尚未排程），以資料庫端 top-K 補足
+     */
+    private List<WordDTO> getDueReviewWords(
+            User user, int limit, Set<Long> excludeWordIds, LocalDateTime now) {
+
+        // 排除的單字可能也在到期清單中，多取 excludeWordIds.size() 筆
+        List<ReviewCandidate> due = wordStateRepository.findDueReviewCandidates(
+                user, now, PageRequest.of(0, limit + excludeWordIds.size())
+        );
+
+        List<WordDTO> result = new ArrayList<>(limit);
+        Set<Long> chosen = new HashSet<>(excludeWordIds);
+
+        for (ReviewCandidate c : due) {
+            if (result.size() >= limit) break;
+            if (!chosen.add(c.wordId())) continue;
+
+            wordCatalogService.findById(c.wordId())
+                    .ifPresent(w -> result.add(WordDTO.fromEntityWithState(w, c.state())));
+        }
+
+        log.debug("到期複習單字: {} 個（需要 {} 個）", result.size(), limit);
+
+        if (result.size() < limit) {
+            result.addAll(getReviewWordsRankedInDatabase(user, limit - result.size(), chosen, now));
+        }
+
+        return result;
+    }
+
+    /**
+     * 資料庫端 top-K：在 SQL 中計算優先度、套用排除清單並 ORDER BY ... LIMIT
+     *
+     * 只傳回 limit 筆（word_id, state），不傳輸整批候選
+     */
+    private List<WordDTO> getReviewWordsRankedInDatabase(
+            User user, int limit, Set<Long> excludeWordIds, LocalDateTime now) {
+
+        // NOT IN () 不合法，無排除時以不存在的 ID 代替
+        Collection<Long> exclude = excludeWordIds.isEmpty() ? List.of(-1L) : excludeWordIds;
+
+        List<Object[]> rows = wordStateRepository.findTopReviewPriorities(
+                user.getId(),
+                REVIEWABLE_STATES,
+                exclude,
+                TimeUtil.toEpochMillis(now),
+                algorithmConfig.getW1Strength(),
+                algorithmConfig.getW2Urgency(),
+                algorithmConfig.getLambdaDecay(),
+                algorithmConfig.getKForgotten(),
+                algorithmConfig.getKS1Bonus(),
+                limit
+        );
+
+        List<WordDTO> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Long wordId = ((Number) row[0]).longValue();
+            String state = (String) row[1];
+            wordCatalogService.findById(wordId)
+                    .ifPresent(w -> result.add(WordDTO.fromEntityWithState(w, state)));
+        }
+
+        log.info("✅ 複習推薦完成（資料庫端排序）: {} 個不同的單字", result.size());
+
+        return result;
+    }
+
     /**
      * 舊的重載方法（向後相容）
      */
@@ -305,7 +600,7 @@ public class ReviewService {
      * 查詢使用者對某個單字的狀態
      */
     public WordState findWordStateByWordId(User user, Long wordId) {
-        Word word = wordRepository.findById(wordId)
+        Word word = wordCatalogService.findById(wordId)
                 .orElse(null);
 
         if (word == null) {
@@ -316,6 +611,32 @@ public class ReviewService {
                 .orElse(null);
     }
 
+    /**
+     * 一次查詢使用者對多個單字的狀態（建立複習題組用）
+     *
+     * @return 依 wordIds 順序排列的 WordState（沒有狀態的單字略過）
+     */
+    @Transactional(readOnly = true)
+    public List<WordState> findWordStatesByWordIds(User user, List<Long> wordIds) {
+        if (wordIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, WordState> byWordId = new HashMap<>();
+        for (WordState ws : wordStateRepository.findByUserAndWordIdIn(user, wordIds)) {
+            byWordId.put(ws.getWord().getId(), ws);
+        }
+
+        List<WordState> ordered = new ArrayList<>(wordIds.size());
+        for (Long wordId : wordIds) {
+            WordState ws = byWordId.get(wordId);
+            if (ws != null) {
+                ordered.add(ws);
+            }
+        }
+        return ordered;
+    }
+
     /**
      * 獲取複習準備狀態（詳細資訊）
      */
@@ -323,10 +644,11 @@ public class ReviewService {
     public Map<String, Object> getReviewReadiness(User user) {
         Map<String, Object> readiness = new HashMap<>();
 
-        long countS_1 = wordStateRepository.countForgottenWords(user);
-        long countS1 = wordStateRepository.countByUserAndState(user, "S1");
-        long countS2 = wordStateRepository.countByUserAndState(user, "S2");
-        long countS3 = wordStateRepository.countByUserAndState(user, "S3");
+        UserLearningSummary summary = learningSummaryService.getSummary(user);
+        long countS_1 = summary.getCountForgotten();
+        long countS1 = summary.getCountS1();
+        long countS2 = summary.getCountS2();
+        long countS3 = summary.getCountS3();
 
         long totalReviewable = countS_1 + countS1 + countS2 + countS3;
         final int MIN_WORDS_TO_REVIEW = 10;
@@ -399,43 +721,23 @@ public class ReviewService {
     // ==================== 私有方法：資料存取 ====================
 
     private Word findWordById(Long wordId) {
-        return wordRepository.findById(wordId)
-                .orElseThrow(() -> {
-                    log.error("Word not found: wordId={}", wordId);
-                    return new RuntimeException("Word not found: " + wordId);
-                });
+        return wordCatalogService.getById(wordId);
     }
 
-    private WordState findOrInitializeState(User user, Word word) {
-        return wordStateRepository.findByUserAndWord(user, word)
-                .orElseGet(() -> initializeNewState(user, word));
-    }
+    /**
+     * 取得（或以 S0 建立）並鎖定使用者對單字的狀態（單次 upsert 語句，既有的列也不先 SELECT）
+     */
+    private WordStateRepository.Upsert findOrInitializeState(User user, Word word, LocalDateTime now) {
+        WordStateRepository.Upsert upsert = wordStateRepository.upsertForUpdate(user.getId(), word.getId(), now);
 
-    private WordState initializeNewState(User user, Word word) {
-        WordState state = new WordState();
-
-        state.setUser(user);
-        state.setWord(word);
-        state.setMemoryStrength(0.0);
-        state.setCurrentState("S0");
-        state.setHasEverLearned(false);
-        state.setTotalCorrect(0);
-        state.setTotalIncorrect(0);
-        state.setAverageResponseTimeMs(0L);
-        state.setReadCount(0);
-        state.setTotalReadDuration(0.0);
-        state.setAvgReadDuration(0.0);
-        state.setForgottenCount(0);
-        state.setLastForgottenTime(null);
-        state.setLastReviewTime(LocalDateTime.now());
-        state.setLastReadTime(null);
-        state.setNextReviewPriority(0.0);
-
-        return state;
+        // 關聯到已載入的使用者與目錄單字，避免 LAZY 關聯再查詢
+        upsert.state().setUser(user);
+        upsert.state().setWord(word);
+        return upsert;
     }
 
-    private void saveReviewHistory(User user, Word word, InteractionType type,
-                                   long durationMs, Boolean isCorrect, LocalDateTime reviewTime) {
+    private ReviewHistory newReviewHistory(User user, Word word, InteractionType type,
+                                           long durationMs, Boolean isCorrect, LocalDateTime reviewTime) {
 
         ReviewHistory history = new ReviewHistory();
         history.setUser(user);
@@ -444,19 +746,6 @@ public class ReviewService {
         history.setReviewTime(reviewTime);
         history.setDurationMs(durationMs);
         history.setIsCorrect(isCorrect);
-
-        reviewHistoryRepository.save(history);
-    }
-
-    // ==================== 輔助類別 ====================
-
-    private static class ScoredWordState {
-        WordState wordState;
-        double priority;
-
-        ScoredWordState(WordState ws, double priority) {
-            this.wordState = ws;
-            this.priority = priority;
-        }
+        return history;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,174 @@
+package com.example.wordrecommend_backend.service;
+
+import com.example.wordrecommend_backend.entity.User;
+import com.example.wordrecommend_backend.repository.WordStateRepository;
+import com.example.wordrecommend_backend.util.CompressedBitmap;
+import com.example.wordrecommend_backend.util.TransactionUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 使用者已接觸單字索引（Touched Word Index）
+ *
+ * 設計理念：
+ * - 每個使用者一張壓縮點陣圖，記錄「已有 WordState 的單字」（稠密索引）
+ * - 新單字數量 = 目錄大小 - 點陣圖基數
+ * - 新單字過濾 = 點陣圖 contains 判斷
+ * - 取代每次推薦都執行的 NOT IN 反連接
+ *
+ * 生命週期：
+ * - 延遲建立：第一次查詢時從 word_state 載入
+ * - 增量更新：閱讀 / 答題建立新 WordState 並提交後加入
+ * - LRU 淘汰：最多保留 maxUsers 個使用者
+ * - 過期重建：超過 ttl 或單字目錄版本變更時重新載入（多節點時限制資料落差）
+ *
+ * 執行緒安全：
+ * - 點陣圖採寫入時複製，讀取端拿到的實例不會再被修改
+ * - 載入期間（資料庫讀取在鎖外）到達的標記先暫存，放入快取前合併，避免被較舊的讀取結果覆蓋
+ */
+@Service
+@Slf4j
+public class TouchedWordIndex {
+
+    private final WordStateRepository wordStateRepository;
+    private final WordCatalogService wordCatalogService;
+    private final long ttlMillis;
+    private final Map<Long, Entry> entries;
+
+    /**
+     * 正在從資料庫載入的使用者 → 載入期間收到的標記（受 entries 鎖保護）
+     */
+    private final Map<Long, PendingMarks> loading = new HashMap<>();
+
+    public TouchedWordIndex(
+            WordStateRepository wordStateRepository,
+            WordCatalogService wordCatalogService,
+            @Value("${learning.touched-words.max-users:10000}") int maxUsers,
+            @Value("${learning.touched-words.ttl-minutes:30}") long ttlMinutes) {
+
+        this.wordStateRepository = wordStateRepository;
+        this.wordCatalogService = wordCatalogService;
+        this.ttlMillis = ttlMinutes * 60_000L;
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    /**
+     * 取得使用者的已接觸單字點陣圖（唯讀，請勿修改）
+     */
+    public CompressedBitmap getTouchedWords(User user) {
+        long version = wordCatalogService.version();
+        long now = System.currentTimeMillis();
+
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(user.getId());
+        }
+
+        if (entry != null && entry.catalogVersion == version && now - entry.loadedAt <= ttlMillis) {
+            return entry.bitmap;
+        }
+
+        synchronized (entries) {
+            loading.computeIfAbsent(user.getId(), k -> new PendingMarks()).loaders++;
+        }
+
+        // 在鎖外查詢資料庫，避免阻塞其他使用者
+        CompressedBitmap loaded;
+        try {
+            loaded = wordCatalogService.toBitmap(wordStateRepository.findWordIdsByUser(user));
+        } catch (RuntimeException e) {
+            synchronized (entries) {
+                finishLoading(user.getId());
+            }
+            throw e;
+        }
+
+        synchronized (entries) {
+            // 合併載入期間提交的標記（尚未發布，可直接修改）
+            PendingMarks pending = finishLoading(user.getId());
+            for (int index : pending.indices) {
+                loaded.add(index);
+            }
+            entries.put(user.getId(), new Entry(loaded, version, now));
+        }
+
+        log.debug("Touched-word bitmap loaded for user {}: {} words, ~{} bytes",
+                user.getId(), loaded.cardinality(), loaded.estimatedSizeInBytes());
+
+        return loaded;
+    }
+
+    /**
+     * 標記使用者已接觸某單字（在目前交易提交後生效）
+     *
+     * 尚未載入的使用者不需處理，下次查詢時會從資料庫完整載入
+     */
+    public void markTouched(Long userId, Long wordId) {
+        TransactionUtil.runAfterCommit(() -> applyTouched(userId, wordId));
+    }
+
+    /**
+     * 移除使用者的快取（資料修復後使用）
+     */
+    public void invalidate(Long userId) {
+        synchronized (entries) {
+            entries.remove(userId);
+        }
+    }
+
+    private void applyTouched(Long userId, Long wordId) {
+        int index = wordCatalogService.indexOf(wordId);
+        if (index < 0) {
+            return;
+        }
+
+        synchronized (entries) {
+            PendingMarks pending = loading.get(userId);
+            if (pending != null) {
+                pending.indices.add(index);
+            }
+
+            Entry entry = entries.get(userId);
+            if (entry == null
+                    || entry.catalogVersion != wordCatalogService.version()
+                    || entry.bitmap.contains(index)) {
+                return;
+            }
+
+            CompressedBitmap updated = entry.bitmap.copy();
+            updated.add(index);
+            entries.put(userId, new Entry(updated, entry.catalogVersion, entry.loadedAt));
+        }
+    }
+
+    /**
+     * 結束一次載入，回傳載入期間收到的標記（需持有 entries 鎖）
+     */
+    private PendingMarks finishLoading(Long userId) {
+        PendingMarks pending = loading.get(userId);
+        if (--pending.loaders == 0) {
+            loading.remove(userId);
+        }
+        return pending;
+    }
+
+    private record Entry(CompressedBitmap bitmap, long catalogVersion, long loadedAt) {
+    }
+
+    private static final class PendingMarks {
+        private int loaders;
+        private final List<Integer> indices = new ArrayList<>();
+    }
+}
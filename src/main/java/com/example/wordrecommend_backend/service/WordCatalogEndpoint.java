@@ -0,0 +1,39 @@
+package com.example.wordrecommend_backend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * 單字目錄管理端點（/actuator/wordcatalog）
+ *
+ * - GET：目前快照的版本與單字數
+ * - POST：立即重新載入（修改既有單字後使用；只作用於收到請求的節點）
+ */
+@Component
+@Endpoint(id = "wordcatalog")
+@RequiredArgsConstructor
+public class WordCatalogEndpoint {
+
+    private final WordCatalogService wordCatalogService;
+
+    @ReadOperation
+    public CatalogView catalog() {
+        return CatalogView.of(wordCatalogService);
+    }
+
+    @WriteOperation
+    public CatalogView refresh() {
+        wordCatalogService.refresh();
+        return CatalogView.of(wordCatalogService);
+    }
+
+    public record CatalogView(long version, int size) {
+
+        static CatalogView of(WordCatalogService catalog) {
+            return new CatalogView(catalog.version(), catalog.size());
+        }
+    }
+}
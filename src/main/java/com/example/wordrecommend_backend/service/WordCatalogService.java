@@ -0,0 +1,541 @@
+package com.example.wordrecommend_backend.service;
+
+import com.example.wordrecommend_backend.entity.Word;
+import com.example.wordrecommend_backend.repository.WordRepository;
+import com.example.wordrecommend_backend.util.CompressedBitmap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
+
+/**
+ * 單字目錄快照服務（In-memory Word Catalog）
+ *
+ * 設計理念：
+ * - words 表幾乎是靜態資料，不需要每次推薦 / 出題都 ORDER BY random() 全表掃描
+ * - 啟動時一次載入所有 Word，建立不可變的原始型別陣列索引
+ * - 推薦、出題、答題驗證都直接在記憶體中抽樣 / 查詢
+ *
+ * 索引：
+ * - 稠密索引（dense index）：按 id 排序後的陣列位置，0 ~ size-1
+ * - CEFR 等級 → 稠密索引陣列
+ * - 詞性 → 稠密索引陣列
+ * - 詞性 → 依複雜度排序的原始型別陣列（複雜度範圍 = 二分搜尋出的一段連續區間）
+ *
+ * 重新載入：
+ * - 每個節點定期比對 words 的總數與最大 ID（learning.catalog.refresh-check-ms），不同時重新載入
+ * - 既有單字的欄位修改不會改變總數與最大 ID，需由管理端點觸發（POST /actuator/wordcatalog，僅作用於收到請求的節點）
+ *
+ * 注意：
+ * - 快照中的 Word 為 detached 實體，呼叫端不可修改其欄位
+ * - 快照以 volatile 引用整體替換，讀取端無需加鎖
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WordCatalogService {
+
+    private final WordRepository wordRepository;
+
+    private volatile Snapshot snapshot;
+
+    private long nextVersion = 1;
+
+    // ==================== 生命週期 ====================
+
+    /**
+     * 應用啟動完成後載入目錄
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        refresh();
+    }
+
+    /**
+     * 重新載入整個目錄（單字資料變更後呼叫）
+     */
+    public synchronized void refresh() {
+        long start = System.currentTimeMillis();
+
+        List<Word> words = wordRepository.findAll();
+        this.snapshot = Snapshot.build(words, nextVersion++);
+
+        log.info("✅ 單字目錄載入完成: {} 個單字, {} 個等級, {} 個詞性, 耗時 {} ms",
+                snapshot.size(), snapshot.byLevel.size(), snapshot.byPartOfSpeech.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 單字有新增或刪除時重新載入（只查詢總數與最大 ID）
+     *
+     * 每個節點各自持有快照，因此不加 @SingleNodeJob
+     *
+     * @return 是否重新載入
+     */
+    @Scheduled(fixedDelayString = "${learning.catalog.refresh-check-ms:60000}",
+            initialDelayString = "${learning.catalog.refresh-check-ms:60000}")
+    public boolean refreshIfChanged() {
+        Snapshot s = this.snapshot;
+        WordRepository.CatalogSignature signature = wordRepository.findCatalogSignature();
+
+        if (s != null && signature.getTotal() == s.size() && signature.getMaxId() == s.maxId()) {
+            return false;
+        }
+
+        log.info("🔄 單字目錄已變更: {} → {} 個單字，重新載入", s == null ? 0 : s.size(), signature.getTotal());
+        refresh();
+        return true;
+    }
+
+    /**
+     * 取得目前快照（同套件內需要一致性讀取多個欄位時使用）
+     */
+    Snapshot currentSnapshot() {
+        Snapshot s = this.snapshot;
+        if (s == null) {
+            synchronized (this) {
+                if (this.snapshot == null) {
+                    refresh();
+                }
+                s = this.snapshot;
+            }
+        }
+        return s;
+    }
+
+    // ==================== 查詢 ====================
+
+    /**
+     * 目錄中的單字總數
+     */
+    public int size() {
+        return currentSnapshot().size();
+    }
+
+    /**
+     * 依 ID 查詢單字（不在快照中時退回資料庫查詢）
+     */
+    public Optional<Word> findById(Long wordId) {
+        if (wordId == null) {
+            return Optional.empty();
+        }
+
+        Snapshot s = currentSnapshot();
+        int index = s.indexOf(wordId);
+        if (index >= 0) {
+            return Optional.of(s.words[index]);
+        }
+
+        log.debug("Word {} not in catalog snapshot, falling back to database", wordId);
+        return wordRepository.findById(wordId);
+    }
+
+    /**
+     * 依 ID 查詢單字，找不到時拋出例外
+     */
+    public Word getById(Long wordId) {
+        return findById(wordId)
+                .orElseThrow(() -> {
+                    log.error("Word not found: wordId={}", wordId);
+                    return new RuntimeException("Word not found: " + wordId);
+                });
+    }
+
+    /**
+     * 判斷單字是否存在於目錄
+     */
+    public boolean contains(Long wordId) {
+        return wordId != null && currentSnapshot().indexOf(wordId) >= 0;
+    }
+
+    /**
+     * 目前快照的版本號（每次 refresh 遞增，稠密索引隨之失效）
+     */
+    public long version() {
+        return currentSnapshot().version;
+    }
+
+    /**
+     * 單字 ID → 稠密索引（不在目錄中時回傳 -1）
+     */
+    public int indexOf(Long wordId) {
+        if (wordId == null) {
+            return -1;
+        }
+        int index = currentSnapshot().indexOf(wordId);
+        return index >= 0 ? index : -1;
+    }
+
+    /**
+     * 將單字 ID 集合轉換為稠密索引點陣圖（不在目錄中的 ID 會被忽略）
+     */
+    public CompressedBitmap toBitmap(Collection<Long> wordIds) {
+        Snapshot s = currentSnapshot();
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (Long id : wordIds) {
+            if (id == null) continue;
+            int index = s.indexOf(id);
+            if (index >= 0) {
+                bitmap.add(index);
+            }
+        }
+        return bitmap;
+    }
+
+    // ==================== 隨機抽樣 ====================
+
+    /**
+     * 從指定 CEFR 等級隨機抽取單字
+     *
+     * @param level CEFR 等級（A1 ~ C2）
+     * @param count 需要的數量
+     * @param exclude 排除條件（參數為 word id，回傳 true 表示排除）
+     * @return 隨機單字列表（可能少於 count）
+     */
+    public List<Word> sampleByLevel(String level, int count, LongPredicate exclude) {
+        Snapshot s = currentSnapshot();
+        return s.sample(s.byLevel.get(level), count, s.byId(exclude));
+    }
+
+    /**
+     * 從指定 CEFR 等級隨機抽取不在點陣圖中的單字（點陣圖以稠密索引表示）
+     */
+    public List<Word> sampleByLevelExcluding(String level, int count, CompressedBitmap excluded) {
+        Snapshot s = currentSnapshot();
+        return s.sample(s.byLevel.get(level), count, excluded::contains);
+    }
+
+    /**
+     * 從整個目錄隨機抽取單字
+     */
+    public List<Word> sampleAny(int count, LongPredicate exclude) {
+        Snapshot s = currentSnapshot();
+        return s.sample(s.all, count, s.byId(exclude));
+    }
+
+    /**
+     * 從整個目錄隨機抽取不在點陣圖中的單字
+     */
+    public List<Word> sampleAnyExcluding(int count, CompressedBitmap excluded) {
+        Snapshot s = currentSnapshot();
+        return s.sample(s.all, count, excluded::contains);
+    }
+
+    /**
+     * 同詞性隨機抽取（排除指定單字）
+     */
+    public List<Word> sampleByPartOfSpeech(String partOfSpeech, Long excludeWordId, int count) {
+        Snapshot s = currentSnapshot();
+        long excluded = excludeWordId == null ? -1L : excludeWordId;
+        return s.sample(s.byPartOfSpeech.get(partOfSpeech), count, i -> s.ids[i] == excluded);
+    }
+
+    /**
+     * 同詞性 + 複雜度範圍隨機抽取（排除指定單字）
+     *
+     * 以二分搜尋找出 [min, max] 在排序陣列中的區間，再以蓄水池抽樣取 count 個
+     */
+    public List<Word> sampleByPartOfSpeechAndComplexity(
+            String partOfSpeech,
+            double complexityMin,
+            double complexityMax,
+            Long excludeWordId,
+            int count) {
+
+        Snapshot s = currentSnapshot();
+        long excluded = excludeWordId == null ? -1L : excludeWordId;
+        return s.sampleComplexityRange(partOfSpeech, complexityMin, complexityMax, count, i -> s.ids[i] == excluded);
+    }
+
+    /**
+     * 干擾選項抽樣：同詞性、難度相近，候選不足時逐步放寬
+     *
+     * 放寬順序（與原本的資料庫查詢相同）：
+     * 1. 複雜度 ±0.2
+     * 2. 複雜度 ±0.4
+     * 3. 只要同詞性
+     *
+     * 三個階段都在同一份快照上計算，純 CPU、不存取資料庫
+     *
+     * @param partOfSpeech 詞性
+     * @param complexity 主題單字的複雜度（null 視為 1.0，與快照一致）
+     * @param excludeWordId 主題單字 ID
+     * @param count 需要的數量
+     * @return 隨機單字列表（可能少於 count）
+     */
+    public List<Word> sampleDistractors(String partOfSpeech, Double complexity, Long excludeWordId, int count) {
+        Snapshot s = currentSnapshot();
+        double center = complexity == null ? 1.0 : complexity;
+        long excluded = excludeWordId == null ? -1L : excludeWordId;
+        IntPredicate exclude = i -> s.ids[i] == excluded;
+
+        List<Word> picked = s.sampleComplexityRange(partOfSpeech, center - 0.2, center + 0.2, count, exclude);
+
+        if (picked.size() < count) {
+            picked = s.sampleComplexityRange(partOfSpeech, center - 0.4, center + 0.4, count, exclude);
+        }
+        if (picked.size() < count) {
+            picked = s.sample(s.byPartOfSpeech.get(partOfSpeech), count, exclude);
+        }
+
+        return picked;
+    }
+
+    // ==================== 內部類別：不可變快照 ====================
+
+    static final class Snapshot {
+
+        private static final int[] EMPTY = new int[0];
+
+        final long version;
+
+        /** 按 id 升冪排序的單字 id */
+        final long[] ids;
+        /** 與 ids 對齊的單字實體 */
+        final Word[] words;
+        /** 與 ids 對齊的複雜度分數 */
+        final double[] complexity;
+        /** 所有稠密索引 0 ~ size-1 */
+        final int[] all;
+
+        final Map<String, int[]> byLevel;
+        final Map<String, int[]> byPartOfSpeech;
+        final Map<String, ComplexityIndex> byPartOfSpeechAndComplexity;
+
+        private Snapshot(long version, long[] ids, Word[] words, double[] complexity,
+                         Map<String, int[]> byLevel,
+                         Map<String, int[]> byPartOfSpeech,
+                         Map<String, ComplexityIndex> byPartOfSpeechAndComplexity) {
+            this.version = version;
+            this.ids = ids;
+            this.words = words;
+            this.complexity = complexity;
+            this.all = new int[ids.length];
+            for (int i = 0; i < all.length; i++) {
+                all[i] = i;
+            }
+            this.byLevel = byLevel;
+            this.byPartOfSpeech = byPartOfSpeech;
+            this.byPartOfSpeechAndComplexity = byPartOfSpeechAndComplexity;
+        }
+
+        static Snapshot build(List<Word> source, long version) {
+            List<Word> sorted = new ArrayList<>(source.size());
+            for (Word w : source) {
+                if (w != null && w.getId() != null) {
+                    sorted.add(w);
+                }
+            }
+            sorted.sort(Comparator.comparing(Word::getId));
+
+            int n = sorted.size();
+            long[] ids = new long[n];
+            Word[] words = new Word[n];
+            double[] complexity = new double[n];
+
+            Map<String, List<Integer>> levelLists = new HashMap<>();
+            Map<String, List<Integer>> posLists = new HashMap<>();
+
+            for (int i = 0; i < n; i++) {
+                Word w = sorted.get(i);
+                ids[i] = w.getId();
+                words[i] = w;
+                complexity[i] = w.getComplexityScore() == null ? 1.0 : w.getComplexityScore();
+
+                levelLists.computeIfAbsent(w.getCefrLevel(), k -> new ArrayList<>()).add(i);
+                posLists.computeIfAbsent(w.getPartOfSpeech(), k -> new ArrayList<>()).add(i);
+            }
+
+            Map<String, int[]> byLevel = new HashMap<>();
+            levelLists.forEach((k, v) -> byLevel.put(k, toArray(v)));
+
+            Map<String, int[]> byPos = new HashMap<>();
+            posLists.forEach((k, v) -> byPos.put(k, toArray(v)));
+
+            Map<String, ComplexityIndex> byPosAndComplexity = new HashMap<>();
+            byPos.forEach((k, v) -> byPosAndComplexity.put(k, ComplexityIndex.build(v, complexity)));
+
+            return new Snapshot(version, ids, words, complexity, byLevel, byPos, byPosAndComplexity);
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        long maxId() {
+            return ids.length == 0 ? 0L : ids[ids.length - 1];
+        }
+
+        int indexOf(long wordId) {
+            return Arrays.binarySearch(ids, wordId);
+        }
+
+        /**
+         * 將以單字 ID 判斷的排除條件轉為以稠密索引判斷
+         */
+        IntPredicate byId(LongPredicate exclude) {
+            return exclude == null ? null : i -> exclude.test(ids[i]);
+        }
+
+        /**
+         * 從詞性下複雜度落在 [min, max] 的單字中隨機抽取 count 個
+         *
+         * 二分搜尋定出區間後以蓄水池抽樣走訪一次，不複製陣列
+         */
+        List<Word> sampleComplexityRange(String partOfSpeech, double min, double max,
+                                         int count, IntPredicate excludeIndex) {
+            ComplexityIndex index = byPartOfSpeechAndComplexity.get(partOfSpeech);
+            if (index == null || count <= 0 || min > max) {
+                return new ArrayList<>();
+            }
+
+            int from = index.lowerBound(min);
+            int to = index.upperBound(max);
+            return reservoirSample(index.indices, from, to, count, excludeIndex);
+        }
+
+        /**
+         * 蓄水池抽樣（Algorithm R）：從 pool[from, to) 均勻抽取 count 個未被排除的項目
+         */
+        List<Word> reservoirSample(int[] pool, int from, int to, int count, IntPredicate excludeIndex) {
+            int[] reservoir = new int[count];
+            int seen = 0;
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+
+            for (int p = from; p < to; p++) {
+                int candidate = pool[p];
+                if (excludeIndex != null && excludeIndex.test(candidate)) {
+                    continue;
+                }
+
+                if (seen < count) {
+                    reservoir[seen] = candidate;
+                } else {
+                    int j = random.nextInt(seen + 1);
+                    if (j < count) {
+                        reservoir[j] = candidate;
+                    }
+                }
+                seen++;
+            }
+
+            int picked = Math.min(seen, count);
+            List<Word> out = new ArrayList<>(picked);
+            for (int i = 0; i < picked; i++) {
+                out.add(words[reservoir[i]]);
+            }
+            return out;
+        }
+
+        /**
+         * 從候選池中隨機抽取 count 個（惰性 Fisher-Yates，遇到排除項目就跳過）
+         *
+         * 不複製候選池：只把交換過的位置記在稀疏對照表中，成本與抽取／跳過的次數成正比
+         */
+        List<Word> sample(int[] pool, int count, IntPredicate excludeIndex) {
+            if (pool == null || pool.length == 0 || count <= 0) {
+                return new ArrayList<>();
+            }
+
+            // 位置 → 交換後的值（未記錄的位置仍為 pool 原值）
+            Map<Integer, Integer> swapped = new HashMap<>();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            List<Word> out = new ArrayList<>(Math.min(count, pool.length));
+
+            for (int i = 0; i < pool.length && out.size() < count; i++) {
+                int j = i + random.nextInt(pool.length - i);
+                int picked = swapped.getOrDefault(j, pool[j]);
+                swapped.put(j, swapped.getOrDefault(i, pool[i]));
+
+                if (excludeIndex != null && excludeIndex.test(picked)) {
+                    continue;
+                }
+                out.add(words[picked]);
+            }
+
+            return out;
+        }
+
+        private static int[] toArray(List<Integer> list) {
+            int[] arr = new int[list.size()];
+            for (int i = 0; i < arr.length; i++) {
+                arr[i] = list.get(i);
+            }
+            return arr;
+        }
+    }
+
+    /**
+     * 單一詞性的複雜度索引：依複雜度升冪排序的稠密索引，與其複雜度對齊
+     */
+    static final class ComplexityIndex {
+
+        /** 升冪排序的複雜度 */
+        final double[] complexity;
+        /** 與 complexity 對齊的稠密索引 */
+        final int[] indices;
+
+        private ComplexityIndex(double[] complexity, int[] indices) {
+            this.complexity = complexity;
+            this.indices = indices;
+        }
+
+        static ComplexityIndex build(int[] members, double[] complexityByIndex) {
+            // members 已依稠密索引升冪排列，穩定排序後同分者維持索引順序（建置結果可重現）
+            Integer[] order = new Integer[members.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = members[i];
+            }
+            Arrays.sort(order, Comparator.comparingDouble(i -> complexityByIndex[i]));
+
+            int[] indices = new int[order.length];
+            double[] values = new double[order.length];
+            for (int i = 0; i < order.length; i++) {
+                indices[i] = order[i];
+                values[i] = complexityByIndex[indices[i]];
+            }
+            return new ComplexityIndex(values, indices);
+        }
+
+        /**
+         * 第一個複雜度 >= value 的位置
+         */
+        int lowerBound(double value) {
+            int lo = 0;
+            int hi = complexity.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (complexity[mid] < value) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        /**
+         * 第一個複雜度 > value 的位置
+         */
+        int upperBound(double value) {
+            int lo = 0;
+            int hi = complexity.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (complexity[mid] <= value) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.wordrecommend_backend.task;
+
+import com.example.wordrecommend_backend.service.LearningSummaryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * 學習統計重建任務（資料修復用）
+ *
+ * 使用方式：
+ * - 設定 learning.summary.rebuild-on-startup=true 後啟動一次
+ * - 啟動完成後由 word_state 重建所有使用者的 user_learning_summary
+ * - 修復完成後請改回 false，避免每次啟動都全量掃描
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LearningSummaryRebuildTask {
+
+    private final LearningSummaryService learningSummaryService;
+
+    @Value("${learning.summary.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (!rebuildOnStartup) {
+            return;
+        }
+
+        log.warn("🟡 learning.summary.rebuild-on-startup 已啟用，開始重建學習統計");
+
+        try {
+            learningSummaryService.rebuildAll();
+        } catch (Exception e) {
+            log.error("❌ 學習統計重建失敗", e);
+        }
+    }
+}
@@ -1,26 +1,52 @@
 package com.example.wordrecommend_backend.task;
 
+import com.example.wordrecommend_backend.aspect.SingleNodeJob;
+import com.example.wordrecommend_backend.config.AlgorithmConfig;
+import com.example.wordrecommend_backend.config.DecayConfig;
+import com.example.wordrecommend_backend.entity.DecayRetry;
+import com.example.wordrecommend_backend.entity.DecayShardProgress;
 import com.example.wordrecommend_backend.entity.User;
-import com.example.wordrecommend_backend.entity.Word;
 import com.example.wordrecommend_backend.entity.WordState;
+import com.example.wordrecommend_backend.repository.DecayRetryRepository;
+import com.example.wordrecommend_backend.repository.DecayShardProgressRepository;
 import com.example.wordrecommend_backend.repository.UserRepository;
 import com.example.wordrecommend_backend.repository.WordStateRepository;
+import com.example.wordrecommend_backend.repository.WordStateRepositoryCustom;
 import com.example.wordrecommend_backend.service.AlgorithmCoreService;
-import com.example.wordrecommend_backend.util.TimeUtil;
-import lombok.RequiredArgsConstructor;
+import com.example.wordrecommend_backend.service.JobLockService;
+import com.example.wordrecommend_backend.service.LearningSummaryService;
+import com.example.wordrecommend_backend.service.WordCatalogService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 記憶衰減定時任務（Phase 7）
  *
  * 責任：
- * - 每天定時執行（默認 00:00:00）
+ * - 每天定時執行（使用者分片錯開，分片 k 在 00:00 + k × (24h / shards) 執行）
  * - 遍歷所有使用者的 WordState
  * - 根據 FSM 狀態應用不同的衰減幅度
  * - 自動更新 memory_strength 和 current_state
@@ -32,131 +58,577 @@ import java.util.List;
  * - S3（已精通）：衰減幅度小（0.03/天）
  * - S-1（已遺忘）：不衰減（已標記遺忘，等待複習）
  *
+ * 執行方式：
+ * - 使用者 ID 以 keyset 分頁載入（WHERE id > ? ORDER BY id LIMIT ?）
+ * - 每位使用者在自己的短交易中處理，由有界執行緒池平行執行（執行緒數不超過連線池大小 - 1）
+ * - 每位使用者的 WordState 分批載入，每批 flush（JDBC 批次更新）後清空持久化內容
+ * - 單一使用者失敗只回滾該使用者，不影響其他使用者
+ *
+ * 衰減策略（learning.decay.strategy）：
+ * - entity（預設）：逐筆載入 WordState，以 Java 計算後由 Hibernate 批次寫回
+ * - sql：每段使用者（sql-slice-users 個）一個集合式 UPDATE，資料庫循序掃描，不經過實體往返；
+ *   統計由 word_state 重新計數
+ *
+ * 延遲衰減模式（learning.decay.mode=lazy）下不執行，改由讀取時推算
+ *
  * @author kimonos-test
  * @version 1.0
  * @since Phase 7
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class MemoryDecayTask {
 
+    /**
+     * 寫入衝突（使用者同時在閱讀 / 答題）時，每個工作單位（使用者或使用者分段）的最多嘗試次數
+     */
+    private static final int MAX_ATTEMPTS = 3;
+
+    /**
+     * 叢集任務鎖名稱
+     */
+    static final String JOB_NAME = "memory-decay";
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
     private final UserRepository userRepository;
     private final WordStateRepository wordStateRepository;
     private final AlgorithmCoreService algorithmCoreService;
+    private final LearningSummaryService learningSummaryService;
+    private final WordCatalogService wordCatalogService;
+    private final DecayConfig decayConfig;
+    private final AlgorithmConfig algorithmConfig;
+    private final DecayShardProgressRepository progressRepository;
+    private final DecayRetryRepository retryRepository;
+    private final JobLockService jobLockService;
+    private final TransactionTemplate transactionTemplate;
+    private final int connectionPoolSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public MemoryDecayTask(
+            UserRepository userRepository,
+            WordStateRepository wordStateRepository,
+            AlgorithmCoreService algorithmCoreService,
+            LearningSummaryService learningSummaryService,
+            WordCatalogService wordCatalogService,
+            DecayConfig decayConfig,
+            AlgorithmConfig algorithmConfig,
+            DecayShardProgressRepository progressRepository,
+            DecayRetryRepository retryRepository,
+            JobLockService jobLockService,
+            PlatformTransactionManager transactionManager,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize) {
+
+        this.userRepository = userRepository;
+        this.wordStateRepository = wordStateRepository;
+        this.algorithmCoreService = algorithmCoreService;
+        this.learningSummaryService = learningSummaryService;
+        this.wordCatalogService = wordCatalogService;
+        this.decayConfig = decayConfig;
+        this.algorithmConfig = algorithmConfig;
+        this.progressRepository = progressRepository;
+        this.retryRepository = retryRepository;
+        this.jobLockService = jobLockService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.connectionPoolSize = connectionPoolSize;
+    }
 
-    // ==================== 定時任務：每天凌晨執行 ====================
+    // ==================== 定時任務：分片錯開執行 ====================
 
     /**
-     * 每天凌晨 00:00:00 執行定時衰減
+     * 分片排程檢查（預設每 5 分鐘一次）
      *
-     * Cron 表達式說明：
-     * - 秒：0（第 0 秒）
-     * - 分：0（第 0 分）
-     * - 時：0（凌晨 0 點）
-     * - 日：*（每天）
-     * - 月：*（每月）
-     * - 星期：?（不指定）
+     * 分片方式：
+     * - 使用者依 user_id MOD shards 分為 shards 個分片（預設 24，每小時一個）
+     * - 分片 k 在每天 00:00 + k × (24h / shards) 執行，原本集中在午夜的負載攤平到整天
+     * - 使用者資料沒有時區欄位，因此以 user_id 分片；同一使用者每天固定在同一時間衰減
      *
-     * 時區：根據 application.properties 中的 spring.jpa.properties.hibernate.jdbc.time_zone
+     * 補做：
+     * - 每個分片在 decay_shard_progress 記錄已完成的最後日期
+     * - 已到期但尚未完成的日期（包含停機錯過的）依序補做，每個日期衰減一次，最多補 max-catch-up-days 天
+     * - 處理失敗的使用者記錄在 decay_retry，下一次檢查時只重試這些使用者（已成功的不重複衰減）
+     *
+     * 時區：伺服器時區（與原本的午夜排程相同）
+     *
+     * 多節點：由 scheduled_job_lock 租約保證同一時間只有一個節點執行；
+     * 租約被其他節點接手時，在分片、使用者分頁之間中止，並記錄續做位置
      */
-    @Scheduled(cron = "0 0 0 * * ?")
-    @Transactional
+    @Scheduled(cron = "${learning.decay.tick-cron:0 */5 * * * ?}")
+    @SingleNodeJob(name = JOB_NAME, leaseSeconds = 900)
     public void decayAllUserMemories() {
 
-        log.info("🔵 ========== 開始每日記憶衰減任務 ==========");
-        log.info("執行時間: {}", LocalDateTime.now());
+        if (decayConfig.isLazy()) {
+            log.debug("⏭️ 延遲衰減模式（learning.decay.mode=lazy），略過每日記憶衰減任務");
+            return;
+        }
+
+        int shards = shardCount();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int shard = 0; shard < shards; shard++) {
+            if (leaseLost()) {
+                log.warn("⚠️ 租約已被其他節點接手，中止每日記憶衰減任務（分片 {} 起未執行）", shard);
+                return;
+            }
+            try {
+                runShardIfDue(shard, shards, now);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("⚠️ 每日記憶衰減任務被中斷");
+                return;
+            } catch (Exception e) {
+                log.error("❌ 分片 {} 的每日記憶衰減任務發生嚴重錯誤!", shard, e);
+            }
+        }
+    }
+
+    /**
+     * 執行分片所有已到期、尚未完成的日期（先重試上次失敗的使用者）
+     */
+    void runShardIfDue(int shard, int shards, LocalDateTime now) throws InterruptedException {
+
+        LocalDate today = now.toLocalDate();
+        DecayShardProgress progress = progressRepository.findById(shard)
+                .orElseGet(() -> createProgress(shard, shards, now));
+
+        LocalDate next = progress.getLastDecayDate().plusDays(1);
+        LocalDate earliest = today.minusDays(Math.max(1, decayConfig.getMaxCatchUpDays()) - 1L);
+        if (next.isBefore(earliest)) {
+            log.warn("⚠️ 分片 {} 已錯過 {} 天，只補做最近 {} 天",
+                    shard, ChronoUnit.DAYS.between(next, today) + 1, decayConfig.getMaxCatchUpDays());
+            next = earliest;
+        }
+
+        retryFailedUsers(shard, earliest);
+
+        while (!next.isAfter(today) && !now.isBefore(shardDueTime(next, shard, shards))) {
+
+            log.info("🔵 ========== 開始每日記憶衰減任務（分片 {}/{}, 日期 {}）==========", shard, shards, next);
+            LocalDateTime startedAt = LocalDateTime.now();
+
+            long resumeAfterId = next.equals(progress.getResumeDate()) && progress.getResumeAfterUserId() != null
+                    ? progress.getResumeAfterUserId()
+                    : 0L;
+            if (resumeAfterId > 0) {
+                log.info("分片 {} 日期 {} 上次中止，從使用者 {} 之後繼續", shard, next, resumeAfterId);
+            }
+
+            DecayRunResult result = runDecay(shards, shard, resumeAfterId);
+
+            if (result.aborted()) {
+                // 已處理的使用者不重做：記錄續做位置，日期不推進
+                DecayShardProgress interrupted = progress;
+                LocalDate decayDate = next;
+                interrupted.setResumeDate(decayDate);
+                interrupted.setResumeAfterUserId(result.lastUserId());
+                transactionTemplate.executeWithoutResult(status -> {
+                    saveRetries(shard, decayDate, result.failedUserIds());
+                    progressRepository.save(interrupted);
+                });
+
+                log.warn("⚠️ 分片 {} 日期 {} 因租約遺失中止，已處理到使用者 {}", shard, decayDate, result.lastUserId());
+                return;
+            }
+
+            log.info("✅ 每日記憶衰減任務完成!（分片 {}/{}, 日期 {}）", shard, shards, next);
+            log.info("總計: {} 個使用者, {} 個 WordState 已更新", result.users(), result.rows());
+            log.info("錯誤: {} 個工作單位處理失敗（entity: 使用者, sql: 使用者分段）", result.errors());
+            log.info("執行耗時: {} ms（{} users/s, {} rows/s）",
+                    result.durationMs(),
+                    String.format("%.1f", result.usersPerSecond()),
+                    String.format("%.1f", result.rowsPerSecond()));
+
+            // 推進進度與記錄失敗使用者在同一交易內：失敗的使用者只由 retryFailedUsers 補做
+            DecayShardProgress completed = progress;
+            LocalDate decayDate = next;
+            completed.setShardCount(shards);
+            completed.setLastDecayDate(decayDate);
+            completed.setLastStartedAt(startedAt);
+            completed.setLastFinishedAt(LocalDateTime.now());
+            completed.setLastUsers(result.users());
+            completed.setLastRows(result.rows());
+            completed.setLastDurationMs(result.durationMs());
+            completed.setResumeDate(null);
+            completed.setResumeAfterUserId(null);
+            progress = transactionTemplate.execute(status -> {
+                saveRetries(shard, decayDate, result.failedUserIds());
+                return progressRepository.save(completed);
+            });
+
+            if (!result.failedUserIds().isEmpty()) {
+                log.warn("⚠️ 分片 {} 日期 {} 有 {} 個使用者衰減失敗，下一次檢查時重試",
+                        shard, decayDate, result.failedUserIds().size());
+            }
+
+            next = next.plusDays(1);
+        }
+    }
+
+    private void saveRetries(int shard, LocalDate decayDate, List<Long> failedUserIds) {
+        for (Long userId : failedUserIds) {
+            retryRepository.save(new DecayRetry(shard, userId, decayDate));
+        }
+    }
+
+    /**
+     * 重試分片上次衰減失敗的使用者
+     *
+     * 每位使用者的衰減與刪除重試記錄在同一交易內，成功的不會再次執行；
+     * 失敗的保留到下一次檢查，早於補做範圍（earliest）的記錄捨棄
+     */
+    private void retryFailedUsers(int shard, LocalDate earliest) {
+        List<DecayRetry> retries = retryRepository.findByShardIdOrderByDecayDateAscUserIdAsc(shard);
+        if (retries.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int succeeded = 0;
+        int dropped = 0;
+
+        for (DecayRetry retry : retries) {
+            if (leaseLost()) {
+                log.warn("⚠️ 租約已被其他節點接手，中止衰減重試");
+                return;
+            }
+            if (retry.getDecayDate().isBefore(earliest)) {
+                retryRepository.delete(retry);
+                dropped++;
+                continue;
+            }
+
+            try {
+                inTransactionWithRetry(status -> {
+                    int updated = decayUserMemories(userRepository.getReferenceById(retry.getUserId()), now);
+                    retryRepository.deleteById(retry.getId());
+                    return updated;
+                });
+                succeeded++;
+            } catch (Exception e) {
+                log.error("❌ 使用者 {} 的衰減重試失敗（日期 {}）: {}",
+                        retry.getUserId(), retry.getDecayDate(), e.getMessage(), e);
+            }
+        }
+
+        log.info("分片 {} 衰減重試: {} 成功, {} 失敗, {} 超過補做範圍已捨棄",
+                shard, succeeded, retries.size() - succeeded - dropped, dropped);
+    }
+
+    /**
+     * 首次建立分片進度
+     *
+     * 一律視為今天已完成：升級前的午夜排程在 00:00 已衰減過今天，
+     * 若今天的執行時間尚未到就再執行一次，同一天會衰減兩次；從明天的執行時間開始
+     */
+    private DecayShardProgress createProgress(int shard, int shards, LocalDateTime now) {
+        LocalDate today = now.toLocalDate();
+
+        DecayShardProgress progress = new DecayShardProgress();
+        progress.setShardId(shard);
+        progress.setShardCount(shards);
+        progress.setLastDecayDate(today);
+
+        log.info("建立衰減分片進度: 分片 {}/{}, 最後完成日期 {}", shard, shards, progress.getLastDecayDate());
+
+        return progressRepository.save(progress);
+    }
+
+    /**
+     * 分片在指定日期的執行時間：00:00 + shard × (24h / shards)
+     */
+    static LocalDateTime shardDueTime(LocalDate date, int shard, int shards) {
+        return date.atStartOfDay().plusMinutes((long) shard * MINUTES_PER_DAY / shards);
+    }
+
+    /**
+     * 本節點的任務租約是否已被其他節點接手（未經 @SingleNodeJob 執行時為 false）
+     */
+    private boolean leaseLost() {
+        return jobLockService.isLeaseLost(JOB_NAME);
+    }
+
+    private int shardCount() {
+        return Math.max(1, Math.min(decayConfig.getShards(), MINUTES_PER_DAY));
+    }
+
+    // ==================== 執行：分頁載入使用者並平行處理 ====================
+
+    /**
+     * 以 keyset 分頁走訪分片內的使用者，交由有界執行緒池處理
+     *
+     * 提交端以號誌限制排隊中的工作數，避免一次把所有使用者 ID 放進佇列
+     *
+     * 每頁之前檢查租約，遺失時停止提交並等待已提交的工作完成，回傳已處理到的使用者 ID
+     *
+     * @param shards 分片總數（1 表示全部使用者）
+     * @param shard 分片編號
+     * @param resumeAfterId 從此使用者 ID 之後開始（0 表示從頭）
+     */
+    private DecayRunResult runDecay(int shards, int shard, long resumeAfterId) throws InterruptedException {
 
         long startTime = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
 
-        try {
-            // ========== 步驟 1：獲取所有使用者 ==========
-            List<User> allUsers = userRepository.findAll();
+        int workers = effectiveWorkers();
+        boolean setBased = decayConfig.isSetBased();
+        int pageSize = Math.max(1, setBased ? decayConfig.getSqlSliceUsers() : decayConfig.getUserPageSize());
+        ExecutorService executor = newWorkerPool(workers);
+        Semaphore inFlight = new Semaphore(workers * 2);
 
-            log.info("開始處理 {} 個使用者的記憶衰減", allUsers.size());
+        LongAdder users = new LongAdder();
+        LongAdder rows = new LongAdder();
+        LongAdder errors = new LongAdder();
+        Queue<Long> failedUserIds = new ConcurrentLinkedQueue<>();
 
-            // ========== 步驟 2：為每個使用者執行衰減 ==========
-            int totalUpdated = 0;
-            int totalErrors = 0;
+        log.info("衰減策略: {}, 執行緒: {}（連線池 {}）, 使用者分頁: {}, WordState 分批: {}",
+                decayConfig.getStrategy(), workers, connectionPoolSize, pageSize, decayConfig.getChunkSize());
 
-            for (User user : allUsers) {
-                try {
-                    int updated = decayUserMemories(user);
-                    totalUpdated += updated;
+        long afterId = resumeAfterId;
+        boolean aborted = false;
 
-                    log.debug("使用者 {} 完成: 更新了 {} 個 WordState",
-                            user.getId(), updated);
+        try {
+            while (true) {
+                if (leaseLost()) {
+                    aborted = true;
+                    break;
+                }
 
-                } catch (Exception e) {
-                    totalErrors++;
-                    log.error("❌ 使用者 {} 的衰減任務失敗: {}",
-                            user.getId(), e.getMessage(), e);
+                List<Long> userIds = userRepository.findIdsInShardAfter(
+                        afterId, shards, shard, PageRequest.of(0, pageSize));
+                if (userIds.isEmpty()) {
+                    break;
                 }
+
+                if (setBased) {
+                    // 一頁使用者即一段：以 ID 範圍（加上分片條件）執行集合式 UPDATE
+                    WordStateRepositoryCustom.UserSlice slice = new WordStateRepositoryCustom.UserSlice(
+                            userIds.get(0), userIds.get(userIds.size() - 1), shards, shard);
+                    int sliceUsers = userIds.size();
+
+                    submit(executor, inFlight, errors, failedUserIds, userIds, "使用者分段 " + slice, () -> {
+                        int updated = inTransactionWithRetry(status -> decayUserRange(slice, now));
+                        rows.add(updated);
+                        users.add(sliceUsers);
+
+                        log.debug("使用者分段 {} 完成: 更新了 {} 個 WordState", slice, updated);
+                    });
+                } else {
+                    for (Long userId : userIds) {
+                        submit(executor, inFlight, errors, failedUserIds, List.of(userId), "使用者 " + userId, () -> {
+                            int updated = inTransactionWithRetry(
+                                    status -> decayUserMemories(userRepository.getReferenceById(userId), now));
+                            rows.add(updated);
+                            users.increment();
+
+                            log.debug("使用者 {} 完成: 更新了 {} 個 WordState", userId, updated);
+                        });
+                    }
+                }
+
+                afterId = userIds.get(userIds.size() - 1);
+                if (userIds.size() < pageSize) {
+                    break;
+                }
+            }
+        } finally {
+            executor.shutdown();
+            if (!executor.awaitTermination(1, TimeUnit.HOURS)) {
+                log.warn("⚠️ 衰減執行緒池在 1 小時內未結束，強制中止");
+                executor.shutdownNow();
             }
+        }
+
+        return new DecayRunResult(users.sum(), rows.sum(), errors.sum(),
+                System.currentTimeMillis() - startTime, List.copyOf(failedUserIds), afterId, aborted);
+    }
 
-            // ========== 步驟 3：日誌總結 ==========
-            long duration = System.currentTimeMillis() - startTime;
+    /**
+     * 執行緒數：設定值，但不超過連線池大小 - 1（至少 1）
+     */
+    private int effectiveWorkers() {
+        int limit = Math.max(1, connectionPoolSize - 1);
+        return Math.max(1, Math.min(decayConfig.getWorkers(), limit));
+    }
+
+    private static ExecutorService newWorkerPool(int workers) {
+        AtomicInteger sequence = new AtomicInteger();
+        return new ThreadPoolExecutor(
+                workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workers * 2),
+                r -> {
+                    Thread t = new Thread(r, "memory-decay-" + sequence.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }
+        );
+    }
+
+    /**
+     * 交由執行緒池執行一個工作單位；失敗只記錄（含該單位的使用者 ID），不影響其他工作
+     */
+    private static void submit(ExecutorService executor,
+                               Semaphore inFlight,
+                               LongAdder errors,
+                               Queue<Long> failedUserIds,
+                               List<Long> unitUserIds,
+                               String label,
+                               Runnable work) throws InterruptedException {
+        inFlight.acquire();
+        executor.execute(() -> {
+            try {
+                work.run();
+            } catch (Exception e) {
+                errors.increment();
+                failedUserIds.addAll(unitUserIds);
+                log.error("❌ {} 的衰減任務失敗: {}", label, e.getMessage(), e);
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
 
-            log.info("✅ 每日記憶衰減任務完成!");
-            log.info("總計: {} 個 WordState 已更新", totalUpdated);
-            log.info("錯誤: {} 個使用者處理失敗", totalErrors);
-            log.info("執行耗時: {} ms", duration);
-            log.info("🔵 ========== 結束每日記憶衰減任務 ==========");
+    /**
+     * 在獨立交易中執行；寫入衝突（樂觀鎖、死結）時整個工作單位重新讀取後重試
+     */
+    private int inTransactionWithRetry(TransactionCallback<Integer> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Integer updated = transactionTemplate.execute(work);
+                return updated == null ? 0 : updated;
 
-        } catch (Exception e) {
-            log.error("❌ 每日記憶衰減任務發生嚴重錯誤!", e);
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("衰減時發生寫入衝突，重試（第 {} 次）: {}", attempt, e.getMessage());
+            }
         }
     }
 
     // ==================== 核心邏輯：為使用者衰減記憶 ====================
 
     /**
-     * 為單個使用者的所有 WordState 應用衰減
+     * 為單個使用者的所有 WordState 應用衰減（須在交易內呼叫）
+     *
+     * WordState 以 ID 遊標分批載入；每批修改後 flush（hibernate.jdbc.batch_size 批次 UPDATE），
+     * 再清空持久化內容，記憶體用量與使用者的單字數無關
      *
      * @param user 目標使用者
+     * @param now 本次衰減時間（整次任務共用）
      * @return 更新的 WordState 數量
      */
-    private int decayUserMemories(User user) {
+    private int decayUserMemories(User user, LocalDateTime now) {
 
         log.debug("🟡 開始衰減使用者 {} 的記憶", user.getId());
 
-        // 獲取該使用者的所有 WordState
-        List<WordState> allWordStates = wordStateRepository.findByUser(user);
-
-        log.trace("使用者 {} 擁有 {} 個 WordState", user.getId(), allWordStates.size());
-
-        LocalDateTime now = LocalDateTime.now();
+        int chunkSize = Math.max(1, decayConfig.getChunkSize());
         int updated = 0;
+        LearningSummaryService.StateDelta delta = new LearningSummaryService.StateDelta();
+        long afterId = 0L;
+
+        while (true) {
+            List<WordState> chunk = wordStateRepository.findByUserAfterId(
+                    user, afterId, PageRequest.of(0, chunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
 
-        for (WordState state : allWordStates) {
-            try {
-                boolean changed = applyDecayToWordState(state, now);
+            for (WordState state : chunk) {
+                try {
+                    String previousState = state.getCurrentState();
 
-                if (changed) {
-                    updated++;
+                    if (decayWordState(state, now)) {
+                        updated++;
+                        delta.record(previousState, state.getCurrentState());
 
-                    // 保存更新
-                    wordStateRepository.save(state);
+                        log.trace("已衰減: wordId={}, strength={}, state: {} → {}",
+                                state.getWord().getId(),
+                                state.getMemoryStrength(),
+                                previousState,
+                                state.getCurrentState());
+                    }
 
-                    log.trace("已衰減: word='{}', strength: {:.3f} → {:.3f}, state: {} → {}",
-                            state.getWord().getWordText(),
-                            state.getMemoryStrength() == null ? 0 : state.getMemoryStrength(),
-                            state.getMemoryStrength(),
-                            state.getCurrentState(),
-                            state.getCurrentState());
+                } catch (Exception e) {
+                    log.error("❌ 衰減失敗: user={}, wordId={}: {}",
+                            user.getId(), state.getWord().getId(), e.getMessage(), e);
                 }
+            }
 
-            } catch (Exception e) {
-                log.error("❌ 衰減失敗: user={}, word='{}': {}",
-                        user.getId(), state.getWord().getWordText(), e.getMessage(), e);
+            // 受管理的實體由 dirty checking 產生 UPDATE，flush 時以 JDBC 批次送出
+            entityManager.flush();
+            entityManager.clear();
+
+            afterId = chunk.get(chunk.size() - 1).getId();
+            if (chunk.size() < chunkSize) {
+                break;
             }
         }
 
+        // 同步學習統計（每位使用者一次 UPDATE）
+        learningSummaryService.recordTransitions(user, delta);
+
         log.debug("✅ 使用者 {} 衰減完成: {} 個已更新", user.getId(), updated);
 
         return updated;
     }
 
+    /**
+     * 逐筆路徑的單筆處理：衰減，或為尚未排程的舊資料補上下次複習時間
+     *
+     * 集合式路徑（WordStateRepositoryCustom.applyNightlyDecay / scheduleMissingReviews）與此結果一致
+     *
+     * @return 是否有更新
+     */
+    boolean decayWordState(WordState state, LocalDateTime now) {
+        boolean changed = applyDecayToWordState(state, now);
+
+        // 尚未排程的舊資料：補上下次複習時間
+        if (!changed && state.getNextRecommendedReviewTime() == null) {
+            changed = scheduleNextReview(state, state.getLastReviewTime());
+        }
+
+        return changed;
+    }
+
+    // ==================== 集合式路徑：以使用者分段執行 UPDATE ====================
+
+    /**
+     * 對一段使用者執行集合式衰減（須在交易內呼叫）
+     *
+     * 統計改為由 word_state 重新計數：集合式 UPDATE 不回傳每列原本的狀態，無法累計轉移
+     *
+     * @return 更新的 WordState 數量（衰減 + 補排程）
+     */
+    private int decayUserRange(WordStateRepositoryCustom.UserSlice slice, LocalDateTime now) {
+        WordStateRepositoryCustom.NightlyDecayParameters parameters = sqlDecayParameters();
+
+        int decayed = wordStateRepository.applyNightlyDecay(slice, now, parameters);
+        int scheduled = wordStateRepository.scheduleMissingReviews(slice, parameters);
+
+        learningSummaryService.recountUserRange(slice);
+
+        return decayed + scheduled;
+    }
+
+    /**
+     * 集合式衰減參數：衰減量取自 AlgorithmCoreService，閾值與遺忘率取自 AlgorithmConfig
+     */
+    WordStateRepositoryCustom.NightlyDecayParameters sqlDecayParameters() {
+        return new WordStateRepositoryCustom.NightlyDecayParameters(
+                algorithmCoreService.nightlyDecayAmount("S1"),
+                algorithmCoreService.nightlyDecayAmount("S2"),
+                algorithmCoreService.nightlyDecayAmount("S3"),
+                algorithmConfig.getThresholdS1(),
+                algorithmConfig.getThresholdS2(),
+                algorithmConfig.getThresholdS3(),
+                algorithmConfig.getLambdaDecay(),
+                algorithmConfig.getKForgotten(),
+                AlgorithmCoreService.MAX_REVIEW_INTERVAL_DAYS
+        );
+    }
+
     // ==================== 核心邏輯：應用衰減到單個 WordState ====================
 
     /**
@@ -201,7 +673,8 @@ public class MemoryDecayTask {
         }
 
         // ========== 決定衰減幅度 ==========
-        Double decayAmount = getDecayAmount(currentStateStr);
+        // 衰減幅度表見 AlgorithmCoreService.nightlyDecayAmount（延遲衰減模式共用）
+        double decayAmount = algorithmCoreService.nightlyDecayAmount(currentStateStr);
 
         log.trace("衰減參數: state={}, old_strength={:.3f}, decay_amount={:.3f}",
                 currentStateStr, oldStrength, decayAmount);
@@ -235,59 +708,36 @@ public class MemoryDecayTask {
         // ========== 更新最後衰減時間 ==========
         state.setLastReviewTime(currentTime);
 
+        // ========== 重新排程下次複習時間 ==========
+        scheduleNextReview(state, currentTime);
+
         return true;
     }
 
-    // ==================== 輔助方法：根據狀態決定衰減幅度 ====================
+    // ==================== 輔助方法：排程下次複習時間 ====================
 
     /**
-     * 根據 FSM 狀態返回衰減幅度
+     * 依目前強度與狀態重新計算 next_recommended_review_time
      *
-     * 衰減幅度表（基於經驗值）：
+     * 單字複雜度取自記憶體目錄（state.getWord().getId() 不會觸發 LAZY 載入）
      *
-     * | 狀態 | 描述 | 衰減幅度 | 理由 |
-     * |------|------|--------|------|
-     * | S0 | 新單字 | 0.00 | 未開始學習 |
-     * | S1 | 學習中 | 0.15 | 記憶不穩定 |
-     * | S2 | 複習中 | 0.08 | 記憶逐漸穩定 |
-     * | S3 | 已精通 | 0.03 | 記憶非常穩定 |
-     * | S-1 | 已遺忘 | 0.00 | 等待複習 |
-     *
-     * 說明：
-     * - 衰減幅度越大，記憶越容易遺忘
-     * - 衰減幅度越小，記憶越穩定
-     * - 應用場景：每天自動衰減一次
-     *
-     * @param state 當前 FSM 狀態（"S0", "S1", "S2", "S3", "S-1"）
-     * @return 衰減幅度（0.0-0.15）
+     * @return 是否有排程（S0 不排程）
      */
-    private Double getDecayAmount(String state) {
-
-        switch (state) {
-            case "S0":   // 新單字：不衰減
-                log.trace("衰減幅度決定: S0 → 0.00（未開始學習）");
-                return 0.0;
-
-            case "S1":   // 學習中：衰減幅度大（記憶不穩定）
-                log.trace("衰減幅度決定: S1 → 0.15（記憶不穩定）");
-                return 0.15;
-
-            case "S2":   // 複習中：衰減幅度中（記憶逐漸穩定）
-                log.trace("衰減幅度決定: S2 → 0.08（記憶逐漸穩定）");
-                return 0.08;
-
-            case "S3":   // 已精通：衰減幅度小（記憶非常穩定）
-                log.trace("衰減幅度決定: S3 → 0.03（記憶非常穩定）");
-                return 0.03;
-
-            case "S-1":  // 已遺忘：不衰減（等待複習）
-                log.trace("衰減幅度決定: S-1 → 0.00（等待複習）");
-                return 0.0;
-
-            default:
-                log.warn("⚠️ 未知的 FSM 狀態: {}, 使用預設衰減 0.0", state);
-                return 0.0;
-        }
+    private boolean scheduleNextReview(WordState state, LocalDateTime from) {
+        double complexity = wordCatalogService.findById(state.getWord().getId())
+                .map(w -> w.getComplexityScore() == null ? 1.0 : w.getComplexityScore())
+                .orElse(1.0);
+
+        LocalDateTime next = algorithmCoreService.calculateNextReviewTime(
+                state.getCurrentState(),
+                state.getMemoryStrength(),
+                complexity,
+                state.getForgottenCount(),
+                from
+        );
+
+        state.setNextRecommendedReviewTime(next);
+        return next != null;
     }
 
     // ==================== 測試用方法：手動觸發衰減 ====================
@@ -297,23 +747,55 @@ public class MemoryDecayTask {
      *
      * 🔑 只在開發測試時使用，生產環境不應暴露此方法
      *
+     * 立即衰減所有使用者一次（不分片、不更新分片進度）
+     *
      * @return 更新的 WordState 總數
      */
-    @Transactional
     public int manualTriggerDecay() {
 
+        if (decayConfig.isLazy()) {
+            log.warn("⏭️ 延遲衰減模式下不執行批次衰減");
+            return 0;
+        }
+
         log.warn("🟡 手動觸發記憶衰減（測試用）");
 
-        List<User> allUsers = userRepository.findAll();
+        try {
+            DecayRunResult result = runDecay(1, 0, 0L);
+
+            log.info("✅ 手動衰減完成: 更新了 {} 個 WordState（{} ms）", result.rows(), result.durationMs());
 
-        int totalUpdated = 0;
+            return (int) result.rows();
 
-        for (User user : allUsers) {
-            totalUpdated += decayUserMemories(user);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("⚠️ 手動衰減被中斷");
+            return 0;
         }
+    }
+
+    // ==================== 執行結果 ====================
 
-        log.info("✅ 手動衰減完成: 更新了 {} 個 WordState", totalUpdated);
+    /**
+     * 單次衰減任務的統計（吞吐量記錄用）、處理失敗的使用者與中止位置
+     *
+     * @param lastUserId 已提交處理的最後一位使用者 ID（中止時為續做位置）
+     * @param aborted 是否因租約遺失而中止
+     */
+    private record DecayRunResult(long users,
+                                  long rows,
+                                  long errors,
+                                  long durationMs,
+                                  List<Long> failedUserIds,
+                                  long lastUserId,
+                                  boolean aborted) {
+
+        double usersPerSecond() {
+            return durationMs == 0 ? users : users * 1000.0 / durationMs;
+        }
 
-        return totalUpdated;
+        double rowsPerSecond() {
+            return durationMs == 0 ? rows : rows * 1000.0 / durationMs;
+        }
     }
-}
\ No newline at end of file
+}
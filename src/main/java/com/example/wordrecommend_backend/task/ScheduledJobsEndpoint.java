@@ -0,0 +1,70 @@
+package com.example.wordrecommend_backend.task;
+
+import com.example.wordrecommend_backend.entity.ScheduledJobLock;
+import com.example.wordrecommend_backend.service.JobLockService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 定時任務管理端檢視（GET /actuator/scheduledjobs）
+ *
+ * 每個任務：目前是否執行中、持有節點、租約與心跳時間、最後一次執行的節點、時間、耗時與結果
+ */
+@Component
+@Endpoint(id = "scheduledjobs")
+@RequiredArgsConstructor
+public class ScheduledJobsEndpoint {
+
+    private final JobLockService jobLockService;
+
+    @ReadOperation
+    public JobsView jobs() {
+        LocalDateTime now = LocalDateTime.now();
+
+        List<JobView> jobs = jobLockService.findAll().stream()
+                .sorted(Comparator.comparing(ScheduledJobLock::getJobName))
+                .map(lock -> JobView.of(lock, now))
+                .toList();
+
+        return new JobsView(jobLockService.getNodeId(), jobs);
+    }
+
+    public record JobsView(String node, List<JobView> jobs) {
+    }
+
+    public record JobView(
+            String jobName,
+            boolean running,
+            String lockedBy,
+            LocalDateTime lockedUntil,
+            LocalDateTime heartbeatAt,
+            String lastNode,
+            LocalDateTime lastStartedAt,
+            LocalDateTime lastFinishedAt,
+            Long lastDurationMs,
+            String lastStatus,
+            String lastError) {
+
+        static JobView of(ScheduledJobLock lock, LocalDateTime now) {
+            return new JobView(
+                    lock.getJobName(),
+                    lock.getLockedUntil() != null && lock.getLockedUntil().isAfter(now),
+                    lock.getLockedBy(),
+                    lock.getLockedUntil(),
+                    lock.getHeartbeatAt(),
+                    lock.getLastNode(),
+                    lock.getLastStartedAt(),
+                    lock.getLastFinishedAt(),
+                    lock.getLastDurationMs(),
+                    lock.getLastStatus(),
+                    lock.getLastError()
+            );
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.wordrecommend_backend.util;
+
+import java.util.Arrays;
+
+/**
+ * 壓縮點陣圖（Roaring 風格）
+ *
+ * 用途：
+ * - 記錄使用者「已建立 WordState 的單字」（以單字目錄的稠密索引表示）
+ * - 取代 NOT IN (SELECT ws.word.id ...) 反連接
+ *
+ * 結構：
+ * - 以整數的高 16 位元分組，每組一個容器（container）
+ * - 稀疏容器：排序的 char[]（元素數 <= 4096）
+ * - 稠密容器：long[1024] 點陣（65536 位元，固定 8 KB）
+ * - 稀疏容器超過 4096 個元素時自動轉為稠密容器
+ *
+ * 注意：
+ * - 非執行緒安全；共享時請以 copy() 做寫入時複製（copy-on-write）
+ * - 只接受非負整數
+ */
+public final class CompressedBitmap {
+
+    private static final int ARRAY_CONTAINER_MAX = 4096;
+
+    private char[] keys;
+    private Container[] containers;
+    private int size;
+
+    public CompressedBitmap() {
+        this.keys = new char[4];
+        this.containers = new Container[4];
+        this.size = 0;
+    }
+
+    private CompressedBitmap(char[] keys, Container[] containers, int size) {
+        this.keys = keys;
+        this.containers = containers;
+        this.size = size;
+    }
+
+    /**
+     * 由整數陣列建立點陣圖（負數會被忽略）
+     */
+    public static CompressedBitmap of(int... values) {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int v : values) {
+            if (v >= 0) {
+                bitmap.add(v);
+            }
+        }
+        return bitmap;
+    }
+
+    /**
+     * 加入一個元素
+     *
+     * @return 是否為新加入的元素
+     */
+    public boolean add(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value: " + value);
+        }
+
+        char high = (char) (value >>> 16);
+        char low = (char) value;
+
+        int i = Arrays.binarySearch(keys, 0, size, high);
+        if (i >= 0) {
+            int before = containers[i].cardinality();
+            containers[i] = containers[i].add(low);
+            return containers[i].cardinality() > before;
+        }
+
+        int insertAt = -i - 1;
+        if (size == keys.length) {
+            int newCapacity = Math.max(4, size * 2);
+            keys = Arrays.copyOf(keys, newCapacity);
+            containers = Arrays.copyOf(containers, newCapacity);
+        }
+        System.arraycopy(keys, insertAt, keys, insertAt + 1, size - insertAt);
+        System.arraycopy(containers, insertAt, containers, insertAt + 1, size - insertAt);
+
+        keys[insertAt] = high;
+        containers[insertAt] = new ArrayContainer().add(low);
+        size++;
+        return true;
+    }
+
+    /**
+     * 判斷是否包含元素
+     */
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int i = Arrays.binarySearch(keys, 0, size, (char) (value >>> 16));
+        return i >= 0 && containers[i].contains((char) value);
+    }
+
+    /**
+     * 元素總數
+     */
+    public int cardinality() {
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            total += containers[i].cardinality();
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 深拷貝（寫入時複製用）
+     */
+    public CompressedBitmap copy() {
+        Container[] copied = new Container[containers.length];
+        for (int i = 0; i < size; i++) {
+            copied[i] = containers[i].copy();
+        }
+        return new CompressedBitmap(keys.clone(), copied, size);
+    }
+
+    /**
+     * 估計佔用的記憶體位元組數（不含物件標頭）
+     */
+    public long estimatedSizeInBytes() {
+        long bytes = (long) keys.length * Character.BYTES + (long) containers.length * 8;
+        for (int i = 0; i < size; i++) {
+            bytes += containers[i].sizeInBytes();
+        }
+        return bytes;
+    }
+
+    // ==================== 容器 ====================
+
+    private abstract static class Container {
+        abstract Container add(char low);
+
+        abstract boolean contains(char low);
+
+        abstract int cardinality();
+
+        abstract Container copy();
+
+        abstract long sizeInBytes();
+    }
+
+    /**
+     * 稀疏容器：排序的 char 陣列
+     */
+    private static final class ArrayContainer extends Container {
+        private char[] content = new char[4];
+        private int cardinality;
+
+        @Override
+        Container add(char low) {
+            int i = Arrays.binarySearch(content, 0, cardinality, low);
+            if (i >= 0) {
+                return this;
+            }
+
+            if (cardinality >= ARRAY_CONTAINER_MAX) {
+                return toBitmapContainer().add(low);
+            }
+
+            int insertAt = -i - 1;
+            if (cardinality == content.length) {
+                content = Arrays.copyOf(content, Math.min(ARRAY_CONTAINER_MAX, cardinality * 2));
+            }
+            System.arraycopy(content, insertAt, content, insertAt + 1, cardinality - insertAt);
+            content[insertAt] = low;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return Arrays.binarySearch(content, 0, cardinality, low) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container copy() {
+            ArrayContainer c = new ArrayContainer();
+            c.content = Arrays.copyOf(content, content.length);
+            c.cardinality = cardinality;
+            return c;
+        }
+
+        @Override
+        long sizeInBytes() {
+            return (long) content.length * Character.BYTES;
+        }
+
+        private BitmapContainer toBitmapContainer() {
+            BitmapContainer bc = new BitmapContainer();
+            for (int i = 0; i < cardinality; i++) {
+                bc.add(content[i]);
+            }
+            return bc;
+        }
+    }
+
+    /**
+     * 稠密容器：65536 位元點陣
+     */
+    private static final class BitmapContainer extends Container {
+        private final long[] words = new long[1024];
+        private int cardinality;
+
+        @Override
+        Container add(char low) {
+            int index = low >>> 6;
+            long bit = 1L << low;
+            if ((words[index] & bit) == 0) {
+                words[index] |= bit;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container copy() {
+            BitmapContainer c = new BitmapContainer();
+            System.arraycopy(words, 0, c.words, 0, words.length);
+            c.cardinality = cardinality;
+            return c;
+        }
+
+        @Override
+        long sizeInBytes() {
+            return (long) words.length * Long.BYTES;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.wordrecommend_backend.util;
+
+/**
+ * 以種子定義的偽隨機排列（Seeded Permutation）
+ *
+ * 用途：
+ * - 為每位使用者、每個 CEFR 等級產生固定的「洗牌順序」
+ * - 第 i 個位置對應的元素可在 O(1) 內算出，不需要實際打亂陣列
+ *
+ * 原理：
+ * - 在 2^bits（>= n）的定義域上做 4 輪 Feistel 網路，得到一個雙射
+ * - 結果超出 [0, n) 時繼續加密（cycle walking），直到落在範圍內
+ * - 因為 2^bits < 4n，平均只需少於 4 次加密
+ *
+ * 特性：
+ * - 相同 (n, seed) 在任何節點、任何時間都得到相同排列
+ * - apply 為 [0, n) 上的雙射，因此依序走訪不會重複也不會遺漏
+ */
+public final class SeededPermutation {
+
+    private static final int ROUNDS = 4;
+
+    private final int n;
+    private final long seed;
+    private final int halfBits;
+    private final int halfMask;
+
+    public SeededPermutation(int n, long seed) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Permutation size must be >= 0: " + n);
+        }
+
+        this.n = n;
+        this.seed = seed;
+
+        int bits = 2;
+        while ((1L << bits) < n) {
+            bits++;
+        }
+        if ((bits & 1) == 1) {
+            bits++;
+        }
+
+        this.halfBits = bits / 2;
+        this.halfMask = (1 << halfBits) - 1;
+    }
+
+    public int size() {
+        return n;
+    }
+
+    /**
+     * 取得排列中第 position 個元素
+     *
+     * @param position 位置，範圍 [0, n)
+     * @return 對應的原始索引，範圍 [0, n)
+     */
+    public int apply(int position) {
+        if (position < 0 || position >= n) {
+            throw new IndexOutOfBoundsException("position " + position + " out of [0, " + n + ")");
+        }
+
+        int x = position;
+        do {
+            x = encrypt(x);
+        } while (x >= n);
+        return x;
+    }
+
+    private int encrypt(int x) {
+        int left = x >>> halfBits;
+        int right = x & halfMask;
+
+        for (int round = 0; round < ROUNDS; round++) {
+            int next = left ^ (roundFunction(right, round) & halfMask);
+            left = right;
+            right = next;
+        }
+
+        return (left << halfBits) | right;
+    }
+
+    private int roundFunction(int value, int round) {
+        long z = seed + (round + 1) * 0x9E3779B97F4A7C15L + value;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (int) z;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.wordrecommend_backend.util;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 分段鎖（Striped Lock）
+ *
+ * 用途：
+ * - 以固定數量的鎖保護無上限的鍵（例如使用者 ID），記憶體用量固定
+ * - 相同鍵一定對應同一把鎖；不同鍵可能共用一把鎖（只會多等待，不會出錯）
+ *
+ * 特性：
+ * - 鎖數量取 2 的次方，以位元遮罩取代取餘數
+ * - 公平鎖：等待中的執行緒依到達順序取得鎖（同一使用者的事件依序套用）
+ */
+public final class StripedLocks {
+
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    public StripedLocks(int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Stripes must be > 0: " + stripes);
+        }
+
+        int size = Integer.highestOneBit(stripes);
+        if (size < stripes) {
+            size <<= 1;
+        }
+
+        this.locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock(true);
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * 取得鍵對應的鎖
+     */
+    public ReentrantLock get(long key) {
+        return locks[spread(key) & mask];
+    }
+
+    public int size() {
+        return locks.length;
+    }
+
+    /**
+     * 打散連續 ID，避免相鄰使用者集中在少數鎖上
+     */
+    private static int spread(long key) {
+        long z = key * 0x9E3779B97F4A7C15L;
+        z ^= (z >>> 32);
+        return (int) (z ^ (z >>> 16));
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.wordrecommend_backend.util;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 
 public class TimeUtil {
@@ -65,4 +66,60 @@ public class TimeUtil {
         // 使用 ChronoUnit.DAYS 直接計算天數（自動向下取整）
         return ChronoUnit.DAYS.between(start, end);
     }
-}
\ No newline at end of file
+
+    // ==================== epoch 毫秒版本（評分熱路徑用）====================
+
+    /**
+     * 將 LocalDateTime 轉為 epoch 毫秒
+     *
+     * 注意：固定以 UTC 解讀，只用於計算時間差（兩端使用相同時區即可得到正確差值）
+     *
+     * @param time 時間
+     * @return epoch 毫秒
+     */
+    public static long toEpochMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    /**
+     * 將 epoch 毫秒轉回 LocalDateTime（toEpochMillis 的反函數）
+     *
+     * @param epochMs epoch 毫秒
+     * @return 時間
+     */
+    public static LocalDateTime fromEpochMillis(long epochMs) {
+        return LocalDateTime.ofEpochSecond(
+                Math.floorDiv(epochMs, 1000L),
+                (int) Math.floorMod(epochMs, 1000L) * 1_000_000,
+                ZoneOffset.UTC
+        );
+    }
+
+    /**
+     * 計算兩個 epoch 毫秒之間的日數差（與 LocalDateTime 版本結果相同）
+     *
+     * @param startMs 起始時間（epoch 毫秒）
+     * @param endMs 結束時間（epoch 毫秒）
+     * @return 日數差，起始晚於結束時返回 0
+     */
+    public static double calculateDaysDifference(long startMs, long endMs) {
+        if (startMs > endMs) {
+            return 0.0;
+        }
+        return (double) (endMs - startMs) / MILLIS_PER_DAY;
+    }
+
+    /**
+     * 計算兩個 epoch 毫秒之間的日數差（整數，向下取整）
+     *
+     * @param startMs 起始時間（epoch 毫秒）
+     * @param endMs 結束時間（epoch 毫秒）
+     * @return 天數差，起始晚於結束時返回 0
+     */
+    public static long calculateDaysDifferenceAsLong(long startMs, long endMs) {
+        if (startMs > endMs) {
+            return 0L;
+        }
+        return (endMs - startMs) / MILLIS_PER_DAY;
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.wordrecommend_backend.util;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * 前 K 名選取器（有界二元堆積）
+ *
+ * 用途：
+ * - 複習推薦只需要優先度最高的 K 筆，不需要完整排序
+ * - 取代「HashMap<Long, Double> + 裝箱比較器全排序 + subList」
+ *
+ * 原理：
+ * - 以大小為 K 的最小堆積保存目前最好的 K 筆，堆頂為其中最差的一筆
+ * - 新元素比堆頂好才替換並下沉，時間 O(n log K)，額外空間 O(K)
+ * - 堆積以 double[] / int[] 平行陣列實作，不產生任何裝箱物件
+ *
+ * 排序規則（與穩定排序一致）：
+ * - 優先度高者在前
+ * - 優先度相同時，索引小者在前（等同原本 stream sorted 的穩定性）
+ */
+public final class TopKSelector {
+
+    private TopKSelector() {
+    }
+
+    /**
+     * 選出優先度最高的 K 個索引（依優先度遞減排序）
+     *
+     * @param priorities 各候選的優先度
+     * @param k 選取數量
+     * @return 候選索引，長度為 min(k, n)
+     */
+    public static int[] selectTopK(double[] priorities, int k) {
+        int[] result = selectUnordered(priorities, k);
+        sortDescending(priorities, result);
+        return result;
+    }
+
+    /**
+     * 「前 60% 再隨機」選取（fetchWordsWithPriority 的語意）
+     *
+     * 步驟：
+     * 1. 取優先度前 max(n × fraction, take) 名
+     * 2. 在這些候選中隨機打亂
+     * 3. 取前 take 個
+     *
+     * @param priorities 各候選的優先度
+     * @param fraction 保留比例（例如 0.6）
+     * @param take 最終數量
+     * @param random 亂數產生器
+     * @return 候選索引，長度為 min(take, n)，順序隨機
+     */
+    public static int[] selectTopFractionThenShuffle(double[] priorities,
+                                                     double fraction,
+                                                     int take,
+                                                     RandomGenerator random) {
+        int n = priorities.length;
+        int topCount = Math.min(Math.max((int) (n * fraction), take), n);
+
+        // 只需要前 topCount 名的集合，不需要排序
+        int[] top = selectUnordered(priorities, topCount);
+
+        // 部分 Fisher-Yates：只洗出前 take 個位置
+        int limit = Math.min(take, top.length);
+        for (int i = 0; i < limit; i++) {
+            int j = i + random.nextInt(top.length - i);
+            int tmp = top[i];
+            top[i] = top[j];
+            top[j] = tmp;
+        }
+
+        if (limit == top.length) {
+            return top;
+        }
+        int[] result = new int[limit];
+        System.arraycopy(top, 0, result, 0, limit);
+        return result;
+    }
+
+    // ==================== 堆積實作 ====================
+
+    /**
+     * 以最小堆積選出前 K 名（結果為堆積順序，未排序）
+     */
+    private static int[] selectUnordered(double[] priorities, int k) {
+        int n = priorities.length;
+        int size = Math.max(0, Math.min(k, n));
+        int[] heap = new int[size];
+        if (size == 0) {
+            return heap;
+        }
+
+        // 先填滿堆積，再自底向上建堆 O(K)
+        for (int i = 0; i < size; i++) {
+            heap[i] = i;
+        }
+        for (int i = (size >>> 1) - 1; i >= 0; i--) {
+            siftDown(priorities, heap, i, size);
+        }
+
+        // 其餘元素只有比堆頂（目前第 K 名）好才進入
+        for (int i = size; i < n; i++) {
+            if (better(priorities, i, heap[0])) {
+                heap[0] = i;
+                siftDown(priorities, heap, 0, size);
+            }
+        }
+
+        return heap;
+    }
+
+    /**
+     * 堆積排序：反覆取出最差者放到尾端，得到由好到差的順序
+     */
+    private static void sortDescending(double[] priorities, int[] heap) {
+        for (int end = heap.length - 1; end > 0; end--) {
+            int worst = heap[0];
+            heap[0] = heap[end];
+            heap[end] = worst;
+            siftDown(priorities, heap, 0, end);
+        }
+    }
+
+    private static void siftDown(double[] priorities, int[] heap, int pos, int size) {
+        int item = heap[pos];
+        int half = size >>> 1;
+        while (pos < half) {
+            int child = (pos << 1) + 1;
+            int right = child + 1;
+            if (right < size && better(priorities, heap[child], heap[right])) {
+                child = right;
+            }
+            if (!better(priorities, item, heap[child])) {
+                break;
+            }
+            heap[pos] = heap[child];
+            pos = child;
+        }
+        heap[pos] = item;
+    }
+
+    /**
+     * a 是否排在 b 之前（優先度高者優先，相同時索引小者優先）
+     */
+    private static boolean better(double[] priorities, int a, int b) {
+        double pa = priorities[a];
+        double pb = priorities[b];
+        return pa > pb || (pa == pb && a < b);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.wordrecommend_backend.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 交易相關工具
+ */
+public class TransactionUtil {
+
+    /**
+     * 在目前交易提交後執行（沒有進行中的交易時立即執行）
+     *
+     * 用途：
+     * - 更新記憶體快取 / 佇列時，避免交易回滾後留下不一致的狀態
+     *
+     * @param action 要執行的動作
+     */
+    public static void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
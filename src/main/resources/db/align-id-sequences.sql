@@ -0,0 +1,21 @@
+-- Align the pooled id sequences with rows inserted before the switch from IDENTITY columns.
+-- Runs after Hibernate schema update on every start-up; idempotent and never moves a sequence backwards.
+-- Pooled optimizer: each nextval reserves the block (value - 49 .. value), so increment must match allocationSize (50).
+
+ALTER SEQUENCE users_seq INCREMENT BY 50;
+SELECT setval('users_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM users), (SELECT last_value FROM users_seq)));
+
+ALTER SEQUENCE words_seq INCREMENT BY 50;
+SELECT setval('words_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM words), (SELECT last_value FROM words_seq)));
+
+ALTER SEQUENCE word_state_seq INCREMENT BY 50;
+SELECT setval('word_state_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM word_state), (SELECT last_value FROM word_state_seq)));
+
+ALTER SEQUENCE review_history_seq INCREMENT BY 50;
+SELECT setval('review_history_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM review_history), (SELECT last_value FROM review_history_seq)));
+
+ALTER SEQUENCE refresh_tokens_seq INCREMENT BY 50;
+SELECT setval('refresh_tokens_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM refresh_tokens), (SELECT last_value FROM refresh_tokens_seq)));
+
+ALTER SEQUENCE password_reset_token_seq INCREMENT BY 50;
+SELECT setval('password_reset_token_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM password_reset_token), (SELECT last_value FROM password_reset_token_seq)));
@@ -0,0 +1,18 @@
+-- Enforce one word_state row per (user_id, word_id); required by the upsert's ON CONFLICT target.
+-- Hibernate schema update cannot add the constraint while duplicates exist (it only logs a warning),
+-- so duplicates left by earlier concurrent inserts are removed first, keeping the most recently reviewed row.
+-- Run LEARNING_SUMMARY_REBUILD_ON_STARTUP=true once afterwards if rows were removed.
+-- The cleanup only runs while the unique index is missing: the uncorrelated NOT EXISTS is a one-time
+-- filter, so once the index exists the start-up cost is a single catalog lookup instead of a self-join.
+
+DELETE FROM word_state ws
+USING word_state keep
+WHERE ws.user_id = keep.user_id
+  AND ws.word_id = keep.word_id
+  AND (ws.last_review_time, ws.id) < (keep.last_review_time, keep.id)
+  AND NOT EXISTS (SELECT 1 FROM pg_indexes
+                  WHERE schemaname = current_schema()
+                    AND tablename = 'word_state'
+                    AND indexname = 'ux_word_state_user_word');
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_word_state_user_word ON word_state (user_id, word_id);
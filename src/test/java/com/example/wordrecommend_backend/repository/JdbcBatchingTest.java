@@ -0,0 +1,120 @@
+package com.example.wordrecommend_backend.repository;
+
+import com.example.wordrecommend_backend.entity.InteractionType;
+import com.example.wordrecommend_backend.entity.ReviewHistory;
+import com.example.wordrecommend_backend.entity.User;
+import com.example.wordrecommend_backend.entity.Word;
+import com.example.wordrecommend_backend.entity.WordState;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * JDBC 批次寫入測試
+ *
+ * IDENTITY 主鍵會讓 Hibernate 靜默停用批次插入（每筆都要取回產生的 ID）；
+ * 改用 pooled 序列後，同類型的插入應共用同一個 PreparedStatement 批次送出
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class JdbcBatchingTest {
+
+    private static final int ROWS = 120;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ReviewHistoryRepository reviewHistoryRepository;
+
+    private Statistics statistics;
+    private User user;
+    private List<Word> words;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("batching");
+        user.setEmail("batching@example.com");
+        entityManager.persist(user);
+
+        words = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            Word word = new Word();
+            word.setWordText("word" + i);
+            word.setTranslation("t" + i);
+            word.setPartOfSpeech("n.");
+            word.setCefrLevel("A1");
+            entityManager.persist(word);
+            words.add(word);
+        }
+        entityManager.flush();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void reviewHistoryInsertsAreBatched() {
+        List<ReviewHistory> histories = new ArrayList<>();
+        for (Word word : words) {
+            histories.add(history(word));
+        }
+
+        reviewHistoryRepository.saveAll(histories);
+        entityManager.flush();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ROWS);
+        // 120 筆 / batch_size 50 = 3 個批次，加上少量序列呼叫（每 50 個 ID 一次）
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(10);
+    }
+
+    @Test
+    void interleavedInsertsAreGroupedByEntity() {
+        // 模擬批次閱讀事件：每個單字交錯產生 ReviewHistory 與 WordState
+        for (Word word : words) {
+            entityManager.persist(history(word));
+
+            WordState state = new WordState();
+            state.setUser(user);
+            state.setWord(word);
+            state.setCurrentState("S1");
+            state.setMemoryStrength(0.1);
+            state.setHasEverLearned(true);
+            state.setLastReviewTime(LocalDateTime.now());
+            entityManager.persist(state);
+        }
+        entityManager.flush();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(2L * ROWS);
+        // order_inserts 讓兩種實體各自成批，而非每次切換類型就送出一個單筆批次
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(20);
+    }
+
+    private ReviewHistory history(Word word) {
+        ReviewHistory history = new ReviewHistory();
+        history.setUser(user);
+        history.setWord(word);
+        history.setInteractionType(InteractionType.READ);
+        history.setDurationMs(3000L);
+        history.setReviewTime(LocalDateTime.now());
+        return history;
+    }
+}
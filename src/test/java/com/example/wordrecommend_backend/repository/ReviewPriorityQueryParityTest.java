@@ -0,0 +1,167 @@
+package com.example.wordrecommend_backend.repository;
+
+import com.example.wordrecommend_backend.config.AlgorithmConfig;
+import com.example.wordrecommend_backend.dto.ReviewCandidate;
+import com.example.wordrecommend_backend.entity.User;
+import com.example.wordrecommend_backend.entity.Word;
+import com.example.wordrecommend_backend.entity.WordState;
+import com.example.wordrecommend_backend.service.AlgorithmCoreService;
+import com.example.wordrecommend_backend.util.TimeUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * 資料庫端 top-K 複習優先度與 AlgorithmCoreService 的一致性測試
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class ReviewPriorityQueryParityTest {
+
+    private static final List<String> STATES = List.of("S-1", "S1", "S2", "S3");
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private WordStateRepository wordStateRepository;
+
+    private AlgorithmConfig config;
+    private AlgorithmCoreService algorithmCoreService;
+    private User user;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        config = new AlgorithmConfig();
+        config.setLambdaDecay(0.1);
+        config.setW1Strength(0.7);
+        config.setW2Urgency(0.3);
+        config.setKForgotten(0.1);
+        config.setKS1Bonus(50.0);
+        algorithmCoreService = new AlgorithmCoreService(config);
+
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+
+        user = new User();
+        user.setUsername("parity");
+        user.setEmail("parity@example.com");
+        entityManager.persist(user);
+
+        Random random = new Random(42);
+        for (int i = 0; i < 300; i++) {
+            Word word = new Word();
+            word.setWordText("word" + i);
+            word.setTranslation("t" + i);
+            word.setPartOfSpeech("n.");
+            word.setCefrLevel("A1");
+            word.setComplexityScore(i % 17 == 0 ? null : random.nextDouble());
+            entityManager.persist(word);
+
+            WordState state = new WordState();
+            state.setUser(user);
+            state.setWord(word);
+            state.setCurrentState(STATES.get(random.nextInt(STATES.size())));
+            state.setMemoryStrength(random.nextDouble());
+            state.setHasEverLearned(true);
+            state.setForgottenCount(random.nextInt(5));
+            state.setLastReviewTime(now.minusMinutes(random.nextInt(60 * 24 * 30)));
+            if (random.nextInt(5) > 0) {
+                state.setLastForgottenTime(now.minusMinutes(random.nextInt(60 * 24 * 15)));
+            }
+            entityManager.persist(state);
+        }
+
+        // 對照組：其他使用者的資料不應出現在結果中
+        User other = new User();
+        other.setUsername("other");
+        other.setEmail("other@example.com");
+        entityManager.persist(other);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void sqlTopKMatchesJavaRanking() {
+        assertParity(Set.of(), 20);
+    }
+
+    @Test
+    void sqlTopKAppliesExcludeSet() {
+        List<Long> allIds = javaRanking(Set.of()).stream().map(Scored::wordId).toList();
+        Set<Long> exclude = new HashSet<>(allIds.subList(0, 10));
+
+        List<Scored> sql = assertParity(exclude, 15);
+
+        assertThat(sql).extracting(Scored::wordId).doesNotContainAnyElementsOf(exclude);
+    }
+
+    @Test
+    void sqlTopKReturnsAllWhenLimitExceedsCandidates() {
+        assertParity(Set.of(), 1000);
+    }
+
+    private List<Scored> assertParity(Set<Long> exclude, int limit) {
+        List<Scored> java = javaRanking(exclude);
+        java = java.subList(0, Math.min(limit, java.size()));
+
+        List<Scored> sql = sqlRanking(exclude, limit);
+
+        assertThat(sql).extracting(Scored::wordId)
+                .containsExactlyElementsOf(java.stream().map(Scored::wordId).toList());
+
+        for (int i = 0; i < sql.size(); i++) {
+            assertThat(sql.get(i).priority()).isCloseTo(java.get(i).priority(), within(1e-9));
+        }
+        return sql;
+    }
+
+    private List<Scored> javaRanking(Set<Long> exclude) {
+        long nowMs = TimeUtil.toEpochMillis(now);
+        List<ReviewCandidate> candidates = wordStateRepository.findReviewCandidates(
+                user, STATES, PageRequest.of(0, 4000));
+
+        return candidates.stream()
+                .filter(c -> !exclude.contains(c.wordId()))
+                .map(c -> new Scored(c.wordId(), algorithmCoreService.calculateReviewPriority(c, nowMs)))
+                .sorted(Comparator.comparingDouble(Scored::priority).reversed()
+                        .thenComparingLong(Scored::wordId))
+                .toList();
+    }
+
+    private List<Scored> sqlRanking(Set<Long> exclude, int limit) {
+        List<Object[]> rows = wordStateRepository.findTopReviewPriorities(
+                user.getId(),
+                STATES,
+                exclude.isEmpty() ? List.of(-1L) : exclude,
+                TimeUtil.toEpochMillis(now),
+                config.getW1Strength(),
+                config.getW2Urgency(),
+                config.getLambdaDecay(),
+                config.getKForgotten(),
+                config.getKS1Bonus(),
+                limit
+        );
+
+        return rows.stream()
+                .map(r -> new Scored(((Number) r[0]).longValue(), ((Number) r[2]).doubleValue()))
+                .toList();
+    }
+
+    private record Scored(long wordId, double priority) {
+    }
+}
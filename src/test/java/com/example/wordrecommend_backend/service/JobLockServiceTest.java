@@ -0,0 +1,186 @@
+package com.example.wordrecommend_backend.service;
+
+import com.example.wordrecommend_backend.entity.ScheduledJobLock;
+import com.example.wordrecommend_backend.repository.ScheduledJobLockRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 定時任務鎖（兩個節點共用同一個資料庫）
+ *
+ * 不使用測試交易：租約在獨立交易中提交，需要實際寫入資料庫
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JobLockServiceTest {
+
+    private static final String JOB = "test-job";
+    private static final Duration LEASE = Duration.ofMinutes(1);
+
+    @Autowired
+    private ScheduledJobLockRepository lockRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private MutableClock clock;
+    private JobLockService nodeA;
+    private JobLockService nodeB;
+
+    @BeforeEach
+    void setUp() {
+        lockRepository.deleteAll();
+
+        clock = new MutableClock(LocalDateTime.of(2025, 1, 1, 0, 0));
+        nodeA = new JobLockService(lockRepository, transactionManager, clock, true, "node-a");
+        nodeB = new JobLockService(lockRepository, transactionManager, clock, true, "node-b");
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeA.shutdown();
+        nodeB.shutdown();
+    }
+
+    @Test
+    void onlyOneNodeAcquiresTheLease() {
+        assertThat(nodeA.tryAcquire(JOB, LEASE)).isTrue();
+        assertThat(nodeB.tryAcquire(JOB, LEASE)).isFalse();
+        assertThat(nodeA.tryAcquire(JOB, LEASE)).isFalse();
+    }
+
+    @Test
+    void expiredLeaseIsTakenOverByAnotherNode() {
+        assertThat(nodeA.tryAcquire(JOB, LEASE)).isTrue();
+
+        clock.advance(LEASE.plusSeconds(1));
+
+        assertThat(nodeB.tryAcquire(JOB, LEASE)).isTrue();
+        assertThat(lockRepository.findById(JOB)).get()
+                .extracting(ScheduledJobLock::getLockedBy).isEqualTo("node-b");
+    }
+
+    @Test
+    void heartbeatKeepsTheLeaseAlive() {
+        assertThat(nodeA.tryAcquire(JOB, LEASE)).isTrue();
+
+        clock.advance(Duration.ofSeconds(50));
+        nodeA.heartbeat(JOB, LEASE);
+        clock.advance(Duration.ofSeconds(30));
+
+        assertThat(nodeB.tryAcquire(JOB, LEASE)).isFalse();
+    }
+
+    @Test
+    void heartbeatFlagsTheLeaseAsLostAfterTakeover() {
+        AtomicBoolean lostDuringRun = new AtomicBoolean();
+
+        nodeA.runExclusive(JOB, LEASE, () -> {
+            assertThat(nodeA.isLeaseLost(JOB)).isFalse();
+
+            clock.advance(LEASE.plusSeconds(1));
+            assertThat(nodeB.tryAcquire(JOB, LEASE)).isTrue();
+            nodeA.heartbeat(JOB, LEASE);
+
+            lostDuringRun.set(nodeA.isLeaseLost(JOB));
+        });
+
+        assertThat(lostDuringRun).isTrue();
+        assertThat(nodeA.isLeaseLost(JOB)).isFalse();
+        assertThat(lockRepository.findById(JOB)).get()
+                .extracting(ScheduledJobLock::getLockedBy).isEqualTo("node-b");
+    }
+
+    @Test
+    void runExclusiveSkipsWhileAnotherNodeIsRunning() {
+        AtomicInteger runs = new AtomicInteger();
+        AtomicBoolean nestedRan = new AtomicBoolean();
+
+        boolean ran = nodeA.runExclusive(JOB, LEASE, () -> {
+            runs.incrementAndGet();
+            nestedRan.set(nodeB.runExclusive(JOB, LEASE, runs::incrementAndGet));
+        });
+
+        assertThat(ran).isTrue();
+        assertThat(nestedRan).isFalse();
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void runExclusiveRecordsLastRunAndReleases() {
+        assertThat(nodeA.runExclusive(JOB, LEASE, () -> clock.advance(Duration.ofSeconds(5)))).isTrue();
+
+        ScheduledJobLock lock = lockRepository.findById(JOB).orElseThrow();
+        assertThat(lock.getLockedBy()).isNull();
+        assertThat(lock.getLockedUntil()).isNull();
+        assertThat(lock.getLastNode()).isEqualTo("node-a");
+        assertThat(lock.getLastStatus()).isEqualTo(JobLockService.STATUS_SUCCEEDED);
+        assertThat(lock.getLastStartedAt()).isEqualTo(LocalDateTime.of(2025, 1, 1, 0, 0));
+        assertThat(lock.getLastFinishedAt()).isEqualTo(LocalDateTime.of(2025, 1, 1, 0, 0, 5));
+        assertThat(lock.getLastDurationMs()).isNotNull();
+
+        assertThat(nodeB.tryAcquire(JOB, LEASE)).isTrue();
+    }
+
+    @Test
+    void failedRunIsRecordedAndReleases() {
+        assertThatThrownBy(() -> nodeA.runExclusive(JOB, LEASE, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        ScheduledJobLock lock = lockRepository.findById(JOB).orElseThrow();
+        assertThat(lock.getLockedBy()).isNull();
+        assertThat(lock.getLastStatus()).isEqualTo(JobLockService.STATUS_FAILED);
+        assertThat(lock.getLastError()).contains("boom");
+
+        assertThat(nodeB.tryAcquire(JOB, LEASE)).isTrue();
+    }
+
+    /**
+     * 可手動推進的時鐘
+     */
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(LocalDateTime start) {
+            this.instant = start.atZone(ZoneOffset.UTC).toInstant();
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
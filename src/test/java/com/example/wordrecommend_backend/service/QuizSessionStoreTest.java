@@ -0,0 +1,124 @@
+package com.example.wordrecommend_backend.service;
+
+import com.example.wordrecommend_backend.repository.QuizSessionRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 複習會話儲存：副本、條件式更新與認領題目（memory 與 jdbc 行為相同）
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class QuizSessionStoreTest {
+
+    @Autowired
+    private QuizSessionRecordRepository recordRepository;
+
+    private List<QuizSessionStore> stores;
+
+    @BeforeEach
+    void setUp() {
+        stores = List.of(
+                new InMemoryQuizSessionStore(new SimpleMeterRegistry(), 100, 60),
+                new JdbcQuizSessionStore(recordRepository, new ObjectMapper(), new SimpleMeterRegistry(), 60)
+        );
+    }
+
+    @Test
+    void findReturnsCopies() {
+        for (QuizSessionStore store : stores) {
+            QuizSession session = newSession();
+            store.save(session);
+
+            QuizSession found = store.find(session.getSessionId()).orElseThrow();
+            found.setCurrentIndex(2);
+            found.getAnswerKeys().get(1L).setAnswered(true);
+
+            QuizSession again = store.find(session.getSessionId()).orElseThrow();
+            assertThat(again.getCurrentIndex()).as(store.getClass().getSimpleName()).isZero();
+            assertThat(again.getAnswerKeys().get(1L).isAnswered()).as(store.getClass().getSimpleName()).isFalse();
+        }
+    }
+
+    @Test
+    void updateReappliesMutationAfterConcurrentChange() {
+        for (QuizSessionStore store : stores) {
+            QuizSession session = newSession();
+            store.save(session);
+            String sessionId = session.getSessionId();
+
+            // 第一次套用期間，另一個請求先寫入：寫回時版本不符，重新讀取後再套用
+            AtomicBoolean interleaved = new AtomicBoolean();
+            QuizSession updated = store.update(sessionId, current -> {
+                if (interleaved.compareAndSet(false, true) && store instanceof JdbcQuizSessionStore) {
+                    store.update(sessionId, other -> {
+                        other.setPrefetchedCount(2);
+                        return true;
+                    });
+                }
+                current.setCurrentIndex(current.getCurrentIndex() + 1);
+                return true;
+            }).orElseThrow();
+
+            assertThat(updated.getCurrentIndex()).as(store.getClass().getSimpleName()).isOne();
+            QuizSession stored = store.find(sessionId).orElseThrow();
+            assertThat(stored.getCurrentIndex()).as(store.getClass().getSimpleName()).isOne();
+            if (store instanceof JdbcQuizSessionStore) {
+                assertThat(stored.getPrefetchedCount()).isEqualTo(2);
+            }
+        }
+    }
+
+    @Test
+    void answersAreClaimedOnceAndCanBeReleased() {
+        for (QuizSessionStore store : stores) {
+            QuizSession session = newSession();
+            store.save(session);
+            String sessionId = session.getSessionId();
+            String name = store.getClass().getSimpleName();
+
+            assertThat(store.claimAnswers(sessionId, List.of(1L))).as(name).isTrue();
+            assertThat(store.claimAnswers(sessionId, List.of(1L))).as(name).isFalse();
+
+            // 任一題已作答：整批不認領
+            assertThat(store.claimAnswers(sessionId, List.of(2L, 1L))).as(name).isFalse();
+            assertThat(store.find(sessionId).orElseThrow().getAnswerKeys().get(2L).isAnswered()).as(name).isFalse();
+
+            store.releaseAnswers(sessionId, List.of(1L));
+            assertThat(store.claimAnswers(sessionId, List.of(1L, 2L))).as(name).isTrue();
+
+            assertThat(store.claimAnswers("missing", List.of(1L))).as(name).isFalse();
+        }
+    }
+
+    private static QuizSession newSession() {
+        Map<Long, AnswerKey> keys = new LinkedHashMap<>();
+        keys.put(1L, new AnswerKey(1L, 10L, "NORMAL", 0, 10L, "一", null, List.of(10L), false));
+        keys.put(2L, new AnswerKey(2L, 20L, "NORMAL", 1, 20L, "二", null, List.of(20L), false));
+
+        QuizSession session = new QuizSession();
+        session.setSessionId(UUID.randomUUID().toString());
+        session.setUserId(1L);
+        session.setWordIds(new ArrayList<>(List.of(10L, 20L)));
+        session.setAnswerKeys(keys);
+        session.setCurrentIndex(0);
+        session.setCreatedAt(System.currentTimeMillis());
+        return session;
+    }
+}
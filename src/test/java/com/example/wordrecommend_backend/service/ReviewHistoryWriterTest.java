@@ -0,0 +1,158 @@
+package com.example.wordrecommend_backend.service;
+
+import com.example.wordrecommend_backend.config.AlgorithmConfig;
+import com.example.wordrecommend_backend.config.DecayConfig;
+import com.example.wordrecommend_backend.dto.ReadEventRequest;
+import com.example.wordrecommend_backend.entity.InteractionType;
+import com.example.wordrecommend_backend.entity.ReviewHistory;
+import com.example.wordrecommend_backend.entity.User;
+import com.example.wordrecommend_backend.entity.Word;
+import com.example.wordrecommend_backend.entity.WordState;
+import com.example.wordrecommend_backend.repository.NewWordCursorRepository;
+import com.example.wordrecommend_backend.repository.ReviewHistoryRepository;
+import com.example.wordrecommend_backend.repository.UserLearningSummaryRepository;
+import com.example.wordrecommend_backend.repository.UserRepository;
+import com.example.wordrecommend_backend.repository.WordRepository;
+import com.example.wordrecommend_backend.repository.WordStateRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 複習歷史同步寫入（未啟用 write-behind 或佇列已滿時的後備路徑）
+ *
+ * 不使用測試交易：同步寫入發生在請求交易的 afterCommit 中，需要實際提交
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReviewHistoryWriterTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WordRepository wordRepository;
+
+    @Autowired
+    private WordStateRepository wordStateRepository;
+
+    @Autowired
+    private ReviewHistoryRepository reviewHistoryRepository;
+
+    @Autowired
+    private UserLearningSummaryRepository summaryRepository;
+
+    @Autowired
+    private NewWordCursorRepository cursorRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate requestTransaction;
+    private RecommendationService recommendationService;
+    private User user;
+    private Word word;
+
+    @BeforeEach
+    void setUp() {
+        reviewHistoryRepository.deleteAll();
+        summaryRepository.deleteAll();
+        wordStateRepository.deleteAll();
+        wordRepository.deleteAll();
+        userRepository.deleteAll();
+
+        user = new User();
+        user.setUsername("history");
+        user.setEmail("history@example.com");
+        user = userRepository.save(user);
+
+        word = new Word();
+        word.setWordText("history");
+        word.setTranslation("歷史");
+        word.setPartOfSpeech("n.");
+        word.setCefrLevel("B1");
+        word.setComplexityScore(0.5);
+        word = wordRepository.save(word);
+
+        // 既有的 WordState：批次閱讀以 IN 查詢載入，不需要 PostgreSQL 專用的 upsert
+        WordState state = new WordState();
+        state.setUser(user);
+        state.setWord(word);
+        state.setCurrentState("S1");
+        state.setMemoryStrength(0.3);
+        state.setHasEverLearned(true);
+        state.setLastReviewTime(LocalDateTime.now().minusDays(1));
+        wordStateRepository.save(state);
+
+        AlgorithmConfig config = new AlgorithmConfig();
+        config.setThresholdS1(0.10);
+        config.setThresholdS2(0.5);
+        config.setThresholdS3(0.85);
+        AlgorithmCoreService algorithmCoreService = new AlgorithmCoreService(config);
+
+        WordCatalogService catalog = new WordCatalogService(wordRepository);
+        catalog.refresh();
+
+        LazyDecayService lazyDecayService = new LazyDecayService(new DecayConfig(), algorithmCoreService);
+
+        // write-behind 停用：每筆記錄都在請求交易提交後同步寫入
+        ReviewHistoryWriter writer = new ReviewHistoryWriter(
+                reviewHistoryRepository,
+                userRepository,
+                wordRepository,
+                transactionManager,
+                new SimpleMeterRegistry(),
+                false, 10, 200, 500, 50);
+
+        recommendationService = new RecommendationService(
+                wordStateRepository,
+                writer,
+                algorithmCoreService,
+                catalog,
+                new TouchedWordIndex(wordStateRepository, catalog, 100, 30),
+                new NewWordCursorService(cursorRepository, catalog),
+                new LearningSummaryService(summaryRepository, wordStateRepository, userRepository,
+                        lazyDecayService, new TransactionTemplate(transactionManager)),
+                lazyDecayService
+        );
+
+        // 直接建構的服務沒有交易代理，由測試開啟請求交易
+        requestTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void synchronousWritesCommitAfterTheRequestTransaction() {
+        requestTransaction.executeWithoutResult(status ->
+                recommendationService.handleReadingEvents(user, List.of(new ReadEventRequest(word.getId(), 12_000L))));
+
+        List<ReviewHistory> histories = reviewHistoryRepository.findAll();
+        assertThat(histories).hasSize(1);
+        assertThat(histories.get(0).getInteractionType()).isEqualTo(InteractionType.READ);
+        assertThat(histories.get(0).getDurationMs()).isEqualTo(12_000L);
+    }
+
+    @Test
+    void rolledBackRequestsLeaveNoHistory() {
+        requestTransaction.executeWithoutResult(status -> {
+            recommendationService.handleReadingEvents(user, List.of(new ReadEventRequest(word.getId(), 12_000L)));
+            status.setRollbackOnly();
+        });
+
+        assertThat(reviewHistoryRepository.findAll()).isEmpty();
+    }
+}
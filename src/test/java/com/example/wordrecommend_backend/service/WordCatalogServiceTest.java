@@ -0,0 +1,103 @@
+package com.example.wordrecommend_backend.service;
+
+import com.example.wordrecommend_backend.entity.Word;
+import com.example.wordrecommend_backend.repository.WordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 單字目錄變更檢查（refreshIfChanged）
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class WordCatalogServiceTest {
+
+    private static final String PART_OF_SPEECH = "catalog-test";
+
+    @Autowired
+    private WordRepository wordRepository;
+
+    private WordCatalogService catalog;
+
+    @BeforeEach
+    void setUp() {
+        wordRepository.save(newWord("catalog-alpha", 0.3));
+
+        catalog = new WordCatalogService(wordRepository);
+        catalog.refresh();
+    }
+
+    @Test
+    void unchangedCatalogIsNotReloaded() {
+        long version = catalog.version();
+
+        assertThat(catalog.refreshIfChanged()).isFalse();
+        assertThat(catalog.version()).isEqualTo(version);
+    }
+
+    @Test
+    void insertedWordsReloadTheSnapshotAndComplexityIndex() {
+        Word added = wordRepository.save(newWord("catalog-beta", 0.9));
+
+        assertThat(catalog.refreshIfChanged()).isTrue();
+        assertThat(catalog.contains(added.getId())).isTrue();
+        assertThat(catalog.sampleByPartOfSpeechAndComplexity(PART_OF_SPEECH, 0.8, 1.0, null, 5))
+                .extracting(Word::getWordText)
+                .containsExactly("catalog-beta");
+        assertThat(catalog.refreshIfChanged()).isFalse();
+    }
+
+    @Test
+    void deletedWordsReloadTheSnapshot() {
+        Word removed = wordRepository.save(newWord("catalog-gamma", 0.5));
+        catalog.refresh();
+        int size = catalog.size();
+
+        wordRepository.delete(removed);
+
+        assertThat(catalog.refreshIfChanged()).isTrue();
+        assertThat(catalog.contains(removed.getId())).isFalse();
+        assertThat(catalog.size()).isEqualTo(size - 1);
+    }
+
+    @Test
+    void samplingReturnsDistinctWordsAndSkipsExcludedOnes() {
+        for (int i = 0; i < 20; i++) {
+            wordRepository.save(newWord("catalog-sample-" + i, 0.5));
+        }
+        catalog.refresh();
+        Long excludedId = catalog.sampleByPartOfSpeech(PART_OF_SPEECH, null, 1).get(0).getId();
+
+        for (int round = 0; round < 50; round++) {
+            List<Word> picked = catalog.sampleByPartOfSpeech(PART_OF_SPEECH, excludedId, 8);
+
+            assertThat(picked).hasSize(8);
+            assertThat(picked).extracting(Word::getId).doesNotHaveDuplicates().doesNotContain(excludedId);
+        }
+
+        // 要求數量超過候選池時回傳所有未排除的單字
+        assertThat(catalog.sampleByPartOfSpeech(PART_OF_SPEECH, excludedId, 100))
+                .extracting(Word::getId)
+                .doesNotHaveDuplicates()
+                .hasSize(catalog.sampleByPartOfSpeech(PART_OF_SPEECH, null, 100).size() - 1);
+    }
+
+    private static Word newWord(String text, double complexity) {
+        Word word = new Word();
+        word.setWordText(text);
+        word.setTranslation(text);
+        word.setPartOfSpeech(PART_OF_SPEECH);
+        word.setCefrLevel("B1");
+        word.setComplexityScore(complexity);
+        return word;
+    }
+}
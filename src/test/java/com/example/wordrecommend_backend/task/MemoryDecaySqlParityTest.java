@@ -0,0 +1,253 @@
+package com.example.wordrecommend_backend.task;
+
+import com.example.wordrecommend_backend.config.AlgorithmConfig;
+import com.example.wordrecommend_backend.config.DecayConfig;
+import com.example.wordrecommend_backend.entity.User;
+import com.example.wordrecommend_backend.entity.Word;
+import com.example.wordrecommend_backend.entity.WordState;
+import com.example.wordrecommend_backend.repository.UserRepository;
+import com.example.wordrecommend_backend.repository.WordRepository;
+import com.example.wordrecommend_backend.repository.WordStateRepository;
+import com.example.wordrecommend_backend.repository.WordStateRepositoryCustom;
+import com.example.wordrecommend_backend.service.AlgorithmCoreService;
+import com.example.wordrecommend_backend.service.WordCatalogService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * 集合式每日衰減（SQL）與逐筆路徑（Java）的一致性測試
+ *
+ * 兩位使用者擁有相同的 WordState，一位走 Java 路徑、一位走集合式 UPDATE，結果應逐列相同
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class MemoryDecaySqlParityTest {
+
+    private static final List<String> STATES = List.of("S0", "S-1", "S1", "S2", "S3");
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WordRepository wordRepository;
+
+    @Autowired
+    private WordStateRepository wordStateRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private AlgorithmConfig config;
+    private WordCatalogService catalog;
+    private MemoryDecayTask task;
+    private User javaUser;
+    private User sqlUser;
+    private User untouchedUser;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        config = new AlgorithmConfig();
+        config.setLambdaDecay(0.1);
+        config.setKForgotten(0.1);
+        config.setThresholdS1(0.10);
+        config.setThresholdS2(0.5);
+        config.setThresholdS3(0.85);
+
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+
+        javaUser = persistUser("java");
+        sqlUser = persistUser("sql");
+        untouchedUser = persistUser("untouched");
+
+        Random random = new Random(42);
+        for (int i = 0; i < 300; i++) {
+            Word word = new Word();
+            word.setWordText("word" + i);
+            word.setTranslation("t" + i);
+            word.setPartOfSpeech("n.");
+            word.setCefrLevel("A1");
+            word.setComplexityScore(i % 17 == 0 ? null : random.nextDouble());
+            entityManager.persist(word);
+
+            String state = STATES.get(random.nextInt(STATES.size()));
+            // 部分強度落在閾值附近，驗證衰減後的狀態判定
+            double strength = i % 11 == 0 ? 0.5 + random.nextDouble() * 0.1 : random.nextDouble();
+            boolean hasEverLearned = random.nextBoolean();
+            int forgottenCount = random.nextInt(5);
+            LocalDateTime lastReview = now.minusMinutes(random.nextInt(60 * 24 * 30));
+            // 約三分之一為尚未排程的舊資料
+            LocalDateTime nextReview = random.nextInt(3) == 0 ? null : now.plusHours(random.nextInt(200));
+
+            for (User user : List.of(javaUser, sqlUser, untouchedUser)) {
+                WordState ws = new WordState();
+                ws.setUser(user);
+                ws.setWord(word);
+                ws.setCurrentState(state);
+                ws.setMemoryStrength(strength);
+                ws.setHasEverLearned(hasEverLearned);
+                ws.setForgottenCount(forgottenCount);
+                ws.setLastReviewTime(lastReview);
+                ws.setNextRecommendedReviewTime(nextReview);
+                entityManager.persist(ws);
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        catalog = new WordCatalogService(wordRepository);
+        catalog.refresh();
+
+        task = newTask();
+    }
+
+    private MemoryDecayTask newTask() {
+        return new MemoryDecayTask(
+                userRepository,
+                wordStateRepository,
+                new AlgorithmCoreService(config),
+                null,
+                catalog,
+                new DecayConfig(),
+                config,
+                null,
+                null,
+                null,
+                transactionManager,
+                10
+        );
+    }
+
+    @Test
+    void setBasedDecayMatchesEntityPath() {
+        assertSetBasedDecayMatchesEntityPath();
+    }
+
+    @Test
+    void setBasedDecayMatchesEntityPathWithoutLambda() {
+        // 未設定遺忘率：到期時間改依每日衰減排程推算（午夜）
+        config.setLambdaDecay(0.0);
+        task = newTask();
+
+        assertSetBasedDecayMatchesEntityPath();
+
+        assertThat(wordStateRepository.findByUser(javaUser))
+                .map(WordState::getNextRecommendedReviewTime)
+                .filteredOn(Objects::nonNull)
+                .anySatisfy(next -> assertThat(next.toLocalTime()).isEqualTo(LocalTime.MIDNIGHT));
+    }
+
+    private void assertSetBasedDecayMatchesEntityPath() {
+        int javaUpdated = 0;
+        for (WordState state : wordStateRepository.findByUser(javaUser)) {
+            if (task.decayWordState(state, now)) {
+                javaUpdated++;
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        WordStateRepositoryCustom.NightlyDecayParameters parameters = task.sqlDecayParameters();
+        WordStateRepositoryCustom.UserSlice slice = sliceOf(sqlUser);
+        int sqlUpdated = wordStateRepository.applyNightlyDecay(slice, now, parameters)
+                + wordStateRepository.scheduleMissingReviews(slice, parameters);
+        entityManager.clear();
+
+        assertThat(javaUpdated).isPositive();
+        assertThat(sqlUpdated).isEqualTo(javaUpdated);
+
+        Map<Long, WordState> java = byWordId(javaUser);
+        Map<Long, WordState> sql = byWordId(sqlUser);
+        assertThat(sql.keySet()).isEqualTo(java.keySet());
+
+        for (Long wordId : java.keySet()) {
+            WordState expected = java.get(wordId);
+            WordState actual = sql.get(wordId);
+
+            assertThat(actual.getMemoryStrength()).as("strength of word %d", wordId)
+                    .isCloseTo(expected.getMemoryStrength(), within(1e-9));
+            assertThat(actual.getCurrentState()).as("state of word %d", wordId)
+                    .isEqualTo(expected.getCurrentState());
+            assertThat(actual.getLastReviewTime()).as("last review of word %d", wordId)
+                    .isEqualTo(expected.getLastReviewTime());
+            assertThat(actual.getVersion()).as("version of word %d", wordId)
+                    .isEqualTo(expected.getVersion());
+
+            if (expected.getNextRecommendedReviewTime() == null) {
+                assertThat(actual.getNextRecommendedReviewTime()).as("next review of word %d", wordId).isNull();
+            } else {
+                assertThat(actual.getNextRecommendedReviewTime()).as("next review of word %d", wordId).isNotNull();
+                assertThat(Duration.between(expected.getNextRecommendedReviewTime(),
+                        actual.getNextRecommendedReviewTime()).abs())
+                        .isLessThanOrEqualTo(Duration.ofMillis(1));
+            }
+        }
+    }
+
+    @Test
+    void setBasedDecayOnlyTouchesUsersInRange() {
+        WordStateRepositoryCustom.NightlyDecayParameters parameters = task.sqlDecayParameters();
+        WordStateRepositoryCustom.UserSlice slice = sliceOf(sqlUser);
+        wordStateRepository.applyNightlyDecay(slice, now, parameters);
+        wordStateRepository.scheduleMissingReviews(slice, parameters);
+        entityManager.clear();
+
+        assertThat(wordStateRepository.findByUser(untouchedUser))
+                .allSatisfy(ws -> assertThat(ws.getVersion()).isZero());
+    }
+
+    @Test
+    void setBasedDecayHonorsShardFilter() {
+        // 涵蓋三位使用者的 ID 範圍，但只有 sqlUser 屬於指定分片（三個連續 ID 的 MOD 3 互不相同）
+        long from = Math.min(javaUser.getId(), Math.min(sqlUser.getId(), untouchedUser.getId()));
+        long to = Math.max(javaUser.getId(), Math.max(sqlUser.getId(), untouchedUser.getId()));
+        WordStateRepositoryCustom.UserSlice slice = new WordStateRepositoryCustom.UserSlice(
+                from, to, 3, (int) (sqlUser.getId() % 3));
+
+        int updated = wordStateRepository.applyNightlyDecay(slice, now, task.sqlDecayParameters());
+        entityManager.clear();
+
+        assertThat(updated).isPositive();
+        assertThat(wordStateRepository.findByUser(sqlUser)).anySatisfy(ws -> assertThat(ws.getVersion()).isOne());
+        assertThat(wordStateRepository.findByUser(javaUser)).allSatisfy(ws -> assertThat(ws.getVersion()).isZero());
+        assertThat(wordStateRepository.findByUser(untouchedUser)).allSatisfy(ws -> assertThat(ws.getVersion()).isZero());
+    }
+
+    private static WordStateRepositoryCustom.UserSlice sliceOf(User user) {
+        return new WordStateRepositoryCustom.UserSlice(user.getId(), user.getId(), 1, 0);
+    }
+
+    private User persistUser(String name) {
+        User user = new User();
+        user.setUsername(name);
+        user.setEmail(name + "@example.com");
+        return entityManager.persist(user);
+    }
+
+    private Map<Long, WordState> byWordId(User user) {
+        return wordStateRepository.findByUser(user).stream()
+                .collect(Collectors.toMap(ws -> ws.getWord().getId(), Function.identity()));
+    }
+}
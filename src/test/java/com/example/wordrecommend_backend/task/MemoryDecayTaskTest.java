@@ -0,0 +1,282 @@
+package com.example.wordrecommend_backend.task;
+
+import com.example.wordrecommend_backend.config.AlgorithmConfig;
+import com.example.wordrecommend_backend.config.DecayConfig;
+import com.example.wordrecommend_backend.entity.DecayRetry;
+import com.example.wordrecommend_backend.entity.DecayShardProgress;
+import com.example.wordrecommend_backend.entity.User;
+import com.example.wordrecommend_backend.entity.Word;
+import com.example.wordrecommend_backend.entity.WordState;
+import com.example.wordrecommend_backend.repository.DecayRetryRepository;
+import com.example.wordrecommend_backend.repository.DecayShardProgressRepository;
+import com.example.wordrecommend_backend.repository.ScheduledJobLockRepository;
+import com.example.wordrecommend_backend.repository.UserRepository;
+import com.example.wordrecommend_backend.repository.WordRepository;
+import com.example.wordrecommend_backend.repository.WordStateRepository;
+import com.example.wordrecommend_backend.service.AlgorithmCoreService;
+import com.example.wordrecommend_backend.service.JobLockService;
+import com.example.wordrecommend_backend.service.LearningSummaryService;
+import com.example.wordrecommend_backend.service.WordCatalogService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * 分片進度與失敗重試（runShardIfDue）
+ *
+ * 不使用測試交易：衰減在執行緒池的獨立交易中執行，需要看到已提交的測試資料
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MemoryDecayTaskTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WordRepository wordRepository;
+
+    @Autowired
+    private WordStateRepository wordStateRepository;
+
+    @Autowired
+    private DecayShardProgressRepository progressRepository;
+
+    @Autowired
+    private DecayRetryRepository retryRepository;
+
+    @Autowired
+    private ScheduledJobLockRepository lockRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private DecayConfig decayConfig;
+    private FailingSummaryService summaryService;
+    private LeaseLosingJobLockService jobLockService;
+    private MemoryDecayTask task;
+    private User user;
+    private WordState wordState;
+
+    @BeforeEach
+    void setUp() {
+        retryRepository.deleteAll();
+        progressRepository.deleteAll();
+        wordStateRepository.deleteAll();
+        wordRepository.deleteAll();
+        userRepository.deleteAll();
+
+        Word word = new Word();
+        word.setWordText("decay");
+        word.setTranslation("衰減");
+        word.setPartOfSpeech("n.");
+        word.setCefrLevel("B1");
+        word.setComplexityScore(0.5);
+        word = wordRepository.save(word);
+
+        user = persistUser("decay");
+        wordState = persistWordState(user, word);
+
+        AlgorithmConfig config = new AlgorithmConfig();
+        config.setThresholdS1(0.10);
+        config.setThresholdS2(0.5);
+        config.setThresholdS3(0.85);
+
+        WordCatalogService catalog = new WordCatalogService(wordRepository);
+        catalog.refresh();
+
+        decayConfig = new DecayConfig();
+        summaryService = new FailingSummaryService();
+        jobLockService = new LeaseLosingJobLockService(lockRepository, transactionManager);
+
+        task = new MemoryDecayTask(
+                userRepository,
+                wordStateRepository,
+                new AlgorithmCoreService(config),
+                summaryService,
+                catalog,
+                decayConfig,
+                config,
+                progressRepository,
+                retryRepository,
+                jobLockService,
+                transactionManager,
+                10
+        );
+        ReflectionTestUtils.setField(task, "entityManager", entityManager);
+    }
+
+    @Test
+    void newShardStartsAtTodayEvenBeforeItsSlot() throws InterruptedException {
+        // 分片 1/2 的執行時間為 12:00；升級當天的午夜排程已衰減過今天，不應再執行一次
+        task.runShardIfDue(1, 2, DAY.atTime(0, 30));
+        task.runShardIfDue(1, 2, DAY.atTime(23, 0));
+
+        DecayShardProgress progress = progressRepository.findById(1).orElseThrow();
+        assertThat(progress.getLastDecayDate()).isEqualTo(DAY);
+        assertThat(progress.getLastStartedAt()).isNull();
+    }
+
+    @Test
+    void dueShardDecaysOncePerDay() throws InterruptedException {
+        task.runShardIfDue(0, 1, DAY.atTime(0, 30));
+        task.runShardIfDue(0, 1, DAY.plusDays(1).atTime(0, 5));
+        task.runShardIfDue(0, 1, DAY.plusDays(1).atTime(0, 10));
+
+        assertThat(progressRepository.findById(0).orElseThrow().getLastDecayDate()).isEqualTo(DAY.plusDays(1));
+        assertThat(strength()).isCloseTo(0.7 - 0.08, within(1e-9));
+    }
+
+    @Test
+    void failedUsersAreRetriedOnTheNextTickWithoutRedoingTheDay() throws InterruptedException {
+        task.runShardIfDue(0, 1, DAY.atTime(0, 30));
+
+        summaryService.failing = true;
+        task.runShardIfDue(0, 1, DAY.plusDays(1).atTime(0, 5));
+
+        // 進度照常推進，失敗的使用者記錄待重試，交易回滾後強度不變
+        assertThat(progressRepository.findById(0).orElseThrow().getLastDecayDate()).isEqualTo(DAY.plusDays(1));
+        assertThat(retryRepository.findAll()).extracting(DecayRetry::getDecayDate).containsExactly(DAY.plusDays(1));
+        assertThat(strength()).isCloseTo(0.7, within(1e-9));
+
+        summaryService.failing = false;
+        task.runShardIfDue(0, 1, DAY.plusDays(1).atTime(0, 10));
+        task.runShardIfDue(0, 1, DAY.plusDays(1).atTime(0, 15));
+
+        assertThat(retryRepository.findAll()).isEmpty();
+        assertThat(strength()).isCloseTo(0.7 - 0.08, within(1e-9));
+    }
+
+    @Test
+    void retriesOutsideTheCatchUpWindowAreDropped() throws InterruptedException {
+        decayConfig.setMaxCatchUpDays(2);
+        task.runShardIfDue(0, 1, DAY.atTime(0, 30));
+        retryRepository.save(new DecayRetry(0, user.getId(), DAY.minusDays(5)));
+
+        task.runShardIfDue(0, 1, DAY.atTime(0, 40));
+
+        assertThat(retryRepository.findAll()).isEmpty();
+        assertThat(strength()).isCloseTo(0.7, within(1e-9));
+    }
+
+    @Test
+    void lostLeaseAbortsBetweenPagesAndResumesWithoutRedoingUsers() throws InterruptedException {
+        WordState second = persistWordState(persistUser("decay-2"), wordState.getWord());
+        decayConfig.setUserPageSize(1);
+        task.runShardIfDue(0, 1, DAY.atTime(0, 30));
+
+        // 第一頁之後租約被接手：只處理第一位使用者，記錄續做位置，日期不推進
+        jobLockService.loseLeaseAfterChecks(1);
+        task.runShardIfDue(0, 1, DAY.plusDays(1).atTime(0, 5));
+
+        DecayShardProgress progress = progressRepository.findById(0).orElseThrow();
+        assertThat(progress.getLastDecayDate()).isEqualTo(DAY);
+        assertThat(progress.getResumeDate()).isEqualTo(DAY.plusDays(1));
+        assertThat(progress.getResumeAfterUserId()).isEqualTo(user.getId());
+        assertThat(strength()).isCloseTo(0.7 - 0.08, within(1e-9));
+        assertThat(strength(second)).isCloseTo(0.7, within(1e-9));
+
+        jobLockService.keepLease();
+        task.runShardIfDue(0, 1, DAY.plusDays(1).atTime(0, 10));
+
+        progress = progressRepository.findById(0).orElseThrow();
+        assertThat(progress.getLastDecayDate()).isEqualTo(DAY.plusDays(1));
+        assertThat(progress.getResumeDate()).isNull();
+        assertThat(strength()).isCloseTo(0.7 - 0.08, within(1e-9));
+        assertThat(strength(second)).isCloseTo(0.7 - 0.08, within(1e-9));
+    }
+
+    private User persistUser(String name) {
+        User newUser = new User();
+        newUser.setUsername(name);
+        newUser.setEmail(name + "@example.com");
+        return userRepository.save(newUser);
+    }
+
+    private WordState persistWordState(User owner, Word word) {
+        WordState state = new WordState();
+        state.setUser(owner);
+        state.setWord(word);
+        state.setCurrentState("S2");
+        state.setMemoryStrength(0.7);
+        state.setHasEverLearned(true);
+        state.setForgottenCount(0);
+        state.setLastReviewTime(DAY.atStartOfDay().minusDays(1));
+        return wordStateRepository.save(state);
+    }
+
+    private double strength() {
+        return strength(wordState);
+    }
+
+    private double strength(WordState state) {
+        return wordStateRepository.findById(state.getId()).orElseThrow().getMemoryStrength();
+    }
+
+    /**
+     * 統計同步失敗時整位使用者的交易回滾（模擬處理失敗）
+     */
+    private static class FailingSummaryService extends LearningSummaryService {
+
+        private volatile boolean failing;
+
+        FailingSummaryService() {
+            super(null, null, null, null, null);
+        }
+
+        @Override
+        public void recordTransitions(User user, StateDelta delta) {
+            if (failing) {
+                throw new IllegalStateException("summary unavailable");
+            }
+        }
+    }
+
+    /**
+     * 在指定次數的檢查之後回報租約遺失（模擬執行中被其他節點接手）
+     */
+    private static class LeaseLosingJobLockService extends JobLockService {
+
+        private final AtomicInteger remainingChecks = new AtomicInteger(Integer.MAX_VALUE);
+
+        LeaseLosingJobLockService(ScheduledJobLockRepository lockRepository,
+                                  PlatformTransactionManager transactionManager) {
+            super(lockRepository, transactionManager, false, "test-node");
+        }
+
+        void loseLeaseAfterChecks(int checks) {
+            remainingChecks.set(checks);
+        }
+
+        void keepLease() {
+            remainingChecks.set(Integer.MAX_VALUE);
+        }
+
+        @Override
+        public boolean isLeaseLost(String jobName) {
+            return remainingChecks.getAndDecrement() <= 0;
+        }
+    }
+}